@@ -1,20 +1,44 @@
 package me.jackstar.drakesworlds;
 
+import me.jackstar.drakesworlds.api.DrakesTerrainQuery;
+import me.jackstar.drakesworlds.api.DrakesWorldLoader;
 import me.jackstar.drakesworlds.command.DrakesWorldsCommand;
 import me.jackstar.drakesworlds.config.WorldsConfig;
 import me.jackstar.drakesworlds.domain.WorldProfile;
-import me.jackstar.drakesworlds.generation.DrakesBiomeProvider;
-import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
 import me.jackstar.drakesworlds.listener.DefaultWorldRoutingListener;
+import me.jackstar.drakesworlds.listener.FieldCacheReleaseListener;
+import me.jackstar.drakesworlds.listener.OnDemandWorldListener;
+import me.jackstar.drakesworlds.listener.ProfileHistoryListener;
+import me.jackstar.drakesworlds.listener.WarmupJoinListener;
+import me.jackstar.drakesworlds.service.ChunkPrefetchService;
+import me.jackstar.drakesworlds.service.PrecomputeService;
+import me.jackstar.drakesworlds.service.ProfileCostService;
+import me.jackstar.drakesworlds.service.ProfileHistoryService;
+import me.jackstar.drakesworlds.service.RandomTeleportService;
+import me.jackstar.drakesworlds.service.TerrainQueryService;
+import me.jackstar.drakesworlds.service.WarmupService;
 import me.jackstar.drakesworlds.service.WorldBootstrapService;
+import me.jackstar.drakesworlds.service.WorldLifecycleService;
+import me.jackstar.drakesworlds.service.WorldRotationService;
+import me.jackstar.drakesworlds.service.WorldTemplateService;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class DrakesWorldsPlugin extends JavaPlugin {
 
     private WorldsConfig worldsConfig;
     private WorldBootstrapService worldBootstrapService;
+    private ProfileHistoryService profileHistoryService;
+    private PrecomputeService precomputeService;
+    private ChunkPrefetchService chunkPrefetchService;
+    private WarmupService warmupService;
+    private ProfileCostService profileCostService;
+    private RandomTeleportService randomTeleportService;
+    private WorldLifecycleService worldLifecycleService;
+    private WorldTemplateService worldTemplateService;
+    private WorldRotationService worldRotationService;
 
     @Override
     public void onEnable() {
@@ -23,7 +47,13 @@ public final class DrakesWorldsPlugin extends JavaPlugin {
         this.worldsConfig = new WorldsConfig(this);
         this.worldsConfig.reload();
 
+        this.precomputeService = new PrecomputeService(this, worldsConfig.getPrecomputeSettings());
         this.worldBootstrapService = new WorldBootstrapService(this, worldsConfig);
+        this.warmupService = new WarmupService(this, worldsConfig.getWarmupSettings());
+        getServer().getPluginManager().registerEvents(new WarmupJoinListener(this), this);
+        this.profileHistoryService = new ProfileHistoryService(this);
+        this.worldLifecycleService = new WorldLifecycleService(this);
+        getServer().getPluginManager().registerEvents(new OnDemandWorldListener(this), this);
 
         registerCommands();
         this.worldBootstrapService.syncBukkitDefaultWorldGenerator();
@@ -34,32 +64,70 @@ public final class DrakesWorldsPlugin extends JavaPlugin {
             getServer().getScheduler().runTask(this, () -> {
                 this.worldBootstrapService.createStartupWorlds();
                 this.worldBootstrapService.ensureConfiguredDefaultWorldLoaded();
+                this.warmupService.start();
             });
         } else {
             this.worldBootstrapService.createStartupWorlds();
             this.worldBootstrapService.ensureConfiguredDefaultWorldLoaded();
+            this.warmupService.start();
         }
         getServer().getPluginManager().registerEvents(new DefaultWorldRoutingListener(this), this);
+        getServer().getPluginManager().registerEvents(new ProfileHistoryListener(this), this);
+        getServer().getPluginManager().registerEvents(new FieldCacheReleaseListener(), this);
+        this.precomputeService.start();
+        this.chunkPrefetchService = new ChunkPrefetchService(this);
+        this.chunkPrefetchService.start();
+        this.profileCostService = new ProfileCostService(this);
+        this.profileCostService.start();
+        this.randomTeleportService = new RandomTeleportService(this);
+        this.worldLifecycleService.start();
+        this.worldTemplateService = new WorldTemplateService(this);
+        this.worldTemplateService.start();
+        this.worldRotationService = new WorldRotationService(this);
+        this.worldRotationService.start();
+        getServer().getServicesManager().register(DrakesTerrainQuery.class, new TerrainQueryService(), this, ServicePriority.Normal);
+        getServer().getServicesManager().register(DrakesWorldLoader.class, worldLifecycleService, this, ServicePriority.Normal);
 
         getLogger().info("DrakesWorlds enabled. Loaded profiles: " + worldsConfig.getProfiles().keySet());
     }
 
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+        if (profileHistoryService != null) {
+            profileHistoryService.flushAll();
+        }
+        if (chunkPrefetchService != null) {
+            chunkPrefetchService.stop();
+        }
+        if (precomputeService != null) {
+            precomputeService.stop();
+        }
+        if (profileCostService != null) {
+            profileCostService.stop();
+        }
+        if (worldLifecycleService != null) {
+            worldLifecycleService.stop();
+        }
+        if (worldTemplateService != null) {
+            worldTemplateService.stop();
+        }
+        if (worldRotationService != null) {
+            worldRotationService.stop();
+        }
         getLogger().info("DrakesWorlds disabled.");
     }
 
     @Override
     public ChunkGenerator getDefaultWorldGenerator(String worldName, String profileId) {
-        if (worldsConfig == null) {
+        if (worldsConfig == null || worldBootstrapService == null) {
             return super.getDefaultWorldGenerator(worldName, profileId);
         }
 
         WorldProfile profile = worldsConfig.getProfile(profileId)
                 .orElseGet(worldsConfig::getRequiredDefaultProfile);
 
-        DrakesBiomeProvider biomeProvider = new DrakesBiomeProvider(profile);
-        return new DrakesChunkGenerator(profile, biomeProvider);
+        return worldBootstrapService.createGenerator(worldName, profile);
     }
 
     public WorldsConfig getWorldsConfig() {
@@ -70,6 +138,42 @@ public final class DrakesWorldsPlugin extends JavaPlugin {
         return worldBootstrapService;
     }
 
+    public ProfileHistoryService getProfileHistoryService() {
+        return profileHistoryService;
+    }
+
+    public PrecomputeService getPrecomputeService() {
+        return precomputeService;
+    }
+
+    public ChunkPrefetchService getChunkPrefetchService() {
+        return chunkPrefetchService;
+    }
+
+    public WarmupService getWarmupService() {
+        return warmupService;
+    }
+
+    public ProfileCostService getProfileCostService() {
+        return profileCostService;
+    }
+
+    public RandomTeleportService getRandomTeleportService() {
+        return randomTeleportService;
+    }
+
+    public WorldLifecycleService getWorldLifecycleService() {
+        return worldLifecycleService;
+    }
+
+    public WorldTemplateService getWorldTemplateService() {
+        return worldTemplateService;
+    }
+
+    public WorldRotationService getWorldRotationService() {
+        return worldRotationService;
+    }
+
     private void saveDefaultWorldsConfig() {
         if (!getDataFolder().exists() && !getDataFolder().mkdirs()) {
             getLogger().warning("Could not create plugin data folder.");
@@ -0,0 +1,29 @@
+package me.jackstar.drakesworlds.api;
+
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+
+// Predicts terrain of DrakesWorlds worlds from noise without generating chunks, as generated
+// (no edits, trees or snow). Thread-safe; registered with the ServicesManager.
+public interface DrakesTerrainQuery {
+
+    int MAX_BATCH_COLUMNS = 1 << 20;
+
+    // True when the world is generated by DrakesWorlds; the other methods throw
+    // IllegalArgumentException for any other world.
+    boolean supports(World world);
+
+    int seaLevel(World world);
+
+    // Y of the topmost terrain block of the column.
+    int predictSurfaceY(World world, int x, int z);
+
+    Biome predictBiome(World world, int x, int z);
+
+    // Surface Y of every column of the sizeX by sizeZ rectangle starting at minX, minZ,
+    // indexed [dz * sizeX + dx]. At most MAX_BATCH_COLUMNS columns per call.
+    int[] predictSurfaceY(World world, int minX, int minZ, int sizeX, int sizeZ);
+
+    // Biomes of the same rectangle, indexed like predictSurfaceY.
+    Biome[] predictBiomes(World world, int minX, int minZ, int sizeX, int sizeZ);
+}
@@ -0,0 +1,18 @@
+package me.jackstar.drakesworlds.api;
+
+import org.bukkit.World;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Loads startup worlds kept unloaded while idle; registered with the ServicesManager.
+// Callable from any thread; futures complete on the main thread.
+public interface DrakesWorldLoader {
+
+    // Names of the startup worlds that load on demand, loaded or not.
+    Set<String> onDemandWorlds();
+
+    // Completes at once if the world is loaded. Otherwise loads an on-demand world over the
+    // next ticks, or fails with IllegalArgumentException for any other unloaded world.
+    CompletableFuture<World> loadWorld(String name);
+}
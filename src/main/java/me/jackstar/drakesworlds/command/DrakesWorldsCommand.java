@@ -2,25 +2,53 @@ package me.jackstar.drakesworlds.command;
 
 import me.jackstar.drakesworlds.DrakesWorldsPlugin;
 import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.AllocationAudit;
+import me.jackstar.drakesworlds.diagnostics.GenerationBench;
+import me.jackstar.drakesworlds.domain.NoisePrecision;
+import me.jackstar.drakesworlds.domain.QualityTier;
 import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.ProfileBinding;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
+import me.jackstar.drakesworlds.generation.TerrainPrecompute;
+import me.jackstar.drakesworlds.generation.noise.NoiseRegistry;
+import me.jackstar.drakesworlds.offline.MapPreview;
+import me.jackstar.drakesworlds.offline.SeedSearch;
+import me.jackstar.drakesworlds.service.ChunkPrefetchService;
+import me.jackstar.drakesworlds.service.ProfileCostService;
+import me.jackstar.drakesworlds.service.RandomTeleportService;
+import me.jackstar.drakesworlds.service.WorldLifecycleService;
+import me.jackstar.drakesworlds.service.WorldTemplateService;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.GameRule;
 import org.bukkit.World;
+import org.bukkit.block.Biome;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter {
 
     private final DrakesWorldsPlugin plugin;
+    private final AtomicBoolean benchRunning = new AtomicBoolean();
+    private final AtomicBoolean previewRunning = new AtomicBoolean();
+    private final AtomicBoolean seedSearchRunning = new AtomicBoolean();
 
     public DrakesWorldsCommand(DrakesWorldsPlugin plugin) {
         this.plugin = plugin;
@@ -39,9 +67,16 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             case "listprofiles" -> handleListProfiles(sender);
             case "reload" -> handleReload(sender);
             case "worldinfo" -> handleWorldInfo(sender, args, label);
+            case "stats" -> handleStats(sender);
+            case "allocaudit" -> handleAllocAudit(sender, args, label);
+            case "bench" -> handleBench(sender, args, label);
+            case "preview" -> handlePreview(sender, args, label);
+            case "seedsearch" -> handleSeedSearch(sender, args, label);
             case "listworlds" -> handleListWorlds(sender);
             case "tp", "teleport" -> handleTeleport(sender, args, label);
             case "spawn", "hub" -> handleSpawn(sender, args, label);
+            case "rtp" -> handleRandomTeleport(sender, args, label);
+            case "rotate" -> handleRotate(sender, args, label);
             default -> {
                 sendHelp(sender);
                 yield true;
@@ -54,11 +89,14 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         if (args.length == 1) {
             List<String> values = new ArrayList<>();
             if (sender.hasPermission("drakesworlds.admin")) {
-                values.addAll(Arrays.asList("create", "listprofiles", "reload", "worldinfo"));
+                values.addAll(Arrays.asList("create", "listprofiles", "reload", "worldinfo", "stats", "allocaudit", "bench", "preview", "seedsearch", "rotate"));
             }
             if (sender.hasPermission("drakesworlds.teleport")) {
                 values.addAll(Arrays.asList("listworlds", "tp", "spawn"));
             }
+            if (sender.hasPermission("drakesworlds.rtp")) {
+                values.add("rtp");
+            }
             return filterByPrefix(values, args[0]);
         }
         if (args.length == 2 && "create".equalsIgnoreCase(args[0])) {
@@ -67,15 +105,35 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         if (args.length == 3 && "create".equalsIgnoreCase(args[0])) {
             return filterByPrefix(new ArrayList<>(plugin.getWorldsConfig().getProfiles().keySet()), args[2]);
         }
+        if (args.length == 2 && ("allocaudit".equalsIgnoreCase(args[0]) || "bench".equalsIgnoreCase(args[0])
+                || "preview".equalsIgnoreCase(args[0]) || "seedsearch".equalsIgnoreCase(args[0]))) {
+            return filterByPrefix(new ArrayList<>(plugin.getWorldsConfig().getProfiles().keySet()), args[1]);
+        }
+        if (args.length >= 4 && "seedsearch".equalsIgnoreCase(args[0])) {
+            return filterByPrefix(new ArrayList<>(List.of("spawn=", "land=", "biomes=", "slope=", "radius=", "time=")), args[args.length - 1]);
+        }
         if (args.length == 2 && "worldinfo".equalsIgnoreCase(args[0])) {
             return filterByPrefix(Bukkit.getWorlds().stream().map(World::getName).collect(Collectors.toList()), args[1]);
         }
+        if (args.length == 2 && "rotate".equalsIgnoreCase(args[0])) {
+            return filterByPrefix(plugin.getWorldsConfig().getStartupWorlds().stream()
+                    .filter(spec -> spec.rotation().enabled())
+                    .map(WorldsConfig.StartupWorldSpec::name)
+                    .collect(Collectors.toList()), args[1]);
+        }
         if (args.length == 2 && ("tp".equalsIgnoreCase(args[0]) || "teleport".equalsIgnoreCase(args[0]))) {
-            return filterByPrefix(Bukkit.getWorlds().stream().map(World::getName).collect(Collectors.toList()), args[1]);
+            return filterByPrefix(withOnDemandWorlds(Bukkit.getWorlds().stream().map(World::getName)), args[1]);
         }
         if (args.length == 3 && ("tp".equalsIgnoreCase(args[0]) || "teleport".equalsIgnoreCase(args[0]))) {
             return filterByPrefix(Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toList()), args[2]);
         }
+        if (args.length == 2 && "rtp".equalsIgnoreCase(args[0])) {
+            return filterByPrefix(withOnDemandWorlds(Bukkit.getWorlds().stream().filter(RandomTeleportService::supports)
+                    .map(World::getName)), args[1]);
+        }
+        if (args.length == 3 && "rtp".equalsIgnoreCase(args[0]) && sender.hasPermission("drakesworlds.teleport")) {
+            return filterByPrefix(Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toList()), args[2]);
+        }
         if (args.length == 2 && ("spawn".equalsIgnoreCase(args[0]) || "hub".equalsIgnoreCase(args[0]))) {
             return filterByPrefix(Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toList()), args[1]);
         }
@@ -103,6 +161,21 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             }
         }
 
+        WorldTemplateService templates = plugin.getWorldTemplateService();
+        if (seed != null && templates.hasTemplate(profileId, seed)) {
+            long startedAt = System.nanoTime();
+            templates.createWorld(worldName, profileId, seed).whenComplete((world, error) -> {
+                if (error != null) {
+                    sender.sendMessage(ChatColor.RED + "Could not create world: " + error.getMessage());
+                    plugin.getLogger().severe("World creation from template failed: " + error.getMessage());
+                    return;
+                }
+                sender.sendMessage(ChatColor.GREEN + "World ready: " + world.getName() + " | profile=" + profileId
+                        + " | cloned from template in " + (System.nanoTime() - startedAt) / 1_000_000L + " ms");
+            });
+            return true;
+        }
+
         try {
             World world = plugin.getWorldBootstrapService()
                     .createWorld(worldName, profileId, World.Environment.NORMAL, seed, true);
@@ -131,15 +204,50 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         if (!requirePermission(sender, "drakesworlds.admin")) {
             return true;
         }
-        plugin.getWorldsConfig().reload();
+        sender.sendMessage(ChatColor.GRAY + "Reloading worlds.yml...");
         WorldsConfig config = plugin.getWorldsConfig();
-        plugin.getWorldBootstrapService().ensureConfiguredDefaultWorldLoaded();
-        plugin.getWorldBootstrapService().syncLevelNameWithConfiguredDefaultWorld();
-        sender.sendMessage(ChatColor.GREEN + "DrakesWorlds reloaded. Profiles: " + config.getProfiles().keySet());
-        sender.sendMessage(ChatColor.GREEN + "Default world: " + config.getDefaultWorldName());
+        config.reloadAsync().whenComplete((result, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Reload failed, previous profiles kept: " + error.getMessage());
+                plugin.getLogger().warning("worlds.yml reload failed: " + error.getMessage());
+                return;
+            }
+            plugin.getWorldBootstrapService().ensureConfiguredDefaultWorldLoaded();
+            plugin.getWorldBootstrapService().syncLevelNameWithConfiguredDefaultWorld();
+            plugin.getWorldBootstrapService().applyResourcesToLoadedWorlds();
+            plugin.getWorldTemplateService().refresh();
+            plugin.getPrecomputeService().refresh();
+            plugin.getChunkPrefetchService().refresh();
+            sender.sendMessage(ChatColor.GREEN + "DrakesWorlds reloaded. Profiles: " + config.getProfiles().keySet());
+            sender.sendMessage(ChatColor.GREEN + "Default world: " + config.getDefaultWorldName());
+            sender.sendMessage(ChatColor.GREEN + "Profile version " + result.version()
+                    + " applied to " + result.hotSwappedWorlds() + " hot-reload world(s).");
+            reportCostEstimates(sender, result.changedProfiles());
+        });
         return true;
     }
 
+    private void reportCostEstimates(CommandSender sender, List<WorldProfile> changed) {
+        ProfileCostService costs = plugin.getProfileCostService();
+        if (changed.isEmpty() || costs == null || !costs.isEnabled()) {
+            return;
+        }
+        sender.sendMessage(ChatColor.GRAY + "Estimating generation cost of " + changed.size() + " changed profile(s)...");
+        costs.estimate(changed).whenComplete((estimates, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Cost estimate failed: " + error.getMessage());
+                return;
+            }
+            for (ProfileCostService.Estimate estimate : estimates) {
+                ChatColor color = estimate.warnings().isEmpty() ? ChatColor.GREEN : ChatColor.RED;
+                sender.sendMessage(ChatColor.GRAY + "- " + estimate.profileId() + ": " + color + estimate.describe());
+                for (String warning : estimate.warnings()) {
+                    sender.sendMessage(ChatColor.RED + "  ! " + warning);
+                }
+            }
+        });
+    }
+
     private boolean handleWorldInfo(CommandSender sender, String[] args, String label) {
         if (!requirePermission(sender, "drakesworlds.admin")) {
             return true;
@@ -157,11 +265,372 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         sender.sendMessage(ChatColor.GRAY + "- Seed: " + world.getSeed());
         sender.sendMessage(ChatColor.GRAY + "- Environment: " + world.getEnvironment().name());
         sender.sendMessage(ChatColor.GRAY + "- MinY/MaxY: " + world.getMinHeight() + "/" + world.getMaxHeight());
+        sendResourceInfo(sender, world);
+        plugin.getWorldRotationService().status(world.getName()).ifPresent(rotation -> sender.sendMessage(ChatColor.GRAY
+                + "- Rotation: next reset in " + Math.max(0L, (rotation.nextResetAt() - System.currentTimeMillis()) / 60_000L)
+                + " min, successor seed " + rotation.nextSeed() + " "
+                + (rotation.pregenerating() ? "pregenerating" : rotation.pregenerated() ? "pregenerated" : "pending")));
         String generator = world.getGenerator() == null ? "Vanilla/Default" : world.getGenerator().getClass().getSimpleName();
         sender.sendMessage(ChatColor.GRAY + "- Generator: " + generator);
+        if (world.getGenerator() instanceof DrakesChunkGenerator drakesGenerator) {
+            ProfileBinding binding = drakesGenerator.getProfileBinding();
+            sender.sendMessage(ChatColor.GRAY + "- Profile: " + binding.profileId()
+                    + " (version " + binding.current().version() + ", hot-reload=" + binding.isHotSwap() + ")");
+            QualityTier quality = binding.current().profile().quality();
+            sender.sendMessage(ChatColor.GRAY + "- Quality: " + quality.name().toLowerCase(Locale.ROOT)
+                    + " (height step " + quality.heightStep() + ", cave cell " + quality.caveCell()
+                    + ", " + quality.kernel().name().toLowerCase(Locale.ROOT) + " kernel, flora x" + quality.floraAttempts() + ")");
+            NoisePrecision precision = binding.current().profile().noisePrecision();
+            int[] octaves = drakesGenerator.noiseOctaves();
+            sender.sendMessage(ChatColor.GRAY + "- Noise: " + (precision.exact() ? "exact"
+                    : "truncated, differs from exact by up to " + precision.maxHeightError()
+                    + " block(s), threshold error " + precision.maxThresholdError())
+                    + (octaves == null ? "" : " | " + octaves[0] + "/" + octaves[1] + " terrain octaves evaluated"));
+            TerrainFieldCache fieldCache = drakesGenerator.getFieldCache();
+            if (fieldCache != null) {
+                TerrainFieldCache.Stats cache = fieldCache.stats();
+                sender.sendMessage(ChatColor.GRAY + "- Field cache: " + cache.mode() + " | hits=" + cache.hits()
+                        + ", misses=" + cache.misses() + ", writes=" + cache.writes() + ", open regions=" + cache.openRegions());
+            }
+        }
+        return true;
+    }
+
+    // Bukkit cannot measure a world's memory, so heap use is split by share of loaded chunks.
+    private void sendResourceInfo(CommandSender sender, World world) {
+        Integer spawnChunkRadius = world.getGameRuleValue(GameRule.SPAWN_CHUNK_RADIUS);
+        int spawnSide = spawnChunkRadius == null || spawnChunkRadius <= 0 ? 0 : spawnChunkRadius * 2 + 1;
+        int autoSaveSeconds = plugin.getWorldsConfig().getStartupWorld(world.getName())
+                .map(spec -> spec.resources().autoSaveSeconds())
+                .orElse(WorldsConfig.WorldResources.SERVER_DEFAULT);
+        String autoSave = world.isAutoSave() ? "server" : autoSaveSeconds > 0 ? "every " + autoSaveSeconds + "s" : "off";
+        sender.sendMessage(ChatColor.GRAY + "- View/simulation distance: " + world.getViewDistance() + "/" + world.getSimulationDistance()
+                + " | spawn chunk radius " + spawnChunkRadius + " (~" + spawnSide * spawnSide + " chunks kept loaded)"
+                + " | auto-save " + autoSave);
+        long totalChunks = 0L;
+        for (World loaded : Bukkit.getWorlds()) {
+            totalChunks += loaded.getChunkCount();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+        long share = totalChunks == 0L ? 0L : usedHeap * world.getChunkCount() / totalChunks;
+        sender.sendMessage(ChatColor.GRAY + "- Loaded: " + world.getChunkCount() + " chunks, " + world.getEntityCount()
+                + " entities, " + world.getTileEntityCount() + " block entities, " + world.getPlayerCount() + " players"
+                + " | ~" + (share >> 20) + " MiB of " + (usedHeap >> 20) + " MiB used heap by chunk share");
+    }
+
+    private boolean handleRotate(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " rotate <world>");
+            return true;
+        }
+        if (!plugin.getWorldRotationService().rotateNow(args[1])) {
+            sender.sendMessage(ChatColor.RED + "World '" + args[1] + "' has no rotation in startup-worlds.");
+            return true;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Rotation of " + ChatColor.YELLOW + args[1] + ChatColor.GREEN
+                + " triggered; it waits for a running pregeneration to stop.");
+        return true;
+    }
+
+    private boolean handleStats(CommandSender sender) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        NoiseRegistry.Stats noise = NoiseRegistry.global().stats();
+        sender.sendMessage(ChatColor.GOLD + "DrakesWorlds stats:");
+        sender.sendMessage(ChatColor.GRAY + "- Noise instances: " + noise.instances()
+                + " over " + noise.tables() + " shared tables (" + noise.octaves() + " octaves)");
+        sender.sendMessage(ChatColor.GRAY + "- Noise memory: ~" + (noise.estimatedBytes() / 1024L) + " KiB"
+                + " | registry hits=" + noise.hits() + ", misses=" + noise.misses());
+        TerrainPrecompute precompute = plugin.getPrecomputeService().getPrecompute();
+        if (precompute != null) {
+            TerrainPrecompute.Stats pre = precompute.stats();
+            sender.sendMessage(ChatColor.GRAY + "- Precompute: " + pre.threads() + " thread(s), pending=" + pre.pending()
+                    + ", cached=" + pre.cached() + " | submitted=" + pre.submitted() + ", used=" + pre.hits()
+                    + ", stale=" + pre.stale() + ", evicted=" + pre.evicted() + ", rejected=" + pre.rejected());
+        }
+        WorldTemplateService templates = plugin.getWorldTemplateService();
+        if (templates.isEnabled()) {
+            for (WorldTemplateService.Status template : templates.status()) {
+                sender.sendMessage(ChatColor.GRAY + "- Template " + template.profileId() + "/" + template.seed() + ": "
+                        + (template.ready() ? "ready" : "building") + ", " + template.pooled() + " pooled copies");
+            }
+        }
+        ChunkPrefetchService prefetch = plugin.getChunkPrefetchService();
+        if (prefetch.isEnabled()) {
+            ChunkPrefetchService.Stats fetch = prefetch.stats();
+            sender.sendMessage(ChatColor.GRAY + "- Prefetch: in-flight=" + fetch.inFlight() + " | requested=" + fetch.requested()
+                    + ", loaded=" + fetch.completed() + ", entered=" + fetch.entered() + ", expired=" + fetch.expired()
+                    + String.format(Locale.ROOT, " (hit rate %.1f%%)", fetch.hitRate() * 100.0d)
+                    + ", throttled scans=" + fetch.throttledScans());
+        }
+        return true;
+    }
+
+    private boolean handleAllocAudit(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        String profileId = args.length >= 2 ? args[1].toLowerCase(Locale.ROOT) : plugin.getWorldsConfig().getDefaultProfileId();
+        WorldProfile profile = plugin.getWorldsConfig().getProfile(profileId).orElse(null);
+        if (profile == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown profile: " + profileId);
+            return true;
+        }
+        int chunks = 64;
+        if (args.length >= 3) {
+            try {
+                chunks = Math.max(1, Math.min(1024, Integer.parseInt(args[2])));
+            } catch (NumberFormatException ex) {
+                sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " allocaudit [profile] [chunks]");
+                return true;
+            }
+        }
+
+        int sampled = chunks;
+        sender.sendMessage(ChatColor.GRAY + "Auditing allocations for profile " + profileId + " over " + sampled + " chunks...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            AllocationAudit.Report report;
+            try {
+                report = new AllocationAudit().run(profile, profileId.hashCode(), sampled);
+            } catch (RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(ChatColor.RED + "Allocation audit failed: " + ex.getMessage()));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(ChatColor.GOLD + "Allocation audit: " + report.profileId() + " (" + report.chunks() + " chunks)");
+                for (AllocationAudit.StageResult stage : report.stages()) {
+                    ChatColor color = stage.passed() ? ChatColor.GREEN : ChatColor.RED;
+                    sender.sendMessage(ChatColor.GRAY + "- " + stage.stage() + ": " + color + stage.bytesPerChunk()
+                            + " B/chunk" + ChatColor.GRAY + " (budget " + stage.budgetBytes() + ")");
+                }
+                if (!report.passed()) {
+                    plugin.getLogger().warning("Allocation audit over budget for profile " + report.profileId() + ": " + report.stages());
+                }
+            });
+        });
+        return true;
+    }
+
+    private boolean handleBench(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        String usage = "Usage: /" + label + " bench <profile> [chunks] [threads] [seed]";
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        }
+        String profileId = args[1].toLowerCase(Locale.ROOT);
+        WorldProfile profile = plugin.getWorldsConfig().getProfile(profileId).orElse(null);
+        if (profile == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown profile: " + profileId);
+            return true;
+        }
+        int chunks = 256;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        long seed = profileId.hashCode();
+        try {
+            if (args.length >= 3) {
+                chunks = Math.max(64, Math.min(16384, Integer.parseInt(args[2])));
+            }
+            if (args.length >= 4) {
+                threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), Integer.parseInt(args[3])));
+            }
+            if (args.length >= 5) {
+                seed = Long.parseLong(args[4]);
+            }
+        } catch (NumberFormatException ex) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        }
+        if (!benchRunning.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.RED + "A benchmark is already running.");
+            return true;
+        }
+
+        int requested = chunks;
+        int workers = threads;
+        long benchSeed = seed;
+        sender.sendMessage(ChatColor.GRAY + "Benchmarking profile " + profileId + ": " + requested + " chunks, 1 vs "
+                + workers + " threads...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            GenerationBench.Result result;
+            try {
+                result = new GenerationBench().run(profile, benchSeed, requested, workers);
+            } catch (RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(ChatColor.RED + "Benchmark failed: " + ex.getMessage()));
+                return;
+            } finally {
+                benchRunning.set(false);
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(ChatColor.GOLD + "Benchmark: " + result.profileId() + " (" + result.chunks()
+                        + " chunks, seed " + benchSeed + ")");
+                sender.sendMessage(ChatColor.GRAY + "- throughput: " + ChatColor.WHITE
+                        + String.format(Locale.ROOT, "%.1f", result.singleThreadChunksPerSecond()) + " chunks/s on 1 thread, "
+                        + String.format(Locale.ROOT, "%.1f", result.chunksPerSecond()) + " on " + result.threads()
+                        + ChatColor.GRAY + " (x" + String.format(Locale.ROOT, "%.2f", result.scaling()) + ")");
+                sender.sendMessage(ChatColor.GRAY + "- per chunk: " + ChatColor.WHITE
+                        + String.format(Locale.ROOT, "biomes %.3f ms, noise %.3f ms, flora %.3f ms",
+                        result.biomeMsPerChunk(), result.noiseMsPerChunk(), result.floraMsPerChunk()));
+                sender.sendMessage(ChatColor.GRAY + "- allocated: " + ChatColor.WHITE
+                        + result.allocatedBytesPerChunk() + " B/chunk");
+                plugin.getLogger().info("Benchmark " + result);
+            });
+        });
+        return true;
+    }
+
+    private boolean handlePreview(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        String usage = "Usage: /" + label + " preview <profile> <seed> <radius> [scale]";
+        if (args.length < 4) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        }
+        String profileId = args[1].toLowerCase(Locale.ROOT);
+        WorldProfile profile = plugin.getWorldsConfig().getProfile(profileId).orElse(null);
+        if (profile == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown profile: " + profileId);
+            return true;
+        }
+        long seed;
+        int radius;
+        int scale;
+        try {
+            seed = Long.parseLong(args[2]);
+            radius = Math.max(16, Integer.parseInt(args[3]));
+            scale = args.length >= 5 ? Math.max(1, Integer.parseInt(args[4])) : MapPreview.defaultScale(radius);
+        } catch (NumberFormatException ex) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        }
+        int pixels = MapPreview.pixels(radius, scale);
+        if (pixels > MapPreview.MAX_PIXELS) {
+            sender.sendMessage(ChatColor.RED + "That is " + pixels + " pixels a side; the limit is " + MapPreview.MAX_PIXELS
+                    + ". Use a scale of at least " + ((2 * radius + MapPreview.MAX_PIXELS - 1) / MapPreview.MAX_PIXELS) + ".");
+            return true;
+        }
+        if (!previewRunning.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.RED + "A preview is already rendering.");
+            return true;
+        }
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        File cacheDirectory = new File(plugin.getDataFolder(), "preview-cache");
+        File outputDirectory = new File(plugin.getDataFolder(), "previews");
+        sender.sendMessage(ChatColor.GRAY + "Rendering " + profileId + " (seed " + seed + ") over " + (2 * radius) + "x" + (2 * radius)
+                + " blocks at " + scale + " block(s)/px on " + threads + " thread(s)...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            MapPreview.Result result;
+            try {
+                result = new MapPreview(cacheDirectory.toPath(), plugin.getLogger())
+                        .render(profile, seed, radius, scale, threads, outputDirectory.toPath());
+            } catch (IOException | RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(ChatColor.RED + "Preview failed: " + ex.getMessage()));
+                return;
+            } finally {
+                previewRunning.set(false);
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(ChatColor.GOLD + "Preview: " + result.profileId() + " (" + result.pixels() + "x" + result.pixels()
+                        + " px in " + result.millis() + " ms, " + result.cachedTiles() + "/" + result.tiles() + " tiles cached)");
+                int listed = 0;
+                for (Map.Entry<Biome, Double> share : result.biomeShares().entrySet()) {
+                    if (listed++ == 6) {
+                        break;
+                    }
+                    sender.sendMessage(ChatColor.GRAY + "- " + share.getKey().name().toLowerCase(Locale.ROOT) + ": " + ChatColor.WHITE
+                            + String.format(Locale.ROOT, "%.1f%%", share.getValue() * 100.0d));
+                }
+                sender.sendMessage(ChatColor.GRAY + "Wrote " + ChatColor.WHITE + result.biomeImage().getFileName()
+                        + ChatColor.GRAY + " and " + ChatColor.WHITE + result.heightImage().getFileName()
+                        + ChatColor.GRAY + " to " + outputDirectory.getPath());
+            });
+        });
         return true;
     }
 
+    private boolean handleSeedSearch(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.admin")) {
+            return true;
+        }
+        String usage = "Usage: /" + label + " seedsearch <profile> <count> [spawn=<biome,...>] [land=<percent>]"
+                + " [biomes=<biome,...>] [slope=<blocks>] [radius=<blocks>] [time=<seconds>]";
+        if (args.length < 3) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        }
+        String profileId = args[1].toLowerCase(Locale.ROOT);
+        WorldProfile profile = plugin.getWorldsConfig().getProfile(profileId).orElse(null);
+        if (profile == null) {
+            sender.sendMessage(ChatColor.RED + "Unknown profile: " + profileId);
+            return true;
+        }
+        int count;
+        SeedSearch.Query query;
+        try {
+            count = Math.max(1, Math.min(20, Integer.parseInt(args[2])));
+            query = SeedSearch.Query.parse(Arrays.asList(args).subList(3, args.length));
+        } catch (NumberFormatException ex) {
+            sender.sendMessage(ChatColor.YELLOW + usage);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            sender.sendMessage(ChatColor.RED + ex.getMessage());
+            return true;
+        }
+        if (!seedSearchRunning.compareAndSet(false, true)) {
+            sender.sendMessage(ChatColor.RED + "A seed search is already running.");
+            return true;
+        }
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        sender.sendMessage(ChatColor.GRAY + "Searching seeds for " + profileId + " on " + threads + " thread(s) for "
+                + query.budgetSeconds() + " s; matches are listed as they rank...");
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            SeedSearch.Summary summary;
+            try {
+                summary = new SeedSearch().run(profile, count, query, threads, match ->
+                        Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ChatColor.GRAY + "+ " + describe(match))));
+            } catch (RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(ChatColor.RED + "Seed search failed: " + ex.getMessage()));
+                return;
+            } finally {
+                seedSearchRunning.set(false);
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(ChatColor.GOLD + "Seed search: " + summary.profileId() + " (" + summary.evaluated() + " seeds in "
+                        + summary.millis() + " ms, " + summary.matched() + " matched)");
+                int rank = 1;
+                for (SeedSearch.Match match : summary.best()) {
+                    sender.sendMessage(ChatColor.GRAY + "#" + rank++ + " " + describe(match));
+                }
+                if (!summary.best().isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "Put the seed in startup-worlds or pass it to /" + label + " create.");
+                }
+            });
+        });
+        return true;
+    }
+
+    private static String describe(SeedSearch.Match match) {
+        return ChatColor.WHITE + String.valueOf(match.seed()) + ChatColor.GRAY
+                + String.format(Locale.ROOT, " score %.1f: spawn %s at y=%d, slope %d, land %.0f%%, %d biomes",
+                match.score(), match.spawnBiome().name().toLowerCase(Locale.ROOT), match.spawnY(), match.spawnSlope(),
+                match.land() * 100.0d, match.biomes());
+    }
+
     private boolean handleListWorlds(CommandSender sender) {
         if (!requirePermission(sender, "drakesworlds.teleport")) {
             return true;
@@ -171,6 +640,11 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             sender.sendMessage(ChatColor.GRAY + "- " + ChatColor.AQUA + world.getName()
                     + ChatColor.DARK_GRAY + " (" + world.getEnvironment().name() + ")");
         }
+        for (String name : plugin.getWorldLifecycleService().onDemandWorlds()) {
+            if (Bukkit.getWorld(name) == null) {
+                sender.sendMessage(ChatColor.GRAY + "- " + ChatColor.DARK_AQUA + name + ChatColor.DARK_GRAY + " (unloaded, loads on demand)");
+            }
+        }
         return true;
     }
 
@@ -183,12 +657,6 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             return true;
         }
 
-        World world = Bukkit.getWorld(args[1]);
-        if (world == null) {
-            sender.sendMessage(ChatColor.RED + "World not loaded: " + args[1]);
-            return true;
-        }
-
         Player target;
         if (args.length >= 3) {
             target = Bukkit.getPlayerExact(args[2]);
@@ -203,11 +671,16 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             return true;
         }
 
-        target.teleport(world.getSpawnLocation());
-        sender.sendMessage(ChatColor.GREEN + "Teleported " + target.getName() + " to " + world.getName());
-        if (!sender.getName().equalsIgnoreCase(target.getName())) {
-            target.sendMessage(ChatColor.GREEN + "Teleported to world: " + ChatColor.YELLOW + world.getName());
-        }
+        loadWorldFor(sender, args[1]).thenAccept(world -> {
+            if (!target.isOnline()) {
+                return;
+            }
+            target.teleport(world.getSpawnLocation());
+            sender.sendMessage(ChatColor.GREEN + "Teleported " + target.getName() + " to " + world.getName());
+            if (!sender.getName().equalsIgnoreCase(target.getName())) {
+                target.sendMessage(ChatColor.GREEN + "Teleported to world: " + ChatColor.YELLOW + world.getName());
+            }
+        });
         return true;
     }
 
@@ -239,6 +712,90 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         return true;
     }
 
+    // Sends a player to a random safe spot of a DrakesWorlds world. Moving someone else needs
+    // drakesworlds.teleport; the cooldown belongs to the player moved unless the sender has
+    // drakesworlds.rtp.bypass.
+    private boolean handleRandomTeleport(CommandSender sender, String[] args, String label) {
+        if (!requirePermission(sender, "drakesworlds.rtp")) {
+            return true;
+        }
+
+        Player target;
+        if (args.length >= 3) {
+            if (!requirePermission(sender, "drakesworlds.teleport")) {
+                return true;
+            }
+            target = Bukkit.getPlayerExact(args[2]);
+            if (target == null) {
+                sender.sendMessage(ChatColor.RED + "Player not found: " + args[2]);
+                return true;
+            }
+        } else if (sender instanceof Player playerSender) {
+            target = playerSender;
+        } else {
+            sender.sendMessage(ChatColor.RED + "Console must specify a world and player: /" + label + " rtp <world> <player>");
+            return true;
+        }
+
+        RandomTeleportService service = plugin.getRandomTeleportService();
+        if (service.isPending(target)) {
+            sender.sendMessage(ChatColor.YELLOW + "A random teleport is already in progress for " + target.getName() + ".");
+            return true;
+        }
+        long remaining = service.cooldownRemainingSeconds(target);
+        if (remaining > 0L && !sender.hasPermission("drakesworlds.rtp.bypass")) {
+            sender.sendMessage(ChatColor.RED + (target == sender ? "You" : target.getName()) + " can use rtp again in " + remaining + "s.");
+            return true;
+        }
+
+        if (args.length >= 2) {
+            loadWorldFor(sender, args[1]).thenAccept(world -> startRandomTeleport(sender, target, world));
+        } else if (RandomTeleportService.supports(target.getWorld())) {
+            startRandomTeleport(sender, target, target.getWorld());
+        } else {
+            startRandomTeleport(sender, target, plugin.getWorldBootstrapService().ensureConfiguredDefaultWorldLoaded());
+        }
+        return true;
+    }
+
+    private void startRandomTeleport(CommandSender sender, Player target, World world) {
+        if (!RandomTeleportService.supports(world)) {
+            sender.sendMessage(ChatColor.RED + "World '" + world.getName() + "' is not generated by DrakesWorlds.");
+            return;
+        }
+        sender.sendMessage(ChatColor.GRAY + "Searching for a safe spot in " + world.getName() + "...");
+        plugin.getRandomTeleportService().teleport(target, world).whenComplete((destination, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Random teleport failed: " + error.getMessage());
+                return;
+            }
+            String where = destination.getBlockX() + ", " + destination.getBlockY() + ", " + destination.getBlockZ();
+            sender.sendMessage(ChatColor.GREEN + "Teleported " + target.getName() + " to " + world.getName() + " at " + where);
+            if (target != sender) {
+                target.sendMessage(ChatColor.GREEN + "Randomly teleported to " + ChatColor.YELLOW + world.getName()
+                        + ChatColor.GREEN + " at " + where);
+            }
+        });
+    }
+
+    // Loaded worlds resolve at once; on-demand ones load over the next ticks. Failures are
+    // reported to the sender, so callers only chain the success path.
+    private CompletableFuture<World> loadWorldFor(CommandSender sender, String worldName) {
+        WorldLifecycleService lifecycle = plugin.getWorldLifecycleService();
+        if (Bukkit.getWorld(worldName) == null && containsIgnoreCase(lifecycle.onDemandWorlds(), worldName)) {
+            sender.sendMessage(ChatColor.GRAY + "Loading world " + worldName + "...");
+        }
+        return lifecycle.loadWorld(worldName).whenComplete((world, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + error.getMessage());
+            }
+        });
+    }
+
+    private static boolean containsIgnoreCase(Collection<String> values, String value) {
+        return values.stream().anyMatch(value::equalsIgnoreCase);
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "DrakesWorlds commands:");
         if (sender.hasPermission("drakesworlds.admin")) {
@@ -246,12 +803,21 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds listprofiles");
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds worldinfo <world>");
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds reload");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds stats");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds allocaudit [profile] [chunks]");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds bench <profile> [chunks] [threads] [seed]");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds preview <profile> <seed> <radius> [scale]");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds seedsearch <profile> <count> [spawn=] [land=] [biomes=] [slope=] [radius=] [time=]");
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds rotate <world>");
         }
         if (sender.hasPermission("drakesworlds.teleport")) {
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds listworlds");
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds tp <world> [player]");
             sender.sendMessage(ChatColor.YELLOW + "/drakesworlds spawn [player]");
         }
+        if (sender.hasPermission("drakesworlds.rtp")) {
+            sender.sendMessage(ChatColor.YELLOW + "/drakesworlds rtp [world] [player]");
+        }
     }
 
     private boolean requirePermission(CommandSender sender, String permission) {
@@ -262,6 +828,12 @@ public final class DrakesWorldsCommand implements CommandExecutor, TabCompleter
         return false;
     }
 
+    private List<String> withOnDemandWorlds(Stream<String> loadedWorlds) {
+        return Stream.concat(loadedWorlds, plugin.getWorldLifecycleService().onDemandWorlds().stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     private static List<String> filterByPrefix(List<String> values, String prefix) {
         String lower = prefix.toLowerCase(Locale.ROOT);
         return values.stream()
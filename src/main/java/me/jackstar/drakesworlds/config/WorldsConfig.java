@@ -1,27 +1,54 @@
 package me.jackstar.drakesworlds.config;
 
 import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.domain.BiomeDecoration;
+import me.jackstar.drakesworlds.domain.DecorationRule;
 import me.jackstar.drakesworlds.domain.DecorationSettings;
+import me.jackstar.drakesworlds.domain.FloraFeature;
+import me.jackstar.drakesworlds.domain.GenerationBudget;
+import me.jackstar.drakesworlds.domain.NoisePrecision;
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+import me.jackstar.drakesworlds.domain.QualityTier;
 import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.ProfileBinding;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.SpawnCategory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
 
 public final class WorldsConfig {
 
+    // Shorter idle timeouts would unload and reload a world every time its last player steps out.
+    private static final int MIN_IDLE_UNLOAD_SECONDS = 60;
+    // Per-world saves more often than this would stall the main thread for little gain.
+    private static final int MIN_AUTO_SAVE_SECONDS = 30;
+    private static final int MIN_ROTATION_SECONDS = 3600;
+
     private final DrakesWorldsPlugin plugin;
     private final File worldsFile;
+    private final Logger logger;
+
+    private final Set<ProfileBinding> bindings = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
     private FileConfiguration config;
     private String defaultProfileId;
@@ -31,30 +58,159 @@ public final class WorldsConfig {
     private boolean enforceDefaultWorldOnJoin;
     private boolean enforceDefaultWorldOnlyFirstJoin;
     private boolean syncLevelNameInServerProperties;
-    private final Map<String, WorldProfile> profiles = new HashMap<>();
-    private final List<StartupWorldSpec> startupWorlds = new ArrayList<>();
+    private TerrainFieldCache.Mode terrainCacheMode = TerrainFieldCache.Mode.OFF;
+    private String terrainCacheDirectory = "";
+    private PrecomputeSettings precomputeSettings = PrecomputeSettings.DISABLED;
+    private PrefetchSettings prefetchSettings = PrefetchSettings.DISABLED;
+    private WarmupSettings warmupSettings = WarmupSettings.DISABLED;
+    private CostEstimateSettings costEstimateSettings = CostEstimateSettings.DISABLED;
+    private RtpSettings rtpSettings = RtpSettings.DEFAULT;
+    private TemplateSettings templateSettings = TemplateSettings.DISABLED;
+    private volatile long version;
+    private volatile Map<String, WorldProfile> profiles = Map.of();
+    private volatile List<StartupWorldSpec> startupWorlds = List.of();
 
     public WorldsConfig(DrakesWorldsPlugin plugin) {
         this.plugin = plugin;
         this.worldsFile = new File(plugin.getDataFolder(), "worlds.yml");
+        this.logger = plugin.getLogger();
+    }
+
+    // Without a server, for the offline tools: reload() works, reloadAsync() does not.
+    public WorldsConfig(File worldsFile, Logger logger) {
+        this.plugin = null;
+        this.worldsFile = worldsFile;
+        this.logger = logger;
     }
 
     public void reload() {
-        this.config = YamlConfiguration.loadConfiguration(worldsFile);
+        apply(parse());
+    }
+
+    // Parses and validates worlds.yml off the main thread, then swaps the state in on the next tick.
+    public CompletableFuture<ReloadResult> reloadAsync() {
+        CompletableFuture<ReloadResult> result = new CompletableFuture<>();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            ParsedConfig parsed;
+            try {
+                parsed = parse();
+            } catch (RuntimeException ex) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> result.completeExceptionally(ex));
+                return;
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> result.complete(apply(parsed)));
+        });
+        return result;
+    }
+
+    public ProfileBinding bind(WorldProfile profile, boolean hotSwap) {
+        ProfileBinding binding = new ProfileBinding(new ProfileSnapshot(version, profile), hotSwap);
+        if (hotSwap) {
+            bindings.add(binding);
+        }
+        return binding;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Optional<StartupWorldSpec> getStartupWorld(String worldName) {
+        return startupWorlds.stream()
+                .filter(spec -> spec.name().equalsIgnoreCase(worldName))
+                .findFirst();
+    }
+
+    private ParsedConfig parse() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(worldsFile);
+        } catch (IOException | InvalidConfigurationException ex) {
+            throw new IllegalStateException("Could not parse worlds.yml: " + ex.getMessage(), ex);
+        }
+
+        String defaultProfile = yaml.getString("default-profile", "wild_natural");
+        Map<String, WorldProfile> parsedProfiles = loadProfiles(yaml);
+        if (parsedProfiles.isEmpty()) {
+            throw new IllegalStateException("No valid generation profiles in worlds.yml");
+        }
+        return new ParsedConfig(yaml, defaultProfile, parsedProfiles, loadStartupWorlds(yaml, defaultProfile));
+    }
 
-        this.defaultProfileId = config.getString("default-profile", "wild_natural");
+    private ReloadResult apply(ParsedConfig parsed) {
+        this.config = parsed.yaml();
+        this.defaultProfileId = parsed.defaultProfileId();
         this.autoCreateOnStartup = config.getBoolean("auto-create-on-startup", true);
         this.defaultWorldName = config.getString("default-world.name", "drakes_wild").trim();
         this.defaultWorldProfileId = config.getString("default-world.profile", this.defaultProfileId).trim().toLowerCase(Locale.ROOT);
         this.enforceDefaultWorldOnJoin = config.getBoolean("default-world.enforce-on-join", true);
         this.enforceDefaultWorldOnlyFirstJoin = config.getBoolean("default-world.only-first-join", false);
         this.syncLevelNameInServerProperties = config.getBoolean("default-world.sync-level-name", true);
+        this.terrainCacheMode = parseTerrainCacheMode(config.getString("terrain-cache.mode", "off"));
+        this.terrainCacheDirectory = config.getString("terrain-cache.directory", "").trim();
+        this.precomputeSettings = new PrecomputeSettings(
+                config.getBoolean("precompute.enabled", false),
+                Math.max(1, config.getInt("precompute.threads", 2)),
+                Math.max(64, config.getInt("precompute.max-cached-chunks", 2048)),
+                Math.max(1, Math.min(16, config.getInt("precompute.player-radius", 6))),
+                Math.max(1, config.getInt("precompute.interval-ticks", 10))
+        );
+        this.prefetchSettings = new PrefetchSettings(
+                config.getBoolean("prefetch.enabled", false),
+                Math.max(1, config.getInt("prefetch.interval-ticks", 5)),
+                Math.max(0.1d, config.getDouble("prefetch.min-speed", 0.6d)),
+                Math.max(1, config.getInt("prefetch.lead-seconds", 4)),
+                Math.max(1, Math.min(32, config.getInt("prefetch.max-distance", 10))),
+                Math.max(5.0d, Math.min(80.0d, config.getDouble("prefetch.cone-degrees", 25.0d))),
+                Math.max(1, config.getInt("prefetch.max-in-flight-per-player", 12)),
+                Math.max(1, config.getInt("prefetch.max-in-flight", 64)),
+                Math.max(1.0d, config.getDouble("prefetch.mspt-soft", 40.0d)),
+                Math.max(1.0d, config.getDouble("prefetch.mspt-hard", 48.0d))
+        );
+        this.warmupSettings = new WarmupSettings(
+                config.getBoolean("warmup.enabled", false),
+                Math.max(8, config.getInt("warmup.chunks-per-profile", 96)),
+                Math.max(1, config.getInt("warmup.threads", 2)),
+                parseJoinMode(config.getString("warmup.join-mode", "hold")),
+                Math.max(1, config.getInt("warmup.max-hold-seconds", 45))
+        );
+
+        this.costEstimateSettings = new CostEstimateSettings(
+                config.getBoolean("cost-estimate.enabled", true),
+                Math.max(64, Math.min(1024, config.getInt("cost-estimate.chunks", 128))),
+                Math.max(1.0d, config.getDouble("cost-estimate.regression-percent", 25.0d))
+        );
+
+        this.rtpSettings = loadRtpSettings(config);
+        this.templateSettings = loadTemplateSettings(config);
+
+        List<WorldProfile> changed = new ArrayList<>();
+        for (WorldProfile next : parsed.profiles().values()) {
+            WorldProfile previous = profiles.get(next.id());
+            if (previous == null
+                    || previous.terrainHash() != next.terrainHash()
+                    || !previous.decorationSettings().equals(next.decorationSettings())) {
+                changed.add(next);
+            }
+        }
 
-        this.profiles.clear();
-        loadProfiles();
+        this.version = Math.max(version + 1, System.currentTimeMillis());
+        this.profiles = Map.copyOf(parsed.profiles());
+        this.startupWorlds = List.copyOf(parsed.startupWorlds());
 
-        this.startupWorlds.clear();
-        loadStartupWorlds();
+        int swapped = 0;
+        synchronized (bindings) {
+            for (ProfileBinding binding : bindings) {
+                WorldProfile next = profiles.get(binding.profileId());
+                if (next != null && binding.publish(new ProfileSnapshot(version, next))) {
+                    swapped++;
+                }
+            }
+        }
+        if (swapped > 0) {
+            logger.info("Published profile version " + version + " to " + swapped + " hot-reload world(s).");
+        }
+        return new ReloadResult(version, swapped, List.copyOf(changed));
     }
 
     public Optional<WorldProfile> getProfile(String profileId) {
@@ -71,7 +227,7 @@ public final class WorldsConfig {
     public WorldProfile getRequiredDefaultProfile() {
         return getProfile(defaultProfileId)
                 .orElseGet(() -> {
-                    plugin.getLogger().warning("Default profile '" + defaultProfileId + "' not found, using first available.");
+                    logger.warning("Default profile '" + defaultProfileId + "' not found, using first available.");
                     return profiles.values().stream()
                             .findFirst()
                             .orElseThrow(() -> new IllegalStateException("No generation profiles available in worlds.yml"));
@@ -102,15 +258,94 @@ public final class WorldsConfig {
         return syncLevelNameInServerProperties;
     }
 
+    public TerrainFieldCache.Mode getTerrainCacheMode() {
+        return terrainCacheMode;
+    }
+
+    public String getTerrainCacheDirectory() {
+        return terrainCacheDirectory;
+    }
+
+    public PrecomputeSettings getPrecomputeSettings() {
+        return precomputeSettings;
+    }
+
+    public PrefetchSettings getPrefetchSettings() {
+        return prefetchSettings;
+    }
+
+    public WarmupSettings getWarmupSettings() {
+        return warmupSettings;
+    }
+
+    public CostEstimateSettings getCostEstimateSettings() {
+        return costEstimateSettings;
+    }
+
+    public RtpSettings getRtpSettings() {
+        return rtpSettings;
+    }
+
+    public TemplateSettings getTemplateSettings() {
+        return templateSettings;
+    }
+
     public Map<String, WorldProfile> getProfiles() {
-        return Map.copyOf(profiles);
+        return profiles;
     }
 
     public List<StartupWorldSpec> getStartupWorlds() {
-        return List.copyOf(startupWorlds);
+        return startupWorlds;
+    }
+
+    private RtpSettings loadRtpSettings(FileConfiguration config) {
+        int minRadius = Math.max(0, config.getInt("rtp.min-radius", RtpSettings.DEFAULT.minRadius()));
+        int maxRadius = Math.max(minRadius + 16, config.getInt("rtp.max-radius", RtpSettings.DEFAULT.maxRadius()));
+        Map<String, RtpSettings.Radius> worlds = new HashMap<>();
+        ConfigurationSection worldsSection = config.getConfigurationSection("rtp.worlds");
+        if (worldsSection != null) {
+            for (String worldName : worldsSection.getKeys(false)) {
+                int worldMin = Math.max(0, worldsSection.getInt(worldName + ".min-radius", minRadius));
+                int worldMax = worldsSection.getInt(worldName + ".max-radius", maxRadius);
+                if (worldMax <= worldMin) {
+                    logger.warning("rtp.worlds." + worldName + ": max-radius must exceed min-radius, using " + (worldMin + 16));
+                    worldMax = worldMin + 16;
+                }
+                worlds.put(worldName.toLowerCase(Locale.ROOT), new RtpSettings.Radius(worldMin, worldMax));
+            }
+        }
+        return new RtpSettings(
+                Math.max(0, config.getInt("rtp.cooldown-seconds", RtpSettings.DEFAULT.cooldownSeconds())),
+                minRadius,
+                maxRadius,
+                Math.max(1, Math.min(1024, config.getInt("rtp.max-candidates", RtpSettings.DEFAULT.maxCandidates()))),
+                Math.max(1, Math.min(8, config.getInt("rtp.max-chunk-loads", RtpSettings.DEFAULT.maxChunkLoads()))),
+                Map.copyOf(worlds)
+        );
     }
 
-    private void loadProfiles() {
+    private TemplateSettings loadTemplateSettings(FileConfiguration config) {
+        List<TemplateSettings.Template> templates = new ArrayList<>();
+        for (Map<?, ?> raw : config.getMapList("templates.worlds")) {
+            String profile = valueOrDefault(raw, "profile", "").trim().toLowerCase(Locale.ROOT);
+            String seedRaw = valueOrDefault(raw, "seed", "").trim();
+            try {
+                templates.add(new TemplateSettings.Template(profile, Long.parseLong(seedRaw)));
+            } catch (NumberFormatException ex) {
+                logger.warning("Template for profile '" + profile + "' needs a numeric seed, got '" + seedRaw + "'. Ignored.");
+            }
+        }
+        return new TemplateSettings(
+                config.getBoolean("templates.enabled", false),
+                Math.max(16, Math.min(8192, config.getInt("templates.radius", 512))),
+                Math.max(0, Math.min(16, config.getInt("templates.pool-size", 2))),
+                Math.max(1, config.getInt("templates.threads", 2)),
+                List.copyOf(templates)
+        );
+    }
+
+    private Map<String, WorldProfile> loadProfiles(FileConfiguration config) {
+        Map<String, WorldProfile> loaded = new HashMap<>();
         ConfigurationSection profilesSection = config.getConfigurationSection("profiles");
         if (profilesSection == null) {
             throw new IllegalStateException("Missing 'profiles' section in worlds.yml");
@@ -127,7 +362,7 @@ public final class WorldsConfig {
             ConfigurationSection decoration = profileSection.getConfigurationSection("decoration");
 
             if (terrain == null || biomeWeightsSection == null || decoration == null) {
-                plugin.getLogger().warning("Profile '" + profileId + "' is incomplete and was skipped.");
+                logger.warning("Profile '" + profileId + "' is incomplete and was skipped.");
                 continue;
             }
 
@@ -141,15 +376,16 @@ public final class WorldsConfig {
                         weights.put(biome, value);
                     }
                 } catch (IllegalArgumentException ex) {
-                    plugin.getLogger().warning("Unknown biome '" + biomeName + "' in profile '" + profileId + "'");
+                    logger.warning("Unknown biome '" + biomeName + "' in profile '" + profileId + "'");
                 }
             }
 
             if (weights.isEmpty()) {
-                plugin.getLogger().warning("Profile '" + profileId + "' has no valid biome weights and was skipped.");
+                logger.warning("Profile '" + profileId + "' has no valid biome weights and was skipped.");
                 continue;
             }
 
+            QualityTier quality = parseQuality(profileSection.getString("quality", "balanced"), profileId);
             DecorationSettings decorationSettings = new DecorationSettings(
                     decoration.getInt("base-trees-per-chunk", 16),
                     decoration.getDouble("taiga-tree-multiplier", 1.6d),
@@ -160,7 +396,8 @@ public final class WorldsConfig {
                     clampZeroToOne(decoration.getDouble("bush-chance", 0.18d)),
                     decoration.getBoolean("enable-custom-pines", true),
                     decoration.getInt("pine-min-height", 8),
-                    decoration.getInt("pine-max-height", 14)
+                    decoration.getInt("pine-max-height", 14),
+                    loadBiomeDecorations(decoration.getConfigurationSection("biomes"), profileId)
             );
 
             WorldProfile profile = new WorldProfile(
@@ -175,14 +412,117 @@ public final class WorldsConfig {
                     terrain.getDouble("clearing-threshold", 0.62d),
                     clampZeroToOne(terrain.getDouble("clearing-flattening", 0.7d)),
                     weights,
-                    decorationSettings
+                    decorationSettings,
+                    loadBudget(profileSection.getConfigurationSection("budget")),
+                    loadNoisePrecision(profileSection.getConfigurationSection("noise"), quality),
+                    quality
+            );
+
+            loaded.put(profile.id(), profile);
+        }
+        return loaded;
+    }
+
+    private static GenerationBudget loadBudget(ConfigurationSection section) {
+        GenerationBudget defaults = GenerationBudget.DEFAULT;
+        if (section == null) {
+            return defaults;
+        }
+        return new GenerationBudget(
+                Math.max(0L, section.getLong("biome-alloc-bytes", defaults.biomeAllocBytes())),
+                Math.max(0L, section.getLong("noise-alloc-bytes", defaults.noiseAllocBytes())),
+                Math.max(0L, section.getLong("flora-alloc-bytes", defaults.floraAllocBytes())),
+                Math.max(0.0d, section.getDouble("ms-per-chunk", defaults.msPerChunk()))
+        );
+    }
+
+    // decoration.biomes: per-biome density and feature list, compiled into the flora dispatch table.
+    private Map<Biome, BiomeDecoration> loadBiomeDecorations(ConfigurationSection section, String profileId) {
+        Map<Biome, BiomeDecoration> loaded = new EnumMap<>(Biome.class);
+        if (section == null) {
+            return loaded;
+        }
+        for (String biomeName : section.getKeys(false)) {
+            ConfigurationSection biomeSection = section.getConfigurationSection(biomeName);
+            Biome biome;
+            try {
+                biome = Biome.valueOf(biomeName.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                logger.warning("Unknown biome '" + biomeName + "' in decoration of profile '" + profileId + "'");
+                continue;
+            }
+            if (biomeSection == null) {
+                continue;
+            }
+            List<DecorationRule> rules = new ArrayList<>();
+            for (Map<?, ?> raw : biomeSection.getMapList("features")) {
+                DecorationRule rule = parseDecorationRule(raw, biome, profileId);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+            loaded.put(biome, new BiomeDecoration(biomeSection.getDouble("density", Double.NaN), rules));
+        }
+        return loaded;
+    }
+
+    private DecorationRule parseDecorationRule(Map<?, ?> raw, Biome biome, String profileId) {
+        String where = " in decoration." + biome.name().toLowerCase(Locale.ROOT) + " of profile '" + profileId + "'";
+        String typeRaw = valueOrDefault(raw, "type", "");
+        FloraFeature feature;
+        try {
+            feature = FloraFeature.valueOf(typeRaw.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException ex) {
+            logger.warning("Unknown feature type '" + typeRaw + "'" + where + ". Skipped.");
+            return null;
+        }
+        try {
+            return new DecorationRule(
+                    feature,
+                    Math.max(0.0d, Double.parseDouble(valueOrDefault(raw, "weight", "1.0"))),
+                    Math.max(0, Integer.parseInt(valueOrDefault(raw, "min-height", "0"))),
+                    Math.max(0, Integer.parseInt(valueOrDefault(raw, "max-height", "0"))),
+                    parseBlock(raw, "log", where),
+                    parseBlock(raw, "leaves", where),
+                    parseBlock(raw, "ground", where),
+                    Math.max(0, Math.min(4, Integer.parseInt(valueOrDefault(raw, "ground-radius", "2")))),
+                    clampZeroToOne(Double.parseDouble(valueOrDefault(raw, "ground-chance", "1.0")))
             );
+        } catch (NumberFormatException ex) {
+            logger.warning("Invalid number for feature '" + typeRaw + "'" + where + ". Skipped.");
+            return null;
+        }
+    }
+
+    private Material parseBlock(Map<?, ?> raw, String key, String where) {
+        String value = valueOrDefault(raw, key, "").trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        Material material = Material.matchMaterial(value);
+        if (material == null || !material.isBlock()) {
+            logger.warning("Unknown block '" + value + "' for " + key + where + ". Using the default.");
+            return null;
+        }
+        return material;
+    }
 
-            profiles.put(profile.id(), profile);
+    // The noise section only tunes the balanced tier, which is exact unless it opts out;
+    // exact and fast bring their own precision.
+    private static NoisePrecision loadNoisePrecision(ConfigurationSection section, QualityTier quality) {
+        if (quality != QualityTier.BALANCED || section == null || section.getBoolean("exact", true)) {
+            return quality.noisePrecision();
         }
+        NoisePrecision defaults = NoisePrecision.TRUNCATED;
+        return new NoisePrecision(
+                false,
+                Math.max(0.0d, Math.min(4.0d, section.getDouble("max-height-error", defaults.maxHeightError()))),
+                Math.max(0.0d, Math.min(0.25d, section.getDouble("max-threshold-error", defaults.maxThresholdError())))
+        );
     }
 
-    private void loadStartupWorlds() {
+    private List<StartupWorldSpec> loadStartupWorlds(FileConfiguration config, String defaultProfileId) {
+        List<StartupWorldSpec> loaded = new ArrayList<>();
         List<Map<?, ?>> rawList = config.getMapList("startup-worlds");
         for (Map<?, ?> raw : rawList) {
             String name = valueOrDefault(raw, "name", "").trim();
@@ -190,16 +530,30 @@ public final class WorldsConfig {
             String environmentRaw = valueOrDefault(raw, "environment", "NORMAL").trim();
             String seedRaw = valueOrDefault(raw, "seed", "").trim();
             boolean createIfMissing = Boolean.parseBoolean(valueOrDefault(raw, "create-if-missing", "true"));
+            boolean hotReload = Boolean.parseBoolean(valueOrDefault(raw, "hot-reload", "false"));
+            String idleRaw = valueOrDefault(raw, "idle-unload-after", "").trim();
 
             if (name.isBlank()) {
                 continue;
             }
 
+            int idleUnloadAfterSeconds = 0;
+            if (!idleRaw.isBlank() && !"never".equalsIgnoreCase(idleRaw)) {
+                idleUnloadAfterSeconds = parseDurationSeconds(idleRaw);
+                if (idleUnloadAfterSeconds < 0) {
+                    logger.warning("Invalid idle-unload-after '" + idleRaw + "' for startup world '" + name + "'. Ignored.");
+                    idleUnloadAfterSeconds = 0;
+                } else if (idleUnloadAfterSeconds < MIN_IDLE_UNLOAD_SECONDS) {
+                    logger.warning("idle-unload-after for startup world '" + name + "' raised to " + MIN_IDLE_UNLOAD_SECONDS + "s.");
+                    idleUnloadAfterSeconds = MIN_IDLE_UNLOAD_SECONDS;
+                }
+            }
+
             World.Environment environment;
             try {
                 environment = World.Environment.valueOf(environmentRaw.toUpperCase(Locale.ROOT));
             } catch (IllegalArgumentException ex) {
-                plugin.getLogger().warning("Invalid environment '" + environmentRaw + "' for startup world '" + name + "'. Using NORMAL.");
+                logger.warning("Invalid environment '" + environmentRaw + "' for startup world '" + name + "'. Using NORMAL.");
                 environment = World.Environment.NORMAL;
             }
 
@@ -208,11 +562,150 @@ public final class WorldsConfig {
                 try {
                     seed = Long.parseLong(seedRaw);
                 } catch (NumberFormatException ex) {
-                    plugin.getLogger().warning("Invalid seed '" + seedRaw + "' for startup world '" + name + "'. Ignored.");
+                    logger.warning("Invalid seed '" + seedRaw + "' for startup world '" + name + "'. Ignored.");
                 }
             }
 
-            startupWorlds.add(new StartupWorldSpec(name, profile.toLowerCase(Locale.ROOT), environment, seed, createIfMissing));
+            WorldResources resources = raw.get("resources") instanceof Map<?, ?> resourcesRaw
+                    ? parseWorldResources(resourcesRaw, name)
+                    : WorldResources.DEFAULT;
+            RotationSettings rotation = raw.get("rotation") instanceof Map<?, ?> rotationRaw
+                    ? parseRotation(rotationRaw, name)
+                    : RotationSettings.DISABLED;
+
+            loaded.add(new StartupWorldSpec(name, profile.toLowerCase(Locale.ROOT), environment, seed, createIfMissing, hotReload,
+                    idleUnloadAfterSeconds, resources, rotation));
+        }
+        return loaded;
+    }
+
+    // Missing keys keep the server's value for that world.
+    private WorldResources parseWorldResources(Map<?, ?> raw, String worldName) {
+        String keepSpawnRaw = valueOrDefault(raw, "keep-spawn-loaded", "").trim();
+        Boolean keepSpawnLoaded = keepSpawnRaw.isBlank() ? null : Boolean.parseBoolean(keepSpawnRaw);
+        int spawnChunkRadius = parseOptionalInt(raw, "resources", "spawn-chunk-radius", 0, 32, worldName);
+        int viewDistance = parseOptionalInt(raw, "resources", "view-distance", 2, 32, worldName);
+        int simulationDistance = parseOptionalInt(raw, "resources", "simulation-distance", 2, 32, worldName);
+
+        int autoSaveSeconds = WorldResources.SERVER_DEFAULT;
+        String autoSaveRaw = valueOrDefault(raw, "auto-save", "").trim();
+        if ("off".equalsIgnoreCase(autoSaveRaw) || "false".equalsIgnoreCase(autoSaveRaw)) {
+            autoSaveSeconds = 0;
+        } else if (!autoSaveRaw.isBlank()) {
+            autoSaveSeconds = parseDurationSeconds(autoSaveRaw);
+            if (autoSaveSeconds < 0) {
+                logger.warning("Invalid resources.auto-save '" + autoSaveRaw + "' for startup world '" + worldName + "'. Ignored.");
+                autoSaveSeconds = WorldResources.SERVER_DEFAULT;
+            } else if (autoSaveSeconds > 0) {
+                autoSaveSeconds = Math.max(MIN_AUTO_SAVE_SECONDS, autoSaveSeconds);
+            }
+        }
+
+        Map<SpawnCategory, Integer> spawnLimits = new EnumMap<>(SpawnCategory.class);
+        if (raw.get("spawn-limits") instanceof Map<?, ?> limitsRaw) {
+            for (Map.Entry<?, ?> entry : limitsRaw.entrySet()) {
+                String category = String.valueOf(entry.getKey()).trim().toUpperCase(Locale.ROOT).replace('-', '_');
+                try {
+                    spawnLimits.put(SpawnCategory.valueOf(category), Math.max(0, Integer.parseInt(String.valueOf(entry.getValue()).trim())));
+                } catch (IllegalArgumentException ex) {
+                    logger.warning("Invalid spawn limit '" + entry.getKey() + ": " + entry.getValue()
+                            + "' for startup world '" + worldName + "'. Ignored.");
+                }
+            }
+        }
+        return new WorldResources(keepSpawnLoaded, spawnChunkRadius, viewDistance, simulationDistance, autoSaveSeconds,
+                Collections.unmodifiableMap(spawnLimits));
+    }
+
+    private RotationSettings parseRotation(Map<?, ?> raw, String worldName) {
+        String everyRaw = valueOrDefault(raw, "every", "").trim();
+        int everySeconds = everyRaw.isBlank() ? -1 : parseDurationSeconds(everyRaw);
+        if (everySeconds < MIN_ROTATION_SECONDS) {
+            logger.warning("rotation.every '" + everyRaw + "' for startup world '" + worldName + "' must be at least "
+                    + MIN_ROTATION_SECONDS + "s. Rotation disabled.");
+            return RotationSettings.DISABLED;
+        }
+        String leadRaw = valueOrDefault(raw, "pregen-lead", "6h").trim();
+        int leadSeconds = parseDurationSeconds(leadRaw);
+        if (leadSeconds < 0) {
+            logger.warning("Invalid rotation.pregen-lead '" + leadRaw + "' for startup world '" + worldName + "'. Using 6h.");
+            leadSeconds = 6 * 3600;
+        }
+        double chunksPerSecond;
+        try {
+            chunksPerSecond = Double.parseDouble(valueOrDefault(raw, "chunks-per-second", "40").trim());
+        } catch (NumberFormatException ex) {
+            logger.warning("Invalid rotation.chunks-per-second for startup world '" + worldName + "'. Using 40.");
+            chunksPerSecond = 40.0d;
+        }
+        int pregenRadius = parseOptionalInt(raw, "rotation", "pregen-radius", 0, 16384, worldName);
+        return new RotationSettings(
+                everySeconds,
+                Math.min(everySeconds, leadSeconds),
+                pregenRadius == WorldResources.SERVER_DEFAULT ? 1024 : pregenRadius,
+                Math.max(1.0d, chunksPerSecond)
+        );
+    }
+
+    private int parseOptionalInt(Map<?, ?> raw, String section, String key, int min, int max, String worldName) {
+        String value = valueOrDefault(raw, key, "").trim();
+        if (value.isBlank()) {
+            return WorldResources.SERVER_DEFAULT;
+        }
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(value)));
+        } catch (NumberFormatException ex) {
+            logger.warning("Invalid " + section + "." + key + " '" + value + "' for startup world '" + worldName + "'. Ignored.");
+            return WorldResources.SERVER_DEFAULT;
+        }
+    }
+
+    private TerrainFieldCache.Mode parseTerrainCacheMode(String raw) {
+        String normalized = raw.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        try {
+            return TerrainFieldCache.Mode.valueOf(normalized);
+        } catch (IllegalArgumentException ex) {
+            logger.warning("Invalid terrain-cache.mode '" + raw + "'. Using OFF.");
+            return TerrainFieldCache.Mode.OFF;
+        }
+    }
+
+    private QualityTier parseQuality(String raw, String profileId) {
+        try {
+            return QualityTier.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            logger.warning("Invalid quality '" + raw + "' in profile '" + profileId + "'. Using BALANCED.");
+            return QualityTier.BALANCED;
+        }
+    }
+
+    private WarmupSettings.JoinMode parseJoinMode(String raw) {
+        try {
+            return WarmupSettings.JoinMode.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            logger.warning("Invalid warmup.join-mode '" + raw + "'. Using HOLD.");
+            return WarmupSettings.JoinMode.HOLD;
+        }
+    }
+
+    // "90", "90s", "30m", "2h" or "7d"; -1 if blank or unreadable.
+    private static int parseDurationSeconds(String raw) {
+        String value = raw.trim().toLowerCase(Locale.ROOT);
+        if (value.isEmpty()) {
+            return -1;
+        }
+        int unit = switch (value.charAt(value.length() - 1)) {
+            case 's' -> 1;
+            case 'm' -> 60;
+            case 'h' -> 3600;
+            case 'd' -> 86400;
+            default -> 0;
+        };
+        try {
+            long amount = Long.parseLong(unit == 0 ? value : value.substring(0, value.length() - 1).trim());
+            return amount < 0 ? -1 : (int) Math.min(Integer.MAX_VALUE, amount * Math.max(1, unit));
+        } catch (NumberFormatException ex) {
+            return -1;
         }
     }
 
@@ -230,7 +723,154 @@ public final class WorldsConfig {
             String profileId,
             World.Environment environment,
             Long seed,
-            boolean createIfMissing
+            boolean createIfMissing,
+            boolean hotReload,
+            int idleUnloadAfterSeconds,
+            WorldResources resources,
+            RotationSettings rotation
+    ) {
+
+        // Loaded on first use instead of at startup, and unloaded again once empty for idleUnloadAfterSeconds.
+        public boolean onDemand() {
+            return idleUnloadAfterSeconds > 0;
+        }
+    }
+
+    // Per-world overrides applied when the world is created; SERVER_DEFAULT leaves a value alone.
+    // keep-spawn-loaded false is spawn-chunk-radius 0. autoSaveSeconds 0 turns saving off
+    // except on unload and shutdown.
+    public record WorldResources(
+            Boolean keepSpawnLoaded,
+            int spawnChunkRadius,
+            int viewDistance,
+            int simulationDistance,
+            int autoSaveSeconds,
+            Map<SpawnCategory, Integer> spawnLimits
+    ) {
+
+        public static final int SERVER_DEFAULT = -1;
+        static final WorldResources DEFAULT = new WorldResources(null, SERVER_DEFAULT, SERVER_DEFAULT, SERVER_DEFAULT,
+                SERVER_DEFAULT, Map.of());
+    }
+
+    // Reset every everySeconds to a fresh seed; pregenLeadSeconds before that, the successor's
+    // regions within pregenRadius blocks are written in the background at chunksPerSecond.
+    public record RotationSettings(
+            int everySeconds,
+            int pregenLeadSeconds,
+            int pregenRadius,
+            double chunksPerSecond
+    ) {
+
+        static final RotationSettings DISABLED = new RotationSettings(0, 0, 0, 0.0d);
+
+        public boolean enabled() {
+            return everySeconds > 0;
+        }
+    }
+
+    public record PrecomputeSettings(
+            boolean enabled,
+            int threads,
+            int maxCachedChunks,
+            int playerRadius,
+            int intervalTicks
+    ) {
+
+        static final PrecomputeSettings DISABLED = new PrecomputeSettings(false, 1, 64, 1, 10);
+    }
+
+    public record PrefetchSettings(
+            boolean enabled,
+            int intervalTicks,
+            double minSpeed,
+            int leadSeconds,
+            int maxDistance,
+            double coneDegrees,
+            int maxInFlightPerPlayer,
+            int maxInFlight,
+            double msptSoft,
+            double msptHard
+    ) {
+
+        static final PrefetchSettings DISABLED = new PrefetchSettings(false, 5, 0.6d, 4, 10, 25.0d, 12, 64, 40.0d, 48.0d);
+    }
+
+    public record WarmupSettings(
+            boolean enabled,
+            int chunksPerProfile,
+            int threads,
+            JoinMode joinMode,
+            int maxHoldSeconds
+    ) {
+
+        static final WarmupSettings DISABLED = new WarmupSettings(false, 96, 2, JoinMode.NONE, 45);
+
+        public enum JoinMode {
+            NONE,
+            HOLD,
+            KICK
+        }
+    }
+
+    public record CostEstimateSettings(
+            boolean enabled,
+            int chunks,
+            double regressionPercent
+    ) {
+
+        static final CostEstimateSettings DISABLED = new CostEstimateSettings(false, 128, 25.0d);
+    }
+
+    // One template per (profile, seed), pregenerated within radius blocks of 0,0, with poolSize
+    // copies kept ready to become worlds.
+    public record TemplateSettings(
+            boolean enabled,
+            int radius,
+            int poolSize,
+            int threads,
+            List<Template> templates
+    ) {
+
+        static final TemplateSettings DISABLED = new TemplateSettings(false, 512, 2, 2, List.of());
+
+        public record Template(String profileId, long seed) {
+        }
+    }
+
+    // Worlds listed under rtp.worlds use their own radius; the rest use the top-level one.
+    public record RtpSettings(
+            int cooldownSeconds,
+            int minRadius,
+            int maxRadius,
+            int maxCandidates,
+            int maxChunkLoads,
+            Map<String, Radius> worlds
+    ) {
+
+        static final RtpSettings DEFAULT = new RtpSettings(60, 500, 5000, 96, 3, Map.of());
+
+        public Radius radiusFor(String worldName) {
+            Radius radius = worlds.get(worldName.toLowerCase(Locale.ROOT));
+            return radius != null ? radius : new Radius(minRadius, maxRadius);
+        }
+
+        public record Radius(int min, int max) {
+        }
+    }
+
+    public record ReloadResult(
+            long version,
+            int hotSwappedWorlds,
+            List<WorldProfile> changedProfiles
+    ) {
+    }
+
+    private record ParsedConfig(
+            FileConfiguration yaml,
+            String defaultProfileId,
+            Map<String, WorldProfile> profiles,
+            List<StartupWorldSpec> startupWorlds
     ) {
     }
 }
@@ -0,0 +1,76 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.domain.GenerationBudget;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+
+import java.util.List;
+
+// Measures bytes allocated per chunk by each generation stage and compares them with the
+// profile's budget. Stages run on the calling thread, after a warm-up pass so that
+// thread-local scratch state, noise tables and JIT compilation are not counted.
+public final class AllocationAudit {
+
+    private static final int WARMUP_CHUNKS = 24;
+    // Sampled chunks are spread out so they cross biome and noise boundaries.
+    private static final int CHUNK_STRIDE = 37;
+
+    private final AllocationProbe probe = new AllocationProbe();
+
+    public Report run(WorldProfile profile, long seed, int chunks) {
+        int sampled = Math.max(1, chunks);
+        GenerationHarness harness = new GenerationHarness(profile, MemoryWorldInfo.overworld("allocation-audit", seed));
+        BlockBuffer scratch = harness.worldInfo().newChunk();
+
+        for (int i = 0; i < WARMUP_CHUNKS; i++) {
+            int chunkX = -1000 - i * CHUNK_STRIDE;
+            int chunkZ = 1000 + i * 11;
+            harness.biomes(chunkX, chunkZ);
+            harness.noise(chunkX, chunkZ, scratch);
+            harness.neighbourhood(chunkX, chunkZ);
+            harness.flora(chunkX, chunkZ);
+        }
+
+        long biomeBytes = 0L;
+        long noiseBytes = 0L;
+        long floraBytes = 0L;
+        for (int i = 0; i < sampled; i++) {
+            int chunkX = i * CHUNK_STRIDE;
+            int chunkZ = i * 13 - sampled * 6;
+
+            long mark = probe.mark();
+            harness.biomes(chunkX, chunkZ);
+            biomeBytes += probe.since(mark);
+
+            mark = probe.mark();
+            harness.noise(chunkX, chunkZ, scratch);
+            noiseBytes += probe.since(mark);
+
+            harness.neighbourhood(chunkX, chunkZ);
+            mark = probe.mark();
+            harness.flora(chunkX, chunkZ);
+            floraBytes += probe.since(mark);
+        }
+
+        GenerationBudget budget = profile.budget();
+        return new Report(profile.id(), sampled, List.of(
+                new StageResult("getBiome", biomeBytes / sampled, budget.biomeAllocBytes()),
+                new StageResult("generateNoise", noiseBytes / sampled, budget.noiseAllocBytes()),
+                new StageResult("populate", floraBytes / sampled, budget.floraAllocBytes())
+        ));
+    }
+
+    public record StageResult(String stage, long bytesPerChunk, long budgetBytes) {
+
+        public boolean passed() {
+            return bytesPerChunk <= budgetBytes;
+        }
+    }
+
+    public record Report(String profileId, int chunks, List<StageResult> stages) {
+
+        public boolean passed() {
+            return stages.stream().allMatch(StageResult::passed);
+        }
+    }
+}
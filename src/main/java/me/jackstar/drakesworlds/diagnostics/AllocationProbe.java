@@ -0,0 +1,33 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Bytes allocated by the calling thread, from HotSpot's per-thread TLAB accounting.
+public final class AllocationProbe {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long overhead;
+
+    public AllocationProbe() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean extended)
+                || !extended.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        if (!extended.isThreadAllocatedMemoryEnabled()) {
+            extended.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.threads = extended;
+        long start = threads.getCurrentThreadAllocatedBytes();
+        this.overhead = threads.getCurrentThreadAllocatedBytes() - start;
+    }
+
+    public long mark() {
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+
+    public long since(long mark) {
+        return Math.max(0L, threads.getCurrentThreadAllocatedBytes() - mark - overhead);
+    }
+}
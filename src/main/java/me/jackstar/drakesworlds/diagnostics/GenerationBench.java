@@ -0,0 +1,148 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single- and multi-threaded throughput of a profile's generator against in-memory chunks,
+// generated in tiles so no chunk is built twice.
+public final class GenerationBench {
+
+    private static final int TILE = 8;
+    private static final int TILE_CHUNKS = TILE * TILE;
+    private static final int WARMUP_TILES = 2;
+
+    public Result run(WorldProfile profile, long seed, int chunks, int threads) {
+        int tiles = Math.max(1, (chunks + TILE_CHUNKS - 1) / TILE_CHUNKS);
+        int workers = Math.max(1, Math.min(threads, tiles));
+        MemoryWorldInfo worldInfo = MemoryWorldInfo.overworld("bench-" + profile.id(), seed);
+        AllocationProbe probe = new AllocationProbe();
+
+        runTiles(profile, worldInfo, probe, -1, 0, WARMUP_TILES);
+        long singleStart = System.nanoTime();
+        StageTotals single = runTiles(profile, worldInfo, probe, 0, 0, tiles);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long parallelNanos = singleNanos;
+        if (workers > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "DrakesWorlds-bench-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<StageTotals>> lanes = new ArrayList<>();
+                long parallelStart = System.nanoTime();
+                for (int worker = 0; worker < workers; worker++) {
+                    int lane = worker + 1;
+                    int share = tiles / workers + (worker < tiles % workers ? 1 : 0);
+                    lanes.add(executor.submit(() -> runTiles(profile, worldInfo, probe, lane, 0, share)));
+                }
+                for (Future<StageTotals> lane : lanes) {
+                    lane.get();
+                }
+                parallelNanos = System.nanoTime() - parallelStart;
+            } catch (Exception ex) {
+                throw new IllegalStateException("Benchmark worker failed: " + ex.getMessage(), ex);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        int generated = tiles * TILE_CHUNKS;
+        double singleRate = generated / (singleNanos / 1_000_000_000.0d);
+        double parallelRate = generated / (parallelNanos / 1_000_000_000.0d);
+        return new Result(
+                profile.id(),
+                generated,
+                workers,
+                singleRate,
+                parallelRate,
+                parallelRate / singleRate,
+                single.biomeNanos / (double) single.chunks / 1_000_000.0d,
+                single.noiseNanos / (double) single.chunks / 1_000_000.0d,
+                single.floraNanos / (double) Math.max(1, single.decorated) / 1_000_000.0d,
+                single.allocatedBytes / Math.max(1, single.chunks)
+        );
+    }
+
+    // Tiles of one lane are laid out along X, lanes along Z, far from each other and from spawn.
+    private static StageTotals runTiles(WorldProfile profile, MemoryWorldInfo worldInfo, AllocationProbe probe,
+                                        int lane, int firstTile, int tileCount) {
+        GenerationHarness harness = new GenerationHarness(profile, worldInfo);
+        BlockBuffer[] tile = new BlockBuffer[TILE_CHUNKS];
+        for (int i = 0; i < tile.length; i++) {
+            tile[i] = worldInfo.newChunk();
+        }
+        BlockBuffer[] neighbours = new BlockBuffer[9];
+        StageTotals totals = new StageTotals();
+
+        long allocationMark = probe.mark();
+        for (int t = firstTile; t < firstTile + tileCount; t++) {
+            int baseX = 2_048 + t * (TILE + 4);
+            int baseZ = 2_048 + lane * 1_024;
+            for (int i = 0; i < TILE; i++) {
+                for (int j = 0; j < TILE; j++) {
+                    long start = System.nanoTime();
+                    harness.biomes(baseX + i, baseZ + j);
+                    long afterBiomes = System.nanoTime();
+                    harness.noise(baseX + i, baseZ + j, tile[i * TILE + j]);
+                    long afterNoise = System.nanoTime();
+                    totals.biomeNanos += afterBiomes - start;
+                    totals.noiseNanos += afterNoise - afterBiomes;
+                    totals.chunks++;
+                }
+            }
+            for (int i = 1; i < TILE - 1; i++) {
+                for (int j = 1; j < TILE - 1; j++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            neighbours[MemoryRegion.slot(dx, dz)] = tile[(i + dx) * TILE + (j + dz)];
+                        }
+                    }
+                    harness.bindRegion(baseX + i, baseZ + j, neighbours);
+                    long start = System.nanoTime();
+                    harness.flora(baseX + i, baseZ + j);
+                    totals.floraNanos += System.nanoTime() - start;
+                    totals.decorated++;
+                }
+            }
+        }
+        totals.allocatedBytes = probe.since(allocationMark);
+        return totals;
+    }
+
+    private static final class StageTotals {
+        private long biomeNanos;
+        private long noiseNanos;
+        private long floraNanos;
+        private long allocatedBytes;
+        private int chunks;
+        private int decorated;
+    }
+
+    public record Result(
+            String profileId,
+            int chunks,
+            int threads,
+            double singleThreadChunksPerSecond,
+            double chunksPerSecond,
+            double scaling,
+            double biomeMsPerChunk,
+            double noiseMsPerChunk,
+            double floraMsPerChunk,
+            long allocatedBytesPerChunk
+    ) {
+
+        public double msPerChunk() {
+            return biomeMsPerChunk + noiseMsPerChunk + floraMsPerChunk;
+        }
+    }
+}
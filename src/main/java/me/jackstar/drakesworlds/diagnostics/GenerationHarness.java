@@ -0,0 +1,83 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import me.jackstar.drakesworlds.generation.DrakesBiomeProvider;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.ProfileBinding;
+import org.bukkit.block.Biome;
+
+// Drives the generator stages the way the server does, against in-memory chunks.
+// Not thread-safe: use one harness per thread.
+public final class GenerationHarness {
+
+    private final MemoryWorldInfo worldInfo;
+    private final DrakesBiomeProvider biomeProvider;
+    private final DrakesChunkGenerator generator;
+    private final BlockBuffer[] neighbourhood = new BlockBuffer[9];
+    private final MemoryRegion region = new MemoryRegion();
+
+    public GenerationHarness(WorldProfile profile, MemoryWorldInfo worldInfo) {
+        this.worldInfo = worldInfo;
+        this.biomeProvider = new DrakesBiomeProvider(new ProfileBinding(new ProfileSnapshot(0L, profile), false));
+        this.generator = new DrakesChunkGenerator(biomeProvider, null, null);
+        for (int i = 0; i < neighbourhood.length; i++) {
+            neighbourhood[i] = worldInfo.newChunk();
+        }
+    }
+
+    public MemoryWorldInfo worldInfo() {
+        return worldInfo;
+    }
+
+    public DrakesChunkGenerator generator() {
+        return generator;
+    }
+
+    // One lookup per 4x4x4 cell, as the server fills a chunk's biome palette.
+    public void biomes(int chunkX, int chunkZ) {
+        int baseX = chunkX << 4;
+        int baseZ = chunkZ << 4;
+        for (int y = worldInfo.getMinHeight(); y < worldInfo.getMaxHeight(); y += 4) {
+            for (int x = 0; x < 16; x += 4) {
+                for (int z = 0; z < 16; z += 4) {
+                    biomeProvider.getBiome(worldInfo.getSeed(), baseX + x, baseZ + z);
+                }
+            }
+        }
+    }
+
+    // Biome of the 4x4x4 cell holding the block, as the server stores it.
+    public Biome biome(int x, int y, int z) {
+        return biomeProvider.getBiome(worldInfo.getSeed(), x, z);
+    }
+
+    public void noise(int chunkX, int chunkZ, BlockBuffer target) {
+        generator.generateNoise(worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight(), chunkX, chunkZ, target);
+        generator.generateBedrock(target);
+    }
+
+    // Generates the 3x3 chunks flora may write into; call before flora() for the same chunk.
+    public void neighbourhood(int chunkX, int chunkZ) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                noise(chunkX + dx, chunkZ + dz, neighbourhood[MemoryRegion.slot(dx, dz)]);
+            }
+        }
+        region.bind(chunkX, chunkZ, neighbourhood);
+    }
+
+    // Points flora at caller-owned chunks, indexed like MemoryRegion.slot.
+    public void bindRegion(int chunkX, int chunkZ, BlockBuffer[] neighbours) {
+        region.bind(chunkX, chunkZ, neighbours);
+    }
+
+    public void flora(int chunkX, int chunkZ) {
+        generator.getFloraPopulator().decorate(worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight(), region);
+    }
+
+    public BlockBuffer chunk(int dx, int dz) {
+        return neighbourhood[MemoryRegion.slot(dx, dz)];
+    }
+}
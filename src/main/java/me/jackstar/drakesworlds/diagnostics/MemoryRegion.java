@@ -0,0 +1,72 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import me.jackstar.drakesworlds.generation.RegionAccess;
+import org.bukkit.Axis;
+import org.bukkit.Material;
+
+// The 3x3 chunks around a populated chunk, matching the one-chunk border a LimitedRegion exposes.
+public final class MemoryRegion implements RegionAccess {
+
+    private final BlockBuffer[] chunks = new BlockBuffer[9];
+    private int centerChunkX;
+    private int centerChunkZ;
+
+    // Neighbours are indexed (dx + 1) * 3 + (dz + 1).
+    public void bind(int centerChunkX, int centerChunkZ, BlockBuffer[] neighbours) {
+        System.arraycopy(neighbours, 0, chunks, 0, 9);
+        this.centerChunkX = centerChunkX;
+        this.centerChunkZ = centerChunkZ;
+    }
+
+    public static int slot(int dx, int dz) {
+        return (dx + 1) * 3 + (dz + 1);
+    }
+
+    @Override
+    public int centerChunkX() {
+        return centerChunkX;
+    }
+
+    @Override
+    public int centerChunkZ() {
+        return centerChunkZ;
+    }
+
+    @Override
+    public boolean isInRegion(int x, int y, int z) {
+        BlockBuffer chunk = chunkAt(x, z);
+        return chunk != null && y >= chunk.minY() && y < chunk.maxY();
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        BlockBuffer chunk = chunkAt(x, z);
+        return chunk == null ? Material.AIR : chunk.get(x & 15, y, z & 15);
+    }
+
+    @Override
+    public void setType(int x, int y, int z, Material material) {
+        BlockBuffer chunk = chunkAt(x, z);
+        if (chunk != null) {
+            chunk.set(x & 15, y, z & 15, material);
+        }
+    }
+
+    @Override
+    public void setLog(int x, int y, int z, Material log, Axis axis) {
+        BlockBuffer chunk = chunkAt(x, z);
+        if (chunk != null) {
+            chunk.setLog(x & 15, y, z & 15, log, axis);
+        }
+    }
+
+    private BlockBuffer chunkAt(int x, int z) {
+        int dx = (x >> 4) - centerChunkX;
+        int dz = (z >> 4) - centerChunkZ;
+        if (dx < -1 || dx > 1 || dz < -1 || dz > 1) {
+            return null;
+        }
+        return chunks[slot(dx, dz)];
+    }
+}
@@ -0,0 +1,54 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import org.bukkit.World;
+
+// Name, seed and height range of a world generated without a server. Not a Bukkit WorldInfo:
+// the generators take seed and heights directly on their offline entry points.
+public final class MemoryWorldInfo {
+
+    private final String name;
+    private final World.Environment environment;
+    private final long seed;
+    private final int minHeight;
+    private final int maxHeight;
+
+    public MemoryWorldInfo(String name, World.Environment environment, long seed, int minHeight, int maxHeight) {
+        this.name = name;
+        this.environment = environment;
+        this.seed = seed;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+    }
+
+    public static MemoryWorldInfo overworld(String name, long seed) {
+        return new MemoryWorldInfo(name, World.Environment.NORMAL, seed, -64, 320);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public World.Environment getEnvironment() {
+        return environment;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    // An empty chunk spanning this world's height.
+    public BlockBuffer newChunk() {
+        BlockBuffer blocks = new BlockBuffer();
+        blocks.reset(minHeight, maxHeight);
+        return blocks;
+    }
+}
@@ -0,0 +1,16 @@
+package me.jackstar.drakesworlds.domain;
+
+import java.util.List;
+
+// Per-biome override from decoration.biomes. density replaces the built-in tree multiplier
+// (NaN keeps it); a non-empty rule list replaces the built-in features. Weights summing below
+// one leave the rest of the candidates empty.
+public record BiomeDecoration(
+        double density,
+        List<DecorationRule> rules
+) {
+
+    public BiomeDecoration {
+        rules = List.copyOf(rules);
+    }
+}
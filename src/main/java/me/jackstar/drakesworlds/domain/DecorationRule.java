@@ -0,0 +1,21 @@
+package me.jackstar.drakesworlds.domain;
+
+import org.bukkit.Material;
+
+import javax.annotation.Nullable;
+
+// One weighted entry of a biome's decoration. Heights are inclusive; null blocks and zero
+// heights take the feature's built-in look. The ground patch is laid under the feature with
+// groundChance, or is the feature itself for GROUND_PATCH.
+public record DecorationRule(
+        FloraFeature feature,
+        double weight,
+        int minHeight,
+        int maxHeight,
+        @Nullable Material log,
+        @Nullable Material leaves,
+        @Nullable Material ground,
+        int groundRadius,
+        double groundChance
+) {
+}
@@ -1,5 +1,11 @@
 package me.jackstar.drakesworlds.domain;
 
+import org.bukkit.block.Biome;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
 public record DecorationSettings(
         int baseTreesPerChunk,
         double taigaTreeMultiplier,
@@ -10,7 +16,11 @@ public record DecorationSettings(
         double bushChance,
         boolean enableCustomPines,
         int pineMinHeight,
-        int pineMaxHeight
+        int pineMaxHeight,
+        Map<Biome, BiomeDecoration> biomeRules
 ) {
-}
 
+    public DecorationSettings {
+        biomeRules = biomeRules.isEmpty() ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(biomeRules));
+    }
+}
@@ -0,0 +1,10 @@
+package me.jackstar.drakesworlds.domain;
+
+// Feature kinds a decoration rule can place on an accepted tree candidate.
+public enum FloraFeature {
+    PINE,
+    ROUND_TREE,
+    DEAD_TREE,
+    BUSH,
+    GROUND_PATCH
+}
@@ -0,0 +1,13 @@
+package me.jackstar.drakesworlds.domain;
+
+// Per-chunk limits checked by the generation audit and the reload cost estimate;
+// allocations are in bytes, time in milliseconds on a single thread.
+public record GenerationBudget(
+        long biomeAllocBytes,
+        long noiseAllocBytes,
+        long floraAllocBytes,
+        double msPerChunk
+) {
+
+    public static final GenerationBudget DEFAULT = new GenerationBudget(256L, 1024L, 2048L, 8.0d);
+}
@@ -0,0 +1,16 @@
+package me.jackstar.drakesworlds.domain;
+
+// How much of each noise layer is evaluated. Height layers share maxHeightError (blocks, worst
+// case over all skipped octaves); layers compared against thresholds each get maxThresholdError
+// in normalised noise units. Exact evaluates every octave.
+public record NoisePrecision(
+        boolean exact,
+        double maxHeightError,
+        double maxThresholdError
+) {
+
+    // Starting bounds when a profile's noise section turns exact off; enough to move some
+    // border columns by a block, so only for worlds generated with it from the start.
+    public static final NoisePrecision TRUNCATED = new NoisePrecision(false, 0.5d, 0.005d);
+    public static final NoisePrecision EXACT = new NoisePrecision(true, 0.0d, 0.0d);
+}
@@ -0,0 +1,7 @@
+package me.jackstar.drakesworlds.domain;
+
+public record ProfileSnapshot(
+        long version,
+        WorldProfile profile
+) {
+}
@@ -0,0 +1,50 @@
+package me.jackstar.drakesworlds.domain;
+
+// Fidelity/throughput bundles for a profile. heightStep samples raw heights on a lattice that
+// many blocks apart and interpolates between them; caveCell decides caves once per cube of that
+// size; floraAttempts scales the tree attempts per chunk (acceptance rises to keep density).
+public enum QualityTier {
+    EXACT(NoisePrecision.EXACT, 1, 1, Kernel.FULL, 1.0d),
+    BALANCED(NoisePrecision.EXACT, 1, 1, Kernel.FULL, 1.0d),
+    FAST(new NoisePrecision(false, 2.0d, 0.02d), 4, 2, Kernel.CROSS, 0.6d);
+
+    private final NoisePrecision noisePrecision;
+    private final int heightStep;
+    private final int caveCell;
+    private final Kernel kernel;
+    private final double floraAttempts;
+
+    QualityTier(NoisePrecision noisePrecision, int heightStep, int caveCell, Kernel kernel, double floraAttempts) {
+        this.noisePrecision = noisePrecision;
+        this.heightStep = heightStep;
+        this.caveCell = caveCell;
+        this.kernel = kernel;
+        this.floraAttempts = floraAttempts;
+    }
+
+    public NoisePrecision noisePrecision() {
+        return noisePrecision;
+    }
+
+    public int heightStep() {
+        return heightStep;
+    }
+
+    public int caveCell() {
+        return caveCell;
+    }
+
+    public Kernel kernel() {
+        return kernel;
+    }
+
+    public double floraAttempts() {
+        return floraAttempts;
+    }
+
+    // Surface smoothing: the 3x3 weighted kernel, or centre plus the four direct neighbours.
+    public enum Kernel {
+        FULL,
+        CROSS
+    }
+}
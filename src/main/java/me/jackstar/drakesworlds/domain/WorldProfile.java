@@ -19,7 +19,12 @@ public final class WorldProfile {
     private final double clearingThreshold;
     private final double clearingFlattening;
     private final Map<Biome, Double> biomeWeights;
+    private final double[] weightsByOrdinal;
     private final DecorationSettings decorationSettings;
+    private final GenerationBudget budget;
+    private final NoisePrecision noisePrecision;
+    private final QualityTier quality;
+    private final long terrainHash;
 
     public WorldProfile(
             String id,
@@ -33,7 +38,10 @@ public final class WorldProfile {
             double clearingThreshold,
             double clearingFlattening,
             Map<Biome, Double> biomeWeights,
-            DecorationSettings decorationSettings
+            DecorationSettings decorationSettings,
+            GenerationBudget budget,
+            NoisePrecision noisePrecision,
+            QualityTier quality
     ) {
         this.id = id;
         this.seaLevel = seaLevel;
@@ -46,7 +54,13 @@ public final class WorldProfile {
         this.clearingThreshold = clearingThreshold;
         this.clearingFlattening = clearingFlattening;
         this.biomeWeights = Collections.unmodifiableMap(new EnumMap<>(biomeWeights));
+        this.weightsByOrdinal = new double[Biome.values().length];
+        biomeWeights.forEach((biome, weight) -> weightsByOrdinal[biome.ordinal()] = weight);
         this.decorationSettings = decorationSettings;
+        this.budget = budget;
+        this.noisePrecision = noisePrecision;
+        this.quality = quality;
+        this.terrainHash = computeTerrainHash();
     }
 
     public String id() {
@@ -97,8 +111,46 @@ public final class WorldProfile {
         return decorationSettings;
     }
 
+    public GenerationBudget budget() {
+        return budget;
+    }
+
+    public NoisePrecision noisePrecision() {
+        return noisePrecision;
+    }
+
+    public QualityTier quality() {
+        return quality;
+    }
+
     public double weightFor(Biome biome) {
-        return biomeWeights.getOrDefault(biome, 0.0d);
+        return weightsByOrdinal[biome.ordinal()];
+    }
+
+    // Hash of every setting that shapes terrain and biomes; decoration and budgets are left out.
+    public long terrainHash() {
+        return terrainHash;
+    }
+
+    private long computeTerrainHash() {
+        long h = 0x9E3779B97F4A7C15L;
+        h = 31L * h + seaLevel;
+        h = 31L * h + baseHeight;
+        h = 31L * h + Double.doubleToLongBits(hillAmplitude);
+        h = 31L * h + Double.doubleToLongBits(mountainAmplitude);
+        h = 31L * h + Double.doubleToLongBits(valleyDepth);
+        h = 31L * h + Double.doubleToLongBits(detailAmplitude);
+        h = 31L * h + Double.doubleToLongBits(clearingScale);
+        h = 31L * h + Double.doubleToLongBits(clearingThreshold);
+        h = 31L * h + Double.doubleToLongBits(clearingFlattening);
+        for (double weight : weightsByOrdinal) {
+            h = 31L * h + Double.doubleToLongBits(weight);
+        }
+        h = 31L * h + (noisePrecision.exact() ? 1L : 0L);
+        h = 31L * h + Double.doubleToLongBits(noisePrecision.maxHeightError());
+        h = 31L * h + Double.doubleToLongBits(noisePrecision.maxThresholdError());
+        h = 31L * h + quality.ordinal();
+        return h;
     }
 }
 
@@ -0,0 +1,32 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.block.Biome;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+final class BiomeGroups {
+
+    static final Set<Biome> WOODLAND = matching(biome -> {
+        String name = biome.name().toUpperCase(Locale.ROOT);
+        return name.contains("FOREST")
+                || name.contains("TAIGA")
+                || biome == Biome.CHERRY_GROVE;
+    });
+
+    private BiomeGroups() {
+    }
+
+    static Set<Biome> matching(Predicate<Biome> predicate) {
+        EnumSet<Biome> matches = EnumSet.noneOf(Biome.class);
+        for (Biome biome : Biome.values()) {
+            if (predicate.test(biome)) {
+                matches.add(biome);
+            }
+        }
+        return Collections.unmodifiableSet(matches);
+    }
+}
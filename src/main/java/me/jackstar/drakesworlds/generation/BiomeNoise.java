@@ -0,0 +1,34 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.NoisePrecision;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.noise.SharedNoise;
+
+// Climate and clearing layers as one profile evaluates them. Every layer is only compared
+// against thresholds, so each keeps the octaves whose tail could still move a value across one
+// by more than the profile's threshold error.
+record BiomeNoise(
+        WorldProfile profile,
+        SharedNoise temperature,
+        SharedNoise humidity,
+        SharedNoise mountain,
+        SharedNoise clearing
+) {
+
+    private static final double AMPLITUDE = 0.5d;
+
+    static BiomeNoise plan(WorldProfile profile, SharedNoise temperature, SharedNoise humidity, SharedNoise mountain,
+                           SharedNoise clearing) {
+        NoisePrecision precision = profile.noisePrecision();
+        if (precision.exact()) {
+            return new BiomeNoise(profile, temperature, humidity, mountain, clearing);
+        }
+        double tolerance = precision.maxThresholdError();
+        return new BiomeNoise(profile, truncate(temperature, tolerance), truncate(humidity, tolerance),
+                truncate(mountain, tolerance), truncate(clearing, tolerance));
+    }
+
+    private static SharedNoise truncate(SharedNoise noise, double tolerance) {
+        return noise.truncated(SharedNoise.octavesWithin(noise.octaveCount(), AMPLITUDE, tolerance));
+    }
+}
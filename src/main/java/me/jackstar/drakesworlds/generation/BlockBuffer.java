@@ -0,0 +1,122 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.Axis;
+import org.bukkit.Material;
+import org.bukkit.generator.ChunkGenerator.ChunkData;
+
+import java.util.Arrays;
+
+// Column-major chunk buffer storing Material ordinal + 1 (0 = untouched air), with the
+// axis of horizontal logs in the two bits above it. Generation writes here and the
+// result is copied to ChunkData in vertical runs.
+public final class BlockBuffer {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int MATERIAL_MASK = 0x1FFF;
+    private static final int AXIS_SHIFT = 13;
+    private static final int AXIS_X = 1;
+    private static final int AXIS_Z = 2;
+
+    private short[] blocks = new short[0];
+    private int minY;
+    private int height;
+
+    public void reset(int minY, int maxY) {
+        int nextHeight = maxY - minY;
+        if (blocks.length != nextHeight * 256) {
+            blocks = new short[nextHeight * 256];
+        } else {
+            Arrays.fill(blocks, (short) 0);
+        }
+        this.minY = minY;
+        this.height = nextHeight;
+    }
+
+    public int minY() {
+        return minY;
+    }
+
+    public int maxY() {
+        return minY + height;
+    }
+
+    public Material get(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            return Material.AIR;
+        }
+        int code = blocks[index] & MATERIAL_MASK;
+        return code == 0 ? Material.AIR : MATERIALS[code - 1];
+    }
+
+    public void set(int x, int y, int z, Material material) {
+        int index = index(x, y, z);
+        if (index >= 0) {
+            blocks[index] = (short) (material.ordinal() + 1);
+        }
+    }
+
+    public void setLog(int x, int y, int z, Material log, Axis axis) {
+        int index = index(x, y, z);
+        if (index >= 0) {
+            int axisBits = axis == Axis.X ? AXIS_X : axis == Axis.Z ? AXIS_Z : 0;
+            blocks[index] = (short) ((log.ordinal() + 1) | (axisBits << AXIS_SHIFT));
+        }
+    }
+
+    // Y for everything that was not placed through setLog.
+    public Axis axis(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            return Axis.Y;
+        }
+        int axisBits = blocks[index] >>> AXIS_SHIFT;
+        return axisBits == AXIS_X ? Axis.X : axisBits == AXIS_Z ? Axis.Z : Axis.Y;
+    }
+
+    // Inclusive on both ends; callers clamp to the buffer height.
+    void fillColumn(int x, int z, int fromY, int toY, Material material) {
+        int base = columnBase(x, z);
+        Arrays.fill(blocks, base + (fromY - minY), base + (toY - minY) + 1, (short) (material.ordinal() + 1));
+    }
+
+    public void flush(ChunkData chunkData) {
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int base = columnBase(x, z);
+                int runStart = 0;
+                short runCode = blocks[base];
+                for (int dy = 1; dy <= height; dy++) {
+                    short code = dy < height ? blocks[base + dy] : -1;
+                    if (code == runCode) {
+                        continue;
+                    }
+                    if (runCode > 0) {
+                        writeRun(chunkData, x, z, minY + runStart, minY + dy, MATERIALS[(runCode & MATERIAL_MASK) - 1]);
+                    }
+                    runStart = dy;
+                    runCode = code;
+                }
+            }
+        }
+    }
+
+    private static void writeRun(ChunkData chunkData, int x, int z, int fromY, int toYExclusive, Material material) {
+        if (toYExclusive - fromY == 1) {
+            chunkData.setBlock(x, fromY, z, material);
+        } else {
+            chunkData.setRegion(x, fromY, z, x + 1, toYExclusive, z + 1, material);
+        }
+    }
+
+    private int index(int x, int y, int z) {
+        if (x < 0 || x > 15 || z < 0 || z > 15 || y < minY || y >= minY + height) {
+            return -1;
+        }
+        return columnBase(x, z) + (y - minY);
+    }
+
+    private int columnBase(int x, int z) {
+        return ((x << 4) | z) * height;
+    }
+}
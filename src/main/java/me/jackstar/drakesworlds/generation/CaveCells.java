@@ -0,0 +1,49 @@
+package me.jackstar.drakesworlds.generation;
+
+import java.util.Arrays;
+
+// Cave decisions shared by cubes of `cell` blocks inside one chunk: every block of a cube takes
+// the decision sampled at the cube's lowest corner. Cubes are aligned to world coordinates, so
+// adjacent chunks cut the same caves along their edges.
+final class CaveCells {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN = 1;
+    private static final byte SOLID = 2;
+
+    private byte[] states = new byte[0];
+    private int cell;
+    private int minY;
+    private int seaLevel;
+    private int columns;
+
+    CaveCells reset(int cell, int minY, int seaLevel) {
+        this.cell = cell;
+        this.minY = minY;
+        this.seaLevel = seaLevel;
+        this.columns = 16 / cell;
+        int layers = Math.max(1, (seaLevel - minY) / cell + 1);
+        int size = columns * columns * layers;
+        if (states.length < size) {
+            states = new byte[size];
+        } else {
+            Arrays.fill(states, 0, size, UNKNOWN);
+        }
+        return this;
+    }
+
+    boolean carve(DrakesChunkGenerator generator, int localX, int y, int localZ, int chunkX, int chunkZ) {
+        int cellX = localX / cell;
+        int cellZ = localZ / cell;
+        int cellY = (y - minY) / cell;
+        int index = (cellY * columns + cellX) * columns + cellZ;
+        byte state = states[index];
+        if (state == UNKNOWN) {
+            boolean open = generator.shouldCarveCave((chunkX << 4) + cellX * cell, minY + cellY * cell,
+                    (chunkZ << 4) + cellZ * cell, seaLevel);
+            state = open ? OPEN : SOLID;
+            states[index] = state;
+        }
+        return state == OPEN;
+    }
+}
@@ -0,0 +1,35 @@
+package me.jackstar.drakesworlds.generation;
+
+// Carved cells of one chunk for the Y span caves can reach, one bit per block.
+final class CaveMask {
+
+    private final int baseY;
+    private final int height;
+    private final long[] bits;
+
+    CaveMask(int baseY, int topY) {
+        this.baseY = baseY;
+        this.height = Math.max(0, topY - baseY + 1);
+        this.bits = new long[(256 * height + 63) >>> 6];
+    }
+
+    void set(int column, int y) {
+        int bit = index(column, y);
+        if (bit >= 0) {
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean get(int column, int y) {
+        int bit = index(column, y);
+        return bit >= 0 && (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private int index(int column, int y) {
+        int dy = y - baseY;
+        if (dy < 0 || dy >= height) {
+            return -1;
+        }
+        return column * height + dy;
+    }
+}
@@ -0,0 +1,74 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.block.Biome;
+
+// Scratch state for one worldgen thread, reused for every chunk that thread generates.
+final class ChunkGenContext {
+
+    // Raw heights for the chunk plus a one-block border feeding the 3x3 smoothing kernel.
+    static final int RAW_SIZE = 18;
+
+    private static final ThreadLocal<ChunkGenContext> CURRENT = ThreadLocal.withInitial(ChunkGenContext::new);
+
+    final TerrainField field = new TerrainField();
+    final double[] rawHeights = new double[RAW_SIZE * RAW_SIZE];
+    // Coarse height lattice; any step above one needs fewer points than the raw grid.
+    final double[] lattice = new double[RAW_SIZE * RAW_SIZE];
+    final CaveCells caveCells = new CaveCells();
+    final BlockBuffer blocks = new BlockBuffer();
+    final ChunkRandom random = new ChunkRandom();
+    final LimitedRegionAccess regionAccess = new LimitedRegionAccess();
+
+    private final Object[] biomeOwners = new Object[256];
+    private final long[] biomeVersions = new long[256];
+    private final long[] biomeColumns = new long[256];
+    private final Biome[] biomeValues = new Biome[256];
+
+    ProfileBinding lastBinding;
+    long lastVersion;
+    long lastRegion;
+
+    static ChunkGenContext get() {
+        return CURRENT.get();
+    }
+
+    static int column(int localX, int localZ) {
+        return (localX << 4) | localZ;
+    }
+
+    Biome cachedBiome(Object owner, long version, int x, int z) {
+        int slot = biomeSlot(x, z);
+        if (biomeOwners[slot] == owner && biomeVersions[slot] == version && biomeColumns[slot] == columnKey(x, z)) {
+            return biomeValues[slot];
+        }
+        return null;
+    }
+
+    void cacheBiome(Object owner, long version, int x, int z, Biome biome) {
+        int slot = biomeSlot(x, z);
+        biomeOwners[slot] = owner;
+        biomeVersions[slot] = version;
+        biomeColumns[slot] = columnKey(x, z);
+        biomeValues[slot] = biome;
+    }
+
+    private static int biomeSlot(int x, int z) {
+        return ((x & 15) << 4) | (z & 15);
+    }
+
+    private static long columnKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    // True when this thread has not yet recorded the chunk's region for this binding/version.
+    boolean markRegion(ProfileBinding binding, long version, int chunkX, int chunkZ) {
+        long region = ProfileBinding.regionKey(chunkX >> 5, chunkZ >> 5);
+        if (binding == lastBinding && version == lastVersion && region == lastRegion) {
+            return false;
+        }
+        this.lastBinding = binding;
+        this.lastVersion = version;
+        this.lastRegion = region;
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package me.jackstar.drakesworlds.generation;
+
+// Counter-based SplitMix64-style generator: each value is a pure function of (seed, chunk, stage,
+// index, n), so stages are independent. Confined to one generation thread.
+final class ChunkRandom {
+
+    enum Stage {
+        ORES,
+        TREES,
+        FALLEN_LOGS,
+        UNDERGROWTH,
+        SURFACE,
+        BIOME_PICK
+    }
+
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long key;
+    private long counter;
+
+    // Starts the stream for one stage of a chunk; index separates streams within the stage.
+    ChunkRandom reset(long seed, int chunkX, int chunkZ, Stage stage, int index) {
+        this.key = key(seed, chunkX, chunkZ, stage, index);
+        this.counter = 0L;
+        return this;
+    }
+
+    long nextLong() {
+        return at(key, counter++);
+    }
+
+    int nextInt(int bound) {
+        // Multiply-shift on the top 32 bits; the bias is below 2^-32 for the bounds used here.
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    boolean nextBoolean() {
+        return nextLong() < 0L;
+    }
+
+    // One value per (x, z) column, without a stream: the same key and counter mixing.
+    static long hash(long seed, int x, int z, Stage stage) {
+        return at(key(seed, x, z, stage, 0), 0L);
+    }
+
+    static double unit(long hash) {
+        return (hash >>> 11) * DOUBLE_UNIT;
+    }
+
+    private static long key(long seed, int x, int z, Stage stage, int index) {
+        long h = mix64(seed + GAMMA * (stage.ordinal() + 1));
+        h = mix64(h ^ ((long) x << 32 | (z & 0xFFFFFFFFL)));
+        return mix64(h + index);
+    }
+
+    private static long at(long key, long counter) {
+        return mix64(key + GAMMA * (counter + 1L));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
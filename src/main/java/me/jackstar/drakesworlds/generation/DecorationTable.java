@@ -0,0 +1,210 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.BiomeDecoration;
+import me.jackstar.drakesworlds.domain.DecorationRule;
+import me.jackstar.drakesworlds.domain.DecorationSettings;
+import me.jackstar.drakesworlds.domain.FloraFeature;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// A profile's decoration compiled into one entry per biome ordinal, so decorating a chunk is a
+// table lookup per candidate.
+final class DecorationTable {
+
+    private static final Biome[] BIOMES = Biome.values();
+    private static final Set<Biome> GROWABLE_BIOMES = BiomeGroups.matching(biome -> {
+        if (biome == Biome.JAGGED_PEAKS || biome == Biome.STONY_PEAKS) {
+            return false;
+        }
+        String name = biome.name().toUpperCase(Locale.ROOT);
+        return name.contains("FOREST")
+                || name.contains("TAIGA")
+                || name.contains("SWAMP")
+                || name.contains("GROVE")
+                || name.contains("PLAINS")
+                || name.contains("MEADOW")
+                || biome == Biome.CHERRY_GROVE
+                || biome == Biome.WOODED_BADLANDS;
+    });
+    private static final Set<Biome> PINE_BIOMES = BiomeGroups.matching(biome ->
+            biome.name().toUpperCase(Locale.ROOT).contains("TAIGA") || biome == Biome.GROVE);
+    // Share of clearing candidates that become undergrowth instead of trees.
+    private static final double CLEARING_BUSH_SHARE = 0.75d;
+
+    private final DecorationSettings settings;
+    private final Entry[] byOrdinal = new Entry[BIOMES.length];
+    private final double maxMultiplier;
+
+    private DecorationTable(DecorationSettings settings) {
+        this.settings = settings;
+        double max = 0.0d;
+        for (Biome biome : BIOMES) {
+            Entry entry = compile(settings, biome);
+            byOrdinal[biome.ordinal()] = entry;
+            if (entry != null) {
+                max = Math.max(max, entry.multiplier());
+            }
+        }
+        this.maxMultiplier = max;
+    }
+
+    static DecorationTable compile(DecorationSettings settings) {
+        return new DecorationTable(settings);
+    }
+
+    DecorationSettings settings() {
+        return settings;
+    }
+
+    // Null where nothing grows.
+    Entry entry(Biome biome) {
+        return byOrdinal[biome.ordinal()];
+    }
+
+    double maxMultiplier() {
+        return maxMultiplier;
+    }
+
+    private static Entry compile(DecorationSettings settings, Biome biome) {
+        BiomeDecoration custom = settings.biomeRules().get(biome);
+        double multiplier = custom != null && !Double.isNaN(custom.density())
+                ? Math.max(0.0d, custom.density())
+                : builtInMultiplier(biome, settings);
+        List<DecorationRule> rules = custom != null && !custom.rules().isEmpty()
+                ? custom.rules()
+                : builtInRules(biome, settings);
+        if (rules.isEmpty() || multiplier <= 0.0d) {
+            return null;
+        }
+
+        DecorationRule[] resolved = new DecorationRule[rules.size()];
+        double[] cumulative = new double[rules.size()];
+        double total = 0.0d;
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = resolve(rules.get(i), biome, settings);
+            total += Math.max(0.0d, resolved[i].weight());
+            cumulative[i] = total;
+        }
+        return total <= 0.0d ? null : new Entry(multiplier, resolved, cumulative, Math.max(1.0d, total));
+    }
+
+    // The forest logic the populator used to hard-code, as rules.
+    private static List<DecorationRule> builtInRules(Biome biome, DecorationSettings settings) {
+        if (!GROWABLE_BIOMES.contains(biome)) {
+            return List.of();
+        }
+        double deadChance = settings.deadTreeChance();
+        if (biome == Biome.SWAMP || biome == Biome.MANGROVE_SWAMP || biome == Biome.WOODED_BADLANDS) {
+            deadChance += 0.04d;
+        }
+        deadChance = Math.min(1.0d, deadChance);
+        FloraFeature tree = settings.enableCustomPines() && PINE_BIOMES.contains(biome) ? FloraFeature.PINE : FloraFeature.ROUND_TREE;
+        double treeShare = 1.0d;
+
+        List<DecorationRule> rules = new ArrayList<>(3);
+        if (biome == Biome.MEADOW || biome == Biome.PLAINS) {
+            treeShare = 1.0d - CLEARING_BUSH_SHARE;
+            rules.add(rule(FloraFeature.BUSH, CLEARING_BUSH_SHARE * settings.bushChance()));
+        }
+        rules.add(rule(FloraFeature.DEAD_TREE, treeShare * deadChance));
+        if (tree == FloraFeature.PINE) {
+            rules.add(new DecorationRule(tree, treeShare * (1.0d - deadChance), 0, 0, null, null, Material.PODZOL, 2, 0.7d));
+        } else {
+            rules.add(rule(tree, treeShare * (1.0d - deadChance)));
+        }
+        return rules;
+    }
+
+    private static DecorationRule rule(FloraFeature feature, double weight) {
+        return new DecorationRule(feature, weight, 0, 0, null, null, null, 0, 0.0d);
+    }
+
+    private static DecorationRule resolve(DecorationRule rule, Biome biome, DecorationSettings settings) {
+        boolean pineBiome = PINE_BIOMES.contains(biome);
+        int minHeight = rule.minHeight();
+        int maxHeight = rule.maxHeight();
+        Material log = rule.log();
+        Material leaves = rule.leaves();
+        Material ground = rule.ground();
+        int groundRadius = rule.groundRadius();
+        double groundChance = rule.groundChance();
+        switch (rule.feature()) {
+            case PINE -> {
+                minHeight = minHeight > 0 ? minHeight : settings.pineMinHeight();
+                maxHeight = maxHeight > 0 ? maxHeight : settings.pineMaxHeight();
+                log = log != null ? log : Material.SPRUCE_LOG;
+                leaves = leaves != null ? leaves : Material.SPRUCE_LEAVES;
+            }
+            case ROUND_TREE -> {
+                minHeight = minHeight > 0 ? minHeight : 4;
+                maxHeight = maxHeight > 0 ? maxHeight : 6;
+                log = log != null ? log : pineBiome ? Material.SPRUCE_LOG : Material.OAK_LOG;
+                leaves = leaves != null ? leaves : leavesFor(biome, pineBiome);
+            }
+            case DEAD_TREE -> {
+                minHeight = minHeight > 0 ? minHeight : 4;
+                maxHeight = maxHeight > 0 ? maxHeight : 7;
+                log = log != null ? log : Material.DARK_OAK_LOG;
+            }
+            case GROUND_PATCH -> {
+                ground = ground != null ? ground : Material.COARSE_DIRT;
+                groundRadius = groundRadius > 0 ? groundRadius : 2;
+                groundChance = 1.0d;
+            }
+            // Bushes without leaves configured pick spruce or oak per bush.
+            case BUSH -> {
+            }
+        }
+        maxHeight = Math.max(minHeight, maxHeight);
+        if (ground == null) {
+            groundChance = 0.0d;
+        }
+        return new DecorationRule(rule.feature(), rule.weight(), minHeight, maxHeight, log, leaves, ground,
+                Math.max(1, groundRadius), groundChance);
+    }
+
+    private static Material leavesFor(Biome biome, boolean pineBiome) {
+        return switch (biome) {
+            case CHERRY_GROVE -> Material.CHERRY_LEAVES;
+            case MANGROVE_SWAMP -> Material.MANGROVE_LEAVES;
+            default -> pineBiome ? Material.SPRUCE_LEAVES : Material.OAK_LEAVES;
+        };
+    }
+
+    private static double builtInMultiplier(Biome biome, DecorationSettings settings) {
+        if (PINE_BIOMES.contains(biome)) {
+            return settings.taigaTreeMultiplier();
+        }
+        if (biome == Biome.FOREST || biome == Biome.DARK_FOREST || biome == Biome.CHERRY_GROVE) {
+            return settings.forestTreeMultiplier();
+        }
+        if (biome == Biome.SWAMP || biome == Biome.MANGROVE_SWAMP) {
+            return settings.swampTreeMultiplier();
+        }
+        if (biome == Biome.MEADOW || biome == Biome.PLAINS) {
+            return 0.35d;
+        }
+        return 1.0d;
+    }
+
+    // Rules of one biome with their running weight totals; scale is at least one, so weights
+    // summing below one leave the remainder empty.
+    record Entry(double multiplier, DecorationRule[] rules, double[] cumulative, double scale) {
+
+        // Null when the roll lands in the empty remainder.
+        DecorationRule pick(double roll) {
+            double target = roll * scale;
+            for (int i = 0; i < rules.length; i++) {
+                if (target < cumulative[i]) {
+                    return rules[i];
+                }
+            }
+            return null;
+        }
+    }
+}
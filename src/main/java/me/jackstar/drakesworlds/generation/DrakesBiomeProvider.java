@@ -1,48 +1,98 @@
 package me.jackstar.drakesworlds.generation;
 
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
 import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.noise.NoiseRegistry;
+import me.jackstar.drakesworlds.generation.noise.SharedNoise;
 import org.bukkit.block.Biome;
 import org.bukkit.generator.BiomeProvider;
 import org.bukkit.generator.WorldInfo;
-import org.bukkit.util.noise.SimplexOctaveGenerator;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
 
 public final class DrakesBiomeProvider extends BiomeProvider {
 
-    private final WorldProfile profile;
-    private final List<Biome> availableBiomes;
+    private static final Biome[] CLEARING_OPTIONS = {Biome.MEADOW, Biome.PLAINS, Biome.CHERRY_GROVE};
+    private static final Biome[] COLD_PEAK_OPTIONS = {Biome.JAGGED_PEAKS, Biome.SNOWY_SLOPES, Biome.GROVE};
+    private static final Biome[] TEMPERATE_PEAK_OPTIONS = {Biome.GROVE, Biome.STONY_PEAKS, Biome.WINDSWEPT_HILLS};
+    private static final Biome[] WARM_PEAK_OPTIONS = {Biome.STONY_PEAKS, Biome.WINDSWEPT_HILLS, Biome.CHERRY_GROVE};
+    private static final Biome[] SWAMP_OPTIONS = {Biome.SWAMP, Biome.MANGROVE_SWAMP, Biome.SWAMP};
+    private static final Biome[] CHERRY_OPTIONS = {Biome.CHERRY_GROVE, Biome.FOREST, Biome.MEADOW};
+    private static final Biome[] COLD_FOREST_OPTIONS = {Biome.SNOWY_TAIGA, Biome.TAIGA, Biome.GROVE};
+    private static final Biome[] FOREST_OPTIONS = {Biome.OLD_GROWTH_PINE_TAIGA, Biome.TAIGA, Biome.FOREST, Biome.DARK_FOREST};
+    private static final Biome[] BADLANDS_OPTIONS = {Biome.BADLANDS, Biome.WOODED_BADLANDS, Biome.BADLANDS};
+    private static final Biome[] FALLBACK_OPTIONS = {
+            Biome.TAIGA,
+            Biome.OLD_GROWTH_PINE_TAIGA,
+            Biome.FOREST,
+            Biome.GROVE,
+            Biome.CHERRY_GROVE,
+            Biome.SWAMP,
+            Biome.PLAINS
+    };
+
+    private record AvailableBiomes(WorldProfile profile, List<Biome> biomes) {
+    }
+
+    private final ProfileBinding binding;
 
     private volatile boolean initialized;
-    private volatile SimplexOctaveGenerator temperatureNoise;
-    private volatile SimplexOctaveGenerator humidityNoise;
-    private volatile SimplexOctaveGenerator mountainNoise;
-    private volatile SimplexOctaveGenerator clearingNoise;
-
-    public DrakesBiomeProvider(WorldProfile profile) {
-        this.profile = profile;
-        this.availableBiomes = buildAvailableBiomes(profile);
+    private volatile SharedNoise temperatureNoise;
+    private volatile SharedNoise humidityNoise;
+    private volatile SharedNoise mountainNoise;
+    private volatile BiomeNoise biomeNoise;
+    private volatile AvailableBiomes availableBiomes;
+
+    public DrakesBiomeProvider(ProfileBinding binding) {
+        this.binding = binding;
+    }
+
+    public ProfileBinding getProfileBinding() {
+        return binding;
     }
 
     @Nonnull
     @Override
     public Biome getBiome(@Nonnull WorldInfo worldInfo, int x, int y, int z) {
-        ensureInit(worldInfo);
+        return getBiome(worldInfo.getSeed(), binding.current(), x, z);
+    }
 
-        double temperature = temperatureNoise.noise(x, z, 0.35d, 0.5d, true);
-        double humidity = humidityNoise.noise(x, z, 0.45d, 0.5d, true);
-        double mountain = Math.abs(mountainNoise.noise(x, z, 0.5d, 0.5d, true));
-        double clearings = clearingNoise.noise(x, z, 0.45d, 0.5d, true);
+    // Biome of a column for callers generating without a world.
+    public Biome getBiome(long seed, int x, int z) {
+        return getBiome(seed, binding.current(), x, z);
+    }
 
-        Biome biome = selectPrimaryBiome(worldInfo.getSeed(), x, z, temperature, humidity, mountain);
+    // The server asks for every 4x4x4 cell although biomes here only vary by column,
+    // so each thread keeps the last columns it resolved.
+    Biome getBiome(long seed, ProfileSnapshot snapshot, int x, int z) {
+        ChunkGenContext context = ChunkGenContext.get();
+        Biome cached = context.cachedBiome(this, snapshot.version(), x, z);
+        if (cached != null) {
+            return cached;
+        }
+        Biome biome = computeBiome(seed, snapshot, x, z);
+        context.cacheBiome(this, snapshot.version(), x, z, biome);
+        return biome;
+    }
+
+    private Biome computeBiome(long seed, ProfileSnapshot snapshot, int x, int z) {
+        WorldProfile profile = snapshot.profile();
+        ensureInit(seed);
+        BiomeNoise noise = biomeNoise(seed, profile);
+
+        double temperature = noise.temperature().noise(x, z, 0.35d, 0.5d, true);
+        double humidity = noise.humidity().noise(x, z, 0.45d, 0.5d, true);
+        double mountain = Math.abs(noise.mountain().noise(x, z, 0.5d, 0.5d, true));
+        double clearings = noise.clearing().noise(x, z, 0.45d, 0.5d, true);
+
+        Biome biome = selectPrimaryBiome(profile, seed, x, z, temperature, humidity, mountain);
 
         if (isWoodland(biome) && clearings > profile.clearingThreshold()) {
-            biome = pickWeighted(worldInfo.getSeed(), x, z, List.of(Biome.MEADOW, Biome.PLAINS, Biome.CHERRY_GROVE));
+            biome = pickWeighted(profile, seed, x, z, CLEARING_OPTIONS);
         }
 
         return biome;
@@ -51,60 +101,59 @@ public final class DrakesBiomeProvider extends BiomeProvider {
     @Nonnull
     @Override
     public List<Biome> getBiomes(@Nonnull WorldInfo worldInfo) {
-        return availableBiomes;
+        // biome-weights can change with a hot-swap, so the list follows the current snapshot.
+        WorldProfile profile = binding.current().profile();
+        AvailableBiomes current = availableBiomes;
+        if (current == null || current.profile() != profile) {
+            current = new AvailableBiomes(profile, buildAvailableBiomes(profile));
+            this.availableBiomes = current;
+        }
+        return current.biomes();
     }
 
-    private Biome selectPrimaryBiome(long seed, int x, int z, double temperature, double humidity, double mountain) {
+    private Biome selectPrimaryBiome(WorldProfile profile, long seed, int x, int z, double temperature, double humidity, double mountain) {
         if (mountain > 0.68d) {
             if (temperature < -0.15d) {
-                return pickWeighted(seed, x, z, List.of(Biome.JAGGED_PEAKS, Biome.SNOWY_SLOPES, Biome.GROVE));
+                return pickWeighted(profile, seed, x, z, COLD_PEAK_OPTIONS);
             }
             if (temperature < 0.15d) {
-                return pickWeighted(seed, x, z, List.of(Biome.GROVE, Biome.STONY_PEAKS, Biome.WINDSWEPT_HILLS));
+                return pickWeighted(profile, seed, x, z, TEMPERATE_PEAK_OPTIONS);
             }
-            return pickWeighted(seed, x, z, List.of(Biome.STONY_PEAKS, Biome.WINDSWEPT_HILLS, Biome.CHERRY_GROVE));
+            return pickWeighted(profile, seed, x, z, WARM_PEAK_OPTIONS);
         }
 
         if (humidity > 0.52d && temperature > 0.08d) {
-            return pickWeighted(seed, x, z, List.of(Biome.SWAMP, Biome.MANGROVE_SWAMP, Biome.SWAMP));
+            return pickWeighted(profile, seed, x, z, SWAMP_OPTIONS);
         }
 
         if (temperature > 0.22d && humidity > 0.05d && humidity < 0.42d && mountain > 0.28d) {
-            return pickWeighted(seed, x, z, List.of(Biome.CHERRY_GROVE, Biome.FOREST, Biome.MEADOW));
+            return pickWeighted(profile, seed, x, z, CHERRY_OPTIONS);
         }
 
         if (humidity > 0.16d) {
             if (temperature < -0.14d) {
-                return pickWeighted(seed, x, z, List.of(Biome.SNOWY_TAIGA, Biome.TAIGA, Biome.GROVE));
+                return pickWeighted(profile, seed, x, z, COLD_FOREST_OPTIONS);
             }
-            return pickWeighted(seed, x, z, List.of(Biome.OLD_GROWTH_PINE_TAIGA, Biome.TAIGA, Biome.FOREST, Biome.DARK_FOREST));
+            return pickWeighted(profile, seed, x, z, FOREST_OPTIONS);
         }
 
         if (humidity < -0.34d && temperature > 0.12d) {
-            return pickWeighted(seed, x, z, List.of(Biome.BADLANDS, Biome.WOODED_BADLANDS, Biome.BADLANDS));
+            return pickWeighted(profile, seed, x, z, BADLANDS_OPTIONS);
         }
 
-        return pickWeighted(seed, x, z, List.of(
-                Biome.TAIGA,
-                Biome.OLD_GROWTH_PINE_TAIGA,
-                Biome.FOREST,
-                Biome.GROVE,
-                Biome.CHERRY_GROVE,
-                Biome.SWAMP,
-                Biome.PLAINS
-        ));
+        return pickWeighted(profile, seed, x, z, FALLBACK_OPTIONS);
     }
 
-    private Biome pickWeighted(long seed, int x, int z, List<Biome> options) {
+    private Biome pickWeighted(WorldProfile profile, long seed, int x, int z, Biome[] options) {
         double total = 0.0d;
         for (Biome option : options) {
             total += Math.max(0.0001d, profile.weightFor(option));
         }
         if (total <= 0.0d) {
-            return options.get((int) (Math.abs(hash(seed, x, z)) % options.size()));
+            return options[(int) Long.remainderUnsigned(ChunkRandom.hash(seed, x, z, ChunkRandom.Stage.BIOME_PICK), options.length)];
         }
 
-        double target = normalized(seed, x, z) * total;
+        double target = ChunkRandom.unit(ChunkRandom.hash(seed, x, z, ChunkRandom.Stage.BIOME_PICK)) * total;
         double running = 0.0d;
         for (Biome option : options) {
             running += Math.max(0.0001d, profile.weightFor(option));
@@ -112,10 +161,10 @@ public final class DrakesBiomeProvider extends BiomeProvider {
                 return option;
             }
         }
-        return options.get(options.size() - 1);
+        return options[options.length - 1];
     }
 
-    private void ensureInit(WorldInfo worldInfo) {
+    private void ensureInit(long seed) {
         if (initialized) {
             return;
         }
@@ -123,21 +172,27 @@ public final class DrakesBiomeProvider extends BiomeProvider {
             if (initialized) {
                 return;
             }
-            this.temperatureNoise = new SimplexOctaveGenerator(worldInfo.getSeed(), 8);
-            this.temperatureNoise.setScale(0.0012d);
-
-            this.humidityNoise = new SimplexOctaveGenerator(worldInfo.getSeed() ^ 0x9E3779B97F4A7C15L, 8);
-            this.humidityNoise.setScale(0.0010d);
-
-            this.mountainNoise = new SimplexOctaveGenerator(worldInfo.getSeed() ^ 0xC2B2AE3D27D4EB4FL, 8);
-            this.mountainNoise.setScale(0.0017d);
-
-            this.clearingNoise = new SimplexOctaveGenerator(worldInfo.getSeed() ^ 0x165667B19E3779F9L, 6);
-            this.clearingNoise.setScale(profile.clearingScale());
+            NoiseRegistry registry = NoiseRegistry.global();
+            this.temperatureNoise = registry.get(seed, 0L, 8, 0.0012d);
+            this.humidityNoise = registry.get(seed, 0x9E3779B97F4A7C15L, 8, 0.0010d);
+            this.mountainNoise = registry.get(seed, 0xC2B2AE3D27D4EB4FL, 8, 0.0017d);
             this.initialized = true;
         }
     }
 
+    // The climate tables are per seed; the clearing scale and octave cuts come from the profile,
+    // so a hot-swapped snapshot replans them. Racing threads may both look up the clearing layer;
+    // the registry hands them the same instance.
+    private BiomeNoise biomeNoise(long seed, WorldProfile profile) {
+        BiomeNoise current = biomeNoise;
+        if (current == null || current.profile() != profile) {
+            current = BiomeNoise.plan(profile, temperatureNoise, humidityNoise, mountainNoise,
+                    NoiseRegistry.global().get(seed, 0x165667B19E3779F9L, 6, profile.clearingScale()));
+            this.biomeNoise = current;
+        }
+        return current;
+    }
+
     private static List<Biome> buildAvailableBiomes(WorldProfile profile) {
         Set<Biome> biomeSet = new LinkedHashSet<>(profile.biomeWeights().keySet());
         biomeSet.add(Biome.FOREST);
@@ -155,29 +210,7 @@ public final class DrakesBiomeProvider extends BiomeProvider {
     }
 
     private static boolean isWoodland(Biome biome) {
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("FOREST")
-                || name.contains("TAIGA")
-                || biome == Biome.CHERRY_GROVE;
-    }
-
-    private static double normalized(long seed, int x, int z) {
-        long hash = hash(seed, x, z);
-        long positive = hash & Long.MAX_VALUE;
-        return positive / (double) Long.MAX_VALUE;
-    }
-
-    private static long hash(long seed, int x, int z) {
-        long h = seed;
-        h ^= mix64(0x9E3779B97F4A7C15L * x);
-        h ^= mix64(0xC2B2AE3D27D4EB4FL * z);
-        return mix64(h);
-    }
-
-    private static long mix64(long z) {
-        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
-        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
-        return z ^ (z >>> 33);
+        return BiomeGroups.WOODLAND.contains(biome);
     }
 }
 
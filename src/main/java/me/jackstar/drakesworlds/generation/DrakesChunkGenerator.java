@@ -1,6 +1,10 @@
 package me.jackstar.drakesworlds.generation;
 
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+import me.jackstar.drakesworlds.domain.QualityTier;
 import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.noise.NoiseRegistry;
+import me.jackstar.drakesworlds.generation.noise.SharedNoise;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
@@ -8,35 +12,80 @@ import org.bukkit.generator.BiomeProvider;
 import org.bukkit.generator.BlockPopulator;
 import org.bukkit.generator.ChunkGenerator;
 import org.bukkit.generator.WorldInfo;
-import org.bukkit.util.noise.SimplexOctaveGenerator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Locale;
 import java.util.Random;
+import java.util.Set;
 
 public final class DrakesChunkGenerator extends ChunkGenerator {
 
-    private final WorldProfile profile;
+    // Name-based biome groups resolved once instead of per column.
+    private static final Set<Biome> SNOW_BIOMES = BiomeGroups.matching(biome -> {
+        String name = biome.name().toUpperCase(Locale.ROOT);
+        return name.contains("SNOW") || biome == Biome.JAGGED_PEAKS || biome == Biome.GROVE;
+    });
+    private static final Set<Biome> MOUNTAIN_BIOMES = BiomeGroups.matching(biome -> {
+        String name = biome.name().toUpperCase(Locale.ROOT);
+        return name.contains("PEAKS")
+                || name.contains("SLOPES")
+                || biome == Biome.WINDSWEPT_HILLS
+                || biome == Biome.GROVE;
+    });
+    private static final Set<Biome> WOODLAND_BIOMES = BiomeGroups.WOODLAND;
+
+    private final ProfileBinding binding;
     private final DrakesBiomeProvider biomeProvider;
     private final DrakesFloraPopulator floraPopulator;
+    private final TerrainFieldCache fieldCache;
+    private final TerrainPrecompute precompute;
 
     private volatile boolean initialized;
-    private volatile SimplexOctaveGenerator continentalNoise;
-    private volatile SimplexOctaveGenerator mountainNoise;
-    private volatile SimplexOctaveGenerator ridgeNoise;
-    private volatile SimplexOctaveGenerator valleyNoise;
-    private volatile SimplexOctaveGenerator detailNoise;
-    private volatile SimplexOctaveGenerator clearingNoise;
-    private volatile SimplexOctaveGenerator caveNoiseA;
-    private volatile SimplexOctaveGenerator caveNoiseB;
-    private volatile SimplexOctaveGenerator caveNoiseC;
-
-    public DrakesChunkGenerator(WorldProfile profile, DrakesBiomeProvider biomeProvider) {
-        this.profile = profile;
+    private volatile SharedNoise continentalNoise;
+    private volatile SharedNoise mountainNoise;
+    private volatile SharedNoise ridgeNoise;
+    private volatile SharedNoise valleyNoise;
+    private volatile SharedNoise detailNoise;
+    private volatile TerrainNoise terrainNoise;
+    private volatile SharedNoise caveNoiseA;
+    private volatile SharedNoise caveNoiseB;
+    private volatile SharedNoise caveNoiseC;
+
+    public DrakesChunkGenerator(DrakesBiomeProvider biomeProvider) {
+        this(biomeProvider, null, null);
+    }
+
+    public DrakesChunkGenerator(DrakesBiomeProvider biomeProvider, @Nullable TerrainFieldCache fieldCache,
+                                @Nullable TerrainPrecompute precompute) {
+        this.binding = biomeProvider.getProfileBinding();
         this.biomeProvider = biomeProvider;
-        this.floraPopulator = new DrakesFloraPopulator(profile, biomeProvider);
+        this.floraPopulator = new DrakesFloraPopulator(biomeProvider);
+        this.fieldCache = fieldCache;
+        this.precompute = precompute;
+    }
+
+    public ProfileBinding getProfileBinding() {
+        return binding;
+    }
+
+    public DrakesBiomeProvider getBiomeProvider() {
+        return biomeProvider;
+    }
+
+    public DrakesFloraPopulator getFloraPopulator() {
+        return floraPopulator;
+    }
+
+    @Nullable
+    public TerrainFieldCache getFieldCache() {
+        return fieldCache;
+    }
+
+    @Nullable
+    public TerrainPrecompute getPrecompute() {
+        return precompute;
     }
 
     @Nullable
@@ -61,59 +110,178 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
         }
     }
 
+    // Bedrock floor for chunks generated into a BlockBuffer; call after generateNoise, which resets it.
+    public void generateBedrock(BlockBuffer blocks) {
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                blocks.set(x, blocks.minY(), z, Material.BEDROCK);
+            }
+        }
+    }
+
     @Override
     public void generateNoise(@Nonnull WorldInfo worldInfo, @Nonnull Random random, int chunkX, int chunkZ, @Nonnull ChunkData chunkData) {
-        ensureInit(worldInfo);
+        BlockBuffer blocks = ChunkGenContext.get().blocks;
+        generateNoise(worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight(), chunkX, chunkZ, blocks);
+        blocks.flush(chunkData);
+    }
+
+    // The server path without a world: the chunk is left in blocks instead of a ChunkData.
+    public void generateNoise(long seed, int minY, int maxY, int chunkX, int chunkZ, BlockBuffer blocks) {
+        ProfileSnapshot snapshot = binding.current();
+        WorldProfile profile = snapshot.profile();
+        ensureInit(seed);
+        ChunkGenContext context = ChunkGenContext.get();
 
-        int minY = worldInfo.getMinHeight();
-        int maxY = worldInfo.getMaxHeight();
         int seaLevel = profile.seaLevel();
-        int[][] surfaceHeights = new int[16][16];
+        long fingerprint = TerrainFieldCache.fingerprint(profile, seed, minY, maxY);
+        PrecomputedChunk precomputed = precompute == null ? null : precompute.take(this, chunkX, chunkZ, fingerprint);
+        TerrainField field = precomputed == null ? context.field : precomputed.field();
+        boolean cached = precomputed != null
+                || (fieldCache != null && fieldCache.read(seed, fingerprint, chunkX, chunkZ, field));
+        if (!cached) {
+            sampleSurface(seed, minY, maxY, snapshot, chunkX, chunkZ, context.rawHeights, field);
+        }
 
+        blocks.reset(minY, maxY);
         for (int localX = 0; localX < 16; localX++) {
             int worldX = (chunkX << 4) + localX;
             for (int localZ = 0; localZ < 16; localZ++) {
                 int worldZ = (chunkZ << 4) + localZ;
+                int column = ChunkGenContext.column(localX, localZ);
+                Biome biome = field.biomes[column];
+                int surfaceY = field.surfaceHeights[column];
 
-                Biome biome = biomeProvider.getBiome(worldInfo, worldX, seaLevel, worldZ);
-                int surfaceY = computeSurfaceY(worldX, worldZ, biome, minY, maxY);
-                surfaceHeights[localX][localZ] = surfaceY;
-
-                for (int y = minY + 1; y <= surfaceY; y++) {
-                    Material block = resolveColumnMaterial(biome, y, surfaceY, worldX, worldZ);
-                    chunkData.setBlock(localX, y, localZ, block);
-                }
+                long columnHash = ChunkRandom.hash(seed, worldX, worldZ, ChunkRandom.Stage.SURFACE);
+                fillColumn(blocks, biome, localX, localZ, columnHash, minY + 1, surfaceY);
 
                 if (surfaceY < seaLevel) {
-                    for (int y = surfaceY + 1; y <= seaLevel; y++) {
-                        chunkData.setBlock(localX, y, localZ, Material.WATER);
-                    }
+                    blocks.fillColumn(localX, localZ, surfaceY + 1, Math.min(seaLevel, maxY - 1), Material.WATER);
                 }
 
                 if (isSnowBiome(biome) && surfaceY >= seaLevel + 1 && surfaceY + 1 < maxY) {
-                    chunkData.setBlock(localX, surfaceY + 1, localZ, Material.SNOW);
+                    blocks.set(localX, surfaceY + 1, localZ, Material.SNOW);
                 }
             }
         }
 
-        carveCaves(chunkX, chunkZ, chunkData, minY, seaLevel, surfaceHeights);
-        generateOres(worldInfo, chunkX, chunkZ, chunkData, minY, maxY);
+        if (precomputed != null) {
+            applyCaveMask(blocks, minY, field, precomputed.caveMask());
+        } else {
+            carveCaves(chunkX, chunkZ, blocks, minY, seaLevel, field, cached, null, profile.quality().caveCell());
+        }
+        generateOres(seed, context.random, chunkX, chunkZ, blocks, minY, maxY);
+        if (!cached && fieldCache != null) {
+            fieldCache.write(seed, fingerprint, chunkX, chunkZ, field);
+        }
+        if (context.markRegion(binding, snapshot.version(), chunkX, chunkZ)) {
+            binding.recordChunk(snapshot, chunkX, chunkZ);
+        }
     }
 
-    private int computeSurfaceY(int worldX, int worldZ, Biome biome, int minY, int maxY) {
+    // Heights, biomes and cave bounds of a chunk without building its blocks, from the
+    // field cache when it has the chunk. Safe to call from any thread.
+    public void sampleField(WorldInfo worldInfo, int chunkX, int chunkZ, TerrainField out) {
+        ProfileSnapshot snapshot = binding.current();
+        WorldProfile profile = snapshot.profile();
+        long seed = worldInfo.getSeed();
+        ensureInit(seed);
+        int minY = worldInfo.getMinHeight();
+        int maxY = worldInfo.getMaxHeight();
+        long fingerprint = fieldCache == null ? 0L : TerrainFieldCache.fingerprint(profile, seed, minY, maxY);
+        if (fieldCache != null && fieldCache.read(seed, fingerprint, chunkX, chunkZ, out)) {
+            return;
+        }
+        sampleSurface(seed, minY, maxY, snapshot, chunkX, chunkZ, ChunkGenContext.get().rawHeights, out);
+        carveCaves(chunkX, chunkZ, null, minY, profile.seaLevel(), out, false, null, profile.quality().caveCell());
+        if (fieldCache != null) {
+            fieldCache.write(seed, fingerprint, chunkX, chunkZ, out);
+        }
+    }
+
+    // Surface height of one column under the given biome, for map previews. The raw heights
+    // around it are sampled at step one; coarse samples only the column itself and lets it
+    // stand in for the whole 3x3 kernel, which is invisible at several blocks per pixel.
+    // Safe to call from any thread.
+    public int previewSurfaceY(long seed, int minY, int maxY, Biome biome, int x, int z, boolean coarse) {
+        WorldProfile profile = binding.current().profile();
+        ensureInit(seed);
+        TerrainNoise noise = terrainNoise(seed, profile);
+        double[] rawHeights = ChunkGenContext.get().rawHeights;
+        int row = ChunkGenContext.RAW_SIZE;
+        RawHeights heights = noise.rawHeights();
+        double center = coarse ? heights.at(x, z) : 0.0d;
+        for (int dx = 0; dx < 3; dx++) {
+            for (int dz = 0; dz < 3; dz++) {
+                rawHeights[dx * row + dz] = coarse ? center : heights.at(x + dx - 1, z + dz - 1);
+            }
+        }
+        return computeSurfaceY(profile, profile.quality().kernel(), noise.clearing(), rawHeights, 0, 0, x, z, biome,
+                minY, maxY);
+    }
+
+    // Runs on TerrainPrecompute threads; the result is only used if the profile is unchanged by then.
+    PrecomputedChunk precompute(WorldInfo worldInfo, int chunkX, int chunkZ) {
+        ProfileSnapshot snapshot = binding.current();
+        WorldProfile profile = snapshot.profile();
+        long seed = worldInfo.getSeed();
+        ensureInit(seed);
+        int minY = worldInfo.getMinHeight();
+        int maxY = worldInfo.getMaxHeight();
+        long fingerprint = TerrainFieldCache.fingerprint(profile, seed, minY, maxY);
+        TerrainField field = new TerrainField();
+        boolean cached = fieldCache != null && fieldCache.read(seed, fingerprint, chunkX, chunkZ, field);
+        if (!cached) {
+            sampleSurface(seed, minY, maxY, snapshot, chunkX, chunkZ, ChunkGenContext.get().rawHeights, field);
+        }
+        CaveMask caveMask = new CaveMask(minY + 8, profile.seaLevel() - 2);
+        carveCaves(chunkX, chunkZ, null, minY, profile.seaLevel(), field, cached, caveMask, profile.quality().caveCell());
+        if (!cached && fieldCache != null) {
+            fieldCache.write(seed, fingerprint, chunkX, chunkZ, field);
+        }
+        return new PrecomputedChunk(fingerprint, field, caveMask);
+    }
+
+    private void sampleSurface(long seed, int minY, int maxY, ProfileSnapshot snapshot, int chunkX, int chunkZ,
+                               double[] rawHeights, TerrainField field) {
+        WorldProfile profile = snapshot.profile();
+        TerrainNoise noise = terrainNoise(seed, profile);
+        QualityTier quality = profile.quality();
+        noise.rawHeights().sample(chunkX << 4, chunkZ << 4, rawHeights);
+        for (int localX = 0; localX < 16; localX++) {
+            int worldX = (chunkX << 4) + localX;
+            for (int localZ = 0; localZ < 16; localZ++) {
+                int worldZ = (chunkZ << 4) + localZ;
+                int column = ChunkGenContext.column(localX, localZ);
+                Biome biome = biomeProvider.getBiome(seed, snapshot, worldX, worldZ);
+                field.biomes[column] = biome;
+                field.surfaceHeights[column] = computeSurfaceY(profile, quality.kernel(), noise.clearing(), rawHeights,
+                        localX, localZ, worldX, worldZ, biome, minY, maxY);
+            }
+        }
+    }
+
+    private int computeSurfaceY(WorldProfile profile, QualityTier.Kernel kernel, SharedNoise clearing, double[] rawHeights,
+                                int localX, int localZ, int worldX, int worldZ, Biome biome, int minY, int maxY) {
         // 3x3 smoothing to avoid needle-like terrain and abrupt checker patterns.
-        double center = computeRawHeight(worldX, worldZ, biome) * 0.32d;
-        double north = computeRawHeight(worldX, worldZ - 1, biome) * 0.12d;
-        double south = computeRawHeight(worldX, worldZ + 1, biome) * 0.12d;
-        double east = computeRawHeight(worldX + 1, worldZ, biome) * 0.12d;
-        double west = computeRawHeight(worldX - 1, worldZ, biome) * 0.12d;
-        double nw = computeRawHeight(worldX - 1, worldZ - 1, biome) * 0.08d;
-        double ne = computeRawHeight(worldX + 1, worldZ - 1, biome) * 0.08d;
-        double sw = computeRawHeight(worldX - 1, worldZ + 1, biome) * 0.08d;
-        double se = computeRawHeight(worldX + 1, worldZ + 1, biome) * 0.08d;
-        double clearings = clearingNoise.noise(worldX, worldZ, 0.50d, 0.5d, true);
-
-        double height = center + north + south + east + west + nw + ne + sw + se;
+        double adjust = biomeHeightAdjust(biome);
+        int row = ChunkGenContext.RAW_SIZE;
+        int center = (localX + 1) * row + (localZ + 1);
+        // The cross keeps the full kernel's total weight of 1.12 so both tiers sit at the same height.
+        double height = kernel == QualityTier.Kernel.CROSS
+                ? rawHeights[center] * 0.32d
+                + (rawHeights[center - 1] + rawHeights[center + 1] + rawHeights[center + row] + rawHeights[center - row]) * 0.20d
+                + adjust * 1.12d
+                : (rawHeights[center] + adjust) * 0.32d
+                + (rawHeights[center - 1] + adjust) * 0.12d
+                + (rawHeights[center + 1] + adjust) * 0.12d
+                + (rawHeights[center + row] + adjust) * 0.12d
+                + (rawHeights[center - row] + adjust) * 0.12d
+                + (rawHeights[center - row - 1] + adjust) * 0.08d
+                + (rawHeights[center + row - 1] + adjust) * 0.08d
+                + (rawHeights[center - row + 1] + adjust) * 0.08d
+                + (rawHeights[center + row + 1] + adjust) * 0.08d;
+        double clearings = clearing.noise(worldX, worldZ, 0.50d, 0.5d, true);
 
         if ((isWoodlandBiome(biome) || biome == Biome.MEADOW || biome == Biome.PLAINS) && clearings > profile.clearingThreshold()) {
             double flattened = profile.baseHeight() + 3.0d;
@@ -126,59 +294,97 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
         return clamped;
     }
 
-    private double computeRawHeight(int worldX, int worldZ, Biome biome) {
-        double continental = continentalNoise.noise(worldX, worldZ, 0.35d, 0.5d, true);
-        double mountain = Math.max(0.0d, mountainNoise.noise(worldX, worldZ, 0.45d, 0.5d, true));
-        mountain = Math.pow(mountain, 1.6d);
-
-        double ridges = ridgeNoise.noise(worldX, worldZ, 0.55d, 0.5d, true);
-        ridges = 1.0d - Math.abs(ridges);
-        ridges = Math.pow(Math.max(0.0d, ridges), 1.75d);
-
-        double valleys = Math.max(0.0d, valleyNoise.noise(worldX, worldZ, 0.30d, 0.5d, true));
-        double detail = detailNoise.noise(worldX, worldZ, 0.35d, 0.5d, true) * 0.35d;
-
-        double height = profile.baseHeight()
-                + (continental * profile.hillAmplitude())
-                + (mountain * (profile.mountainAmplitude() * 0.58d))
-                + (ridges * (profile.mountainAmplitude() * 0.16d))
-                - (valleys * (profile.valleyDepth() * 0.48d))
-                + (detail * profile.detailAmplitude());
-
+    private static double biomeHeightAdjust(Biome biome) {
         if (isSwampBiome(biome)) {
-            height -= 4.0d;
-        } else if (isMountainBiome(biome)) {
-            height += 4.0d;
-        } else if (biome == Biome.BADLANDS || biome == Biome.WOODED_BADLANDS) {
-            height += 2.0d;
+            return -4.0d;
+        }
+        if (isMountainBiome(biome)) {
+            return 4.0d;
         }
-        return height;
+        if (biome == Biome.BADLANDS || biome == Biome.WOODED_BADLANDS) {
+            return 2.0d;
+        }
+        return 0.0d;
     }
 
-    private void carveCaves(int chunkX, int chunkZ, ChunkData chunkData, int minY, int seaLevel, int[][] surfaceHeights) {
+    private void fillColumn(BlockBuffer blocks, Biome biome, int localX, int localZ, long columnHash, int fromY, int surfaceY) {
+        int stoneTop = surfaceY - 4;
+        if (stoneTop >= fromY) {
+            if (isBadlands(biome)) {
+                for (int y = fromY; y <= stoneTop; y++) {
+                    blocks.set(localX, y, localZ, badlandsStrata(y, columnHash));
+                }
+            } else {
+                blocks.fillColumn(localX, localZ, fromY, stoneTop, Material.STONE);
+            }
+        }
+        for (int y = Math.max(fromY, stoneTop + 1); y <= surfaceY; y++) {
+            blocks.set(localX, y, localZ, resolveColumnMaterial(biome, y, surfaceY, columnHash));
+        }
+    }
+
+    // With known bounds only the span recorded for each column is evaluated; otherwise the
+    // whole candidate span is and the bounds are recorded. blocks may be null to only record,
+    // and carved cells also go to mask when one is given.
+    private void carveCaves(int chunkX, int chunkZ, BlockBuffer blocks, int minY, int seaLevel, TerrainField field,
+                            boolean knownBounds, CaveMask mask, int cell) {
+        if (!knownBounds) {
+            field.clearCaves();
+        }
+        CaveCells cells = cell > 1 ? ChunkGenContext.get().caveCells.reset(cell, minY, seaLevel) : null;
         for (int localX = 0; localX < 16; localX++) {
             int worldX = (chunkX << 4) + localX;
             for (int localZ = 0; localZ < 16; localZ++) {
                 int worldZ = (chunkZ << 4) + localZ;
-                int surfaceY = surfaceHeights[localX][localZ];
+                int column = ChunkGenContext.column(localX, localZ);
+                int surfaceY = field.surfaceHeights[column];
                 int topLimit = Math.min(surfaceY - 10, seaLevel - 2);
                 if (topLimit <= minY + 10) {
                     continue;
                 }
-                for (int y = minY + 8; y <= topLimit; y++) {
-                    Material current = chunkData.getType(localX, y, localZ);
-                    if (current == Material.AIR || current == Material.WATER || current == Material.BEDROCK) {
+                int fromY = minY + 8;
+                if (knownBounds) {
+                    fromY = Math.max(fromY, field.caveBottoms[column]);
+                    topLimit = Math.min(topLimit, field.caveTops[column]);
+                }
+                // Everything between minY + 8 and surface - 10 is solid column fill here,
+                // so there is no need to re-read the block before carving.
+                for (int y = fromY; y <= topLimit; y++) {
+                    boolean carve = cells == null
+                            ? shouldCarveCave(worldX, y, worldZ, seaLevel)
+                            : cells.carve(this, localX, y, localZ, chunkX, chunkZ);
+                    if (!carve) {
                         continue;
                     }
-                    if (shouldCarveCave(worldX, y, worldZ, seaLevel)) {
-                        chunkData.setBlock(localX, y, localZ, y <= (minY + 12) ? Material.LAVA : Material.AIR);
+                    if (blocks != null) {
+                        blocks.set(localX, y, localZ, y <= (minY + 12) ? Material.LAVA : Material.AIR);
+                    }
+                    if (mask != null) {
+                        mask.set(column, y);
+                    }
+                    if (!knownBounds) {
+                        field.caveBottoms[column] = Math.min(field.caveBottoms[column], y);
+                        field.caveTops[column] = y;
                     }
                 }
             }
         }
     }
 
-    private boolean shouldCarveCave(int worldX, int y, int worldZ, int seaLevel) {
+    private static void applyCaveMask(BlockBuffer blocks, int minY, TerrainField field, CaveMask mask) {
+        for (int localX = 0; localX < 16; localX++) {
+            for (int localZ = 0; localZ < 16; localZ++) {
+                int column = ChunkGenContext.column(localX, localZ);
+                for (int y = field.caveBottoms[column]; y <= field.caveTops[column]; y++) {
+                    if (mask.get(column, y)) {
+                        blocks.set(localX, y, localZ, y <= (minY + 12) ? Material.LAVA : Material.AIR);
+                    }
+                }
+            }
+        }
+    }
+
+    boolean shouldCarveCave(int worldX, int y, int worldZ, int seaLevel) {
         double nA = caveNoiseA.noise(worldX, y * 0.85d, worldZ, 0.70d, 0.5d, true);
         double nB = caveNoiseB.noise(worldX, y * 1.05d, worldZ, 0.60d, 0.5d, true);
         double nC = caveNoiseC.noise(worldX, y * 0.55d, worldZ, 0.55d, 0.5d, true);
@@ -193,23 +399,19 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
         return chamberCut || tunnelCut;
     }
 
-    private void generateOres(WorldInfo worldInfo, int chunkX, int chunkZ, ChunkData chunkData, int minY, int maxY) {
-        Random oreRandom = new Random(worldInfo.getSeed()
-                ^ (chunkX * 341873128712L)
-                ^ (chunkZ * 132897987541L)
-                ^ 0x9E3779B97F4A7C15L);
-
-        placeOreVeins(oreRandom, chunkData, Material.COAL_ORE, Material.DEEPSLATE_COAL_ORE, 22, 14, Math.max(minY + 8, 20), Math.min(maxY - 8, 190));
-        placeOreVeins(oreRandom, chunkData, Material.IRON_ORE, Material.DEEPSLATE_IRON_ORE, 20, 10, Math.max(minY + 6, -40), Math.min(maxY - 8, 130));
-        placeOreVeins(oreRandom, chunkData, Material.COPPER_ORE, Material.DEEPSLATE_COPPER_ORE, 18, 11, Math.max(minY + 6, -20), Math.min(maxY - 8, 110));
-        placeOreVeins(oreRandom, chunkData, Material.REDSTONE_ORE, Material.DEEPSLATE_REDSTONE_ORE, 14, 8, Math.max(minY + 6, -58), Math.min(maxY - 8, 16));
-        placeOreVeins(oreRandom, chunkData, Material.LAPIS_ORE, Material.DEEPSLATE_LAPIS_ORE, 8, 7, Math.max(minY + 6, -48), Math.min(maxY - 8, 32));
-        placeOreVeins(oreRandom, chunkData, Material.GOLD_ORE, Material.DEEPSLATE_GOLD_ORE, 9, 8, Math.max(minY + 6, -52), Math.min(maxY - 8, 36));
-        placeOreVeins(oreRandom, chunkData, Material.DIAMOND_ORE, Material.DEEPSLATE_DIAMOND_ORE, 8, 6, Math.max(minY + 6, -58), Math.min(maxY - 8, 20));
-        placeOreVeins(oreRandom, chunkData, Material.EMERALD_ORE, Material.DEEPSLATE_EMERALD_ORE, 4, 4, Math.max(minY + 6, -16), Math.min(maxY - 8, 180));
+    // Each ore has its own stream, so adding or retuning one leaves the others in place.
+    private void generateOres(long seed, ChunkRandom oreRandom, int chunkX, int chunkZ, BlockBuffer blocks, int minY, int maxY) {
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 0), blocks, Material.COAL_ORE, Material.DEEPSLATE_COAL_ORE, 22, 14, Math.max(minY + 8, 20), Math.min(maxY - 8, 190));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 1), blocks, Material.IRON_ORE, Material.DEEPSLATE_IRON_ORE, 20, 10, Math.max(minY + 6, -40), Math.min(maxY - 8, 130));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 2), blocks, Material.COPPER_ORE, Material.DEEPSLATE_COPPER_ORE, 18, 11, Math.max(minY + 6, -20), Math.min(maxY - 8, 110));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 3), blocks, Material.REDSTONE_ORE, Material.DEEPSLATE_REDSTONE_ORE, 14, 8, Math.max(minY + 6, -58), Math.min(maxY - 8, 16));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 4), blocks, Material.LAPIS_ORE, Material.DEEPSLATE_LAPIS_ORE, 8, 7, Math.max(minY + 6, -48), Math.min(maxY - 8, 32));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 5), blocks, Material.GOLD_ORE, Material.DEEPSLATE_GOLD_ORE, 9, 8, Math.max(minY + 6, -52), Math.min(maxY - 8, 36));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 6), blocks, Material.DIAMOND_ORE, Material.DEEPSLATE_DIAMOND_ORE, 8, 6, Math.max(minY + 6, -58), Math.min(maxY - 8, 20));
+        placeOreVeins(oreRandom.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.ORES, 7), blocks, Material.EMERALD_ORE, Material.DEEPSLATE_EMERALD_ORE, 4, 4, Math.max(minY + 6, -16), Math.min(maxY - 8, 180));
     }
 
-    private void placeOreVeins(Random oreRandom, ChunkData chunkData, Material ore, Material deepOre,
+    private void placeOreVeins(ChunkRandom oreRandom, BlockBuffer blocks, Material ore, Material deepOre,
                                int attempts, int veinSize, int minOreY, int maxOreY) {
         if (minOreY >= maxOreY) {
             return;
@@ -226,11 +428,11 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
                 if (x < 0 || x > 15 || z < 0 || z > 15) {
                     continue;
                 }
-                Material current = chunkData.getType(x, y, z);
+                Material current = blocks.get(x, y, z);
                 if (!isReplaceableStone(current)) {
                     continue;
                 }
-                chunkData.setBlock(x, y, z, y <= 0 ? deepOre : ore);
+                blocks.set(x, y, z, y <= 0 ? deepOre : ore);
             }
         }
     }
@@ -244,28 +446,28 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
                 || type == Material.GRANITE;
     }
 
-    private Material resolveColumnMaterial(Biome biome, int y, int surfaceY, int worldX, int worldZ) {
+    private Material resolveColumnMaterial(Biome biome, int y, int surfaceY, long columnHash) {
         int depthFromTop = surfaceY - y;
         if (depthFromTop == 0) {
-            return topBlockForBiome(biome, worldX, worldZ);
+            return topBlockForBiome(biome, columnHash);
         }
         if (depthFromTop <= 3) {
             return fillerBlockForBiome(biome);
         }
-        if (biome == Biome.BADLANDS || biome == Biome.WOODED_BADLANDS || biome == Biome.ERODED_BADLANDS) {
-            return badlandsStrata(y, worldX, worldZ);
+        if (isBadlands(biome)) {
+            return badlandsStrata(y, columnHash);
         }
         return Material.STONE;
     }
 
-    private Material topBlockForBiome(Biome biome, int worldX, int worldZ) {
+    private Material topBlockForBiome(Biome biome, long columnHash) {
         return switch (biome) {
             case SWAMP -> Material.GRASS_BLOCK;
             case MANGROVE_SWAMP -> Material.MUD;
             case BADLANDS, WOODED_BADLANDS, ERODED_BADLANDS -> Material.RED_SAND;
             case JAGGED_PEAKS, SNOWY_SLOPES, GROVE, SNOWY_TAIGA -> Material.SNOW_BLOCK;
             case OLD_GROWTH_PINE_TAIGA, TAIGA -> {
-                if ((Math.abs(hash(worldX, worldZ)) & 1L) == 0L) {
+                if ((columnHash & 1L) == 0L) {
                     yield Material.PODZOL;
                 }
                 yield Material.GRASS_BLOCK;
@@ -282,8 +484,8 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
         };
     }
 
-    private Material badlandsStrata(int y, int worldX, int worldZ) {
-        int selector = Math.floorMod(y + (int) (Math.abs(hash(worldX, worldZ)) % 9L), 6);
+    private Material badlandsStrata(int y, long columnHash) {
+        int selector = Math.floorMod(y + (int) Long.remainderUnsigned(columnHash, 9L), 6);
         return switch (selector) {
             case 0 -> Material.TERRACOTTA;
             case 1 -> Material.ORANGE_TERRACOTTA;
@@ -294,7 +496,7 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
         };
     }
 
-    private void ensureInit(WorldInfo worldInfo) {
+    private void ensureInit(long seed) {
         if (initialized) {
             return;
         }
@@ -302,73 +504,60 @@ public final class DrakesChunkGenerator extends ChunkGenerator {
             if (initialized) {
                 return;
             }
-            long seed = worldInfo.getSeed();
-
-            this.continentalNoise = new SimplexOctaveGenerator(seed, 8);
-            this.continentalNoise.setScale(0.00078d);
-
-            this.mountainNoise = new SimplexOctaveGenerator(seed ^ 0x9E3779B97F4A7C15L, 8);
-            this.mountainNoise.setScale(0.00098d);
-
-            this.ridgeNoise = new SimplexOctaveGenerator(seed ^ 0xC2B2AE3D27D4EB4FL, 7);
-            this.ridgeNoise.setScale(0.00108d);
-
-            this.valleyNoise = new SimplexOctaveGenerator(seed ^ 0x165667B19E3779F9L, 6);
-            this.valleyNoise.setScale(0.00074d);
+            NoiseRegistry registry = NoiseRegistry.global();
 
-            this.detailNoise = new SimplexOctaveGenerator(seed ^ 0x85EBCA77C2B2AE63L, 5);
-            this.detailNoise.setScale(0.00135d);
-
-            this.clearingNoise = new SimplexOctaveGenerator(seed ^ 0x27D4EB2F165667C5L, 6);
-            this.clearingNoise.setScale(profile.clearingScale());
-
-            this.caveNoiseA = new SimplexOctaveGenerator(seed ^ 0xBF58476D1CE4E5B9L, 4);
-            this.caveNoiseA.setScale(0.018d);
-
-            this.caveNoiseB = new SimplexOctaveGenerator(seed ^ 0x94D049BB133111EBL, 4);
-            this.caveNoiseB.setScale(0.024d);
-
-            this.caveNoiseC = new SimplexOctaveGenerator(seed ^ 0xD6E8FEB86659FD93L, 3);
-            this.caveNoiseC.setScale(0.011d);
+            this.continentalNoise = registry.get(seed, 0L, 8, 0.00078d);
+            this.mountainNoise = registry.get(seed, 0x9E3779B97F4A7C15L, 8, 0.00098d);
+            this.ridgeNoise = registry.get(seed, 0xC2B2AE3D27D4EB4FL, 7, 0.00108d);
+            this.valleyNoise = registry.get(seed, 0x165667B19E3779F9L, 6, 0.00074d);
+            this.detailNoise = registry.get(seed, 0x85EBCA77C2B2AE63L, 5, 0.00135d);
+            this.caveNoiseA = registry.get(seed, 0xBF58476D1CE4E5B9L, 4, 0.018d);
+            this.caveNoiseB = registry.get(seed, 0x94D049BB133111EBL, 4, 0.024d);
+            this.caveNoiseC = registry.get(seed, 0xD6E8FEB86659FD93L, 3, 0.011d);
 
             this.initialized = true;
         }
     }
 
+    // Rebuilt when a new profile snapshot is published; racing threads plan the same layers
+    // and the registry hands them the same clearing instance.
+    private TerrainNoise terrainNoise(long seed, WorldProfile profile) {
+        TerrainNoise current = terrainNoise;
+        if (current == null || current.profile() != profile) {
+            current = TerrainNoise.plan(profile, continentalNoise, mountainNoise, ridgeNoise, valleyNoise, detailNoise,
+                    NoiseRegistry.global().get(seed, 0x27D4EB2F165667C5L, 6, profile.clearingScale()));
+            this.terrainNoise = current;
+        }
+        return current;
+    }
+
+    // Octaves evaluated per height sample for the current profile, null before the first chunk.
+    public int[] noiseOctaves() {
+        TerrainNoise current = terrainNoise;
+        return current == null ? null : new int[]{current.evaluatedOctaves(), current.totalOctaves()};
+    }
+
     private static boolean isSwampBiome(Biome biome) {
         return biome == Biome.SWAMP || biome == Biome.MANGROVE_SWAMP;
     }
 
+    private static boolean isBadlands(Biome biome) {
+        return biome == Biome.BADLANDS || biome == Biome.WOODED_BADLANDS || biome == Biome.ERODED_BADLANDS;
+    }
+
     private static boolean isSnowBiome(Biome biome) {
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("SNOW") || biome == Biome.JAGGED_PEAKS || biome == Biome.GROVE;
+        return SNOW_BIOMES.contains(biome);
     }
 
     private static boolean isMountainBiome(Biome biome) {
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("PEAKS")
-                || name.contains("SLOPES")
-                || biome == Biome.WINDSWEPT_HILLS
-                || biome == Biome.GROVE;
+        return MOUNTAIN_BIOMES.contains(biome);
     }
 
     private static boolean isWoodlandBiome(Biome biome) {
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("FOREST")
-                || name.contains("TAIGA")
-                || biome == Biome.CHERRY_GROVE;
+        return WOODLAND_BIOMES.contains(biome);
     }
 
     private static double lerp(double from, double to, double factor) {
         return from + (to - from) * factor;
     }
-
-    private static long hash(int x, int z) {
-        long h = 1469598103934665603L;
-        h ^= x;
-        h *= 1099511628211L;
-        h ^= z;
-        h *= 1099511628211L;
-        return h;
-    }
 }
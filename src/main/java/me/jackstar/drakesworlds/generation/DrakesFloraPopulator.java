@@ -1,75 +1,90 @@
 package me.jackstar.drakesworlds.generation;
 
+import me.jackstar.drakesworlds.domain.DecorationRule;
 import me.jackstar.drakesworlds.domain.DecorationSettings;
-import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.domain.FloraFeature;
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
 import org.bukkit.Axis;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
-import org.bukkit.block.Biome;
-import org.bukkit.block.data.BlockData;
-import org.bukkit.block.data.Orientable;
 import org.bukkit.generator.BlockPopulator;
 import org.bukkit.generator.LimitedRegion;
 import org.bukkit.generator.WorldInfo;
 
 import javax.annotation.Nonnull;
-import java.util.Locale;
+import javax.annotation.Nullable;
 import java.util.Random;
 
 public final class DrakesFloraPopulator extends BlockPopulator {
 
-    private final WorldProfile profile;
+    private final ProfileBinding binding;
     private final DrakesBiomeProvider biomeProvider;
+    private volatile DecorationTable decorationTable;
 
-    public DrakesFloraPopulator(WorldProfile profile, DrakesBiomeProvider biomeProvider) {
-        this.profile = profile;
+    public DrakesFloraPopulator(DrakesBiomeProvider biomeProvider) {
+        this.binding = biomeProvider.getProfileBinding();
         this.biomeProvider = biomeProvider;
     }
 
     @Override
     public void populate(@Nonnull WorldInfo worldInfo, @Nonnull Random random, int chunkX, int chunkZ, @Nonnull LimitedRegion region) {
-        DecorationSettings deco = profile.decorationSettings();
-        int startX = region.getCenterChunkX() << 4;
-        int startZ = region.getCenterChunkZ() << 4;
-        int minY = worldInfo.getMinHeight();
-        int maxY = worldInfo.getMaxHeight() - 1;
-
-        int attempts = Math.max(4, deco.baseTreesPerChunk());
-        for (int i = 0; i < attempts; i++) {
-            int x = startX + random.nextInt(16);
-            int z = startZ + random.nextInt(16);
-            int y = findSurfaceY(region, x, z, minY, maxY);
-            if (y <= minY) {
-                continue;
-            }
+        LimitedRegionAccess access = ChunkGenContext.get().regionAccess.wrap(region);
+        try {
+            decorate(worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight(), access);
+        } finally {
+            access.wrap(null);
+        }
+    }
 
-            Biome biome = biomeProvider.getBiome(worldInfo, x, y, z);
-            if (!canGrowAtBiome(biome)) {
+    // Draws from per-chunk counter streams rather than the server's Random: every tree attempt
+    // has its own stream, so the same seed decorates a chunk the same way on any thread.
+    public void decorate(long seed, int minY, int maxHeight, RegionAccess region) {
+        ProfileSnapshot snapshot = binding.current();
+        DecorationSettings deco = snapshot.profile().decorationSettings();
+        // Fewer attempts on cheaper tiers, each one likelier to grow, for about the same density.
+        double attemptScale = snapshot.profile().quality().floraAttempts();
+        int startX = region.centerChunkX() << 4;
+        int startZ = region.centerChunkZ() << 4;
+        int maxY = maxHeight - 1;
+        int chunkX = region.centerChunkX();
+        int chunkZ = region.centerChunkZ();
+        ChunkRandom random = ChunkGenContext.get().random;
+
+        // Tree candidates sit on a jittered grid, one per cell, so trees keep some spacing
+        // instead of clumping. Biome and acceptance are decided from the column alone; the
+        // region is only scanned for a surface once a candidate is accepted.
+        int attempts = Math.max(4, (int) Math.round(deco.baseTreesPerChunk() * attemptScale));
+        int cellsPerSide = (int) Math.ceil(Math.sqrt(attempts));
+        double cellSize = 16.0d / cellsPerSide;
+        // Spreads the attempt count over the whole grid at the same expected density.
+        double coverage = attempts / (double) (cellsPerSide * cellsPerSide);
+        // The acceptance roll comes first: cells no biome could accept skip the biome lookup.
+        DecorationTable table = decorationTable(deco);
+        double bestAcceptance = treeAcceptance(table.maxMultiplier(), attemptScale) * coverage;
+        for (int cell = 0; cell < cellsPerSide * cellsPerSide; cell++) {
+            random.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.TREES, cell);
+            double roll = random.nextDouble();
+            if (roll > bestAcceptance) {
                 continue;
             }
+            int x = startX + jitter(cell % cellsPerSide, cellSize, random);
+            int z = startZ + jitter(cell / cellsPerSide, cellSize, random);
 
-            double biomeMultiplier = biomeTreeMultiplier(biome, deco);
-            if (random.nextDouble() > Math.min(0.97d, 0.48d * biomeMultiplier)) {
+            DecorationTable.Entry entry = table.entry(biomeProvider.getBiome(seed, snapshot, x, z));
+            if (entry == null || roll > treeAcceptance(entry.multiplier(), attemptScale) * coverage) {
                 continue;
             }
-
-            if (isClearingBiome(biome) && random.nextDouble() < 0.75d) {
-                if (random.nextDouble() < deco.bushChance()) {
-                    placeBush(region, random, x, y + 1, z);
-                }
+            DecorationRule rule = entry.pick(random.nextDouble());
+            if (rule == null) {
                 continue;
             }
-
-            if (shouldSpawnDeadTree(random, biome, deco)) {
-                placeDeadTree(region, random, x, y + 1, z);
-            } else if (deco.enableCustomPines() && isPineBiome(biome)) {
-                placePine(region, random, x, y + 1, z, deco.pineMinHeight(), deco.pineMaxHeight());
-            } else {
-                placeRoundTree(region, random, x, y + 1, z, biome);
+            int y = findSurfaceY(region, x, z, minY, maxY);
+            if (y > minY) {
+                placeFeature(region, random, rule, x, y, z);
             }
         }
 
         // Extra pass for fallen logs and undergrowth.
+        random.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.FALLEN_LOGS, 0);
         if (random.nextDouble() < deco.fallenLogChance()) {
             int count = 1 + random.nextInt(3);
             for (int i = 0; i < count; i++) {
@@ -82,6 +97,7 @@ public final class DrakesFloraPopulator extends BlockPopulator {
             }
         }
 
+        random.reset(seed, chunkX, chunkZ, ChunkRandom.Stage.UNDERGROWTH, 0);
         if (random.nextDouble() < deco.bushChance()) {
             int bushCount = 3 + random.nextInt(7);
             for (int i = 0; i < bushCount; i++) {
@@ -89,51 +105,73 @@ public final class DrakesFloraPopulator extends BlockPopulator {
                 int z = startZ + random.nextInt(16);
                 int y = findSurfaceY(region, x, z, minY, maxY);
                 if (y > minY) {
-                    placeBush(region, random, x, y + 1, z);
+                    placeBush(region, random, null, x, y + 1, z);
                 }
             }
         }
     }
 
-    private int findSurfaceY(LimitedRegion region, int x, int z, int minY, int maxY) {
+    // Local block coordinate inside the cell, kept off its edges so neighbouring cells'
+    // candidates are never adjacent.
+    private static int jitter(int cell, double cellSize, ChunkRandom random) {
+        double offset = 0.15d + random.nextDouble() * 0.7d;
+        return Math.min(15, (int) ((cell + offset) * cellSize));
+    }
+
+    private int findSurfaceY(RegionAccess region, int x, int z, int minY, int maxY) {
         int safeTop = Math.max(minY + 2, maxY - 1);
+        Material above = safeGetType(region, x, safeTop + 1, z);
         for (int y = safeTop; y > minY + 1; y--) {
             Material floor = safeGetType(region, x, y, z);
-            Material above = safeGetType(region, x, y + 1, z);
             if (isGround(floor) && above.isAir()) {
                 return y;
             }
+            above = floor;
         }
         return minY;
     }
 
-    private void placePine(LimitedRegion region, Random random, int baseX, int baseY, int baseZ, int minHeight, int maxHeight) {
-        int height = minHeight + random.nextInt(Math.max(1, (maxHeight - minHeight) + 1));
+    // surfaceY is the ground block; features start on top of it.
+    private void placeFeature(RegionAccess region, ChunkRandom random, DecorationRule rule, int x, int surfaceY, int z) {
+        switch (rule.feature()) {
+            case PINE -> placePine(region, random, rule, x, surfaceY + 1, z);
+            case ROUND_TREE -> placeRoundTree(region, random, rule, x, surfaceY + 1, z);
+            case DEAD_TREE -> placeDeadTree(region, random, rule, x, surfaceY + 1, z);
+            case BUSH -> placeBush(region, random, rule.leaves(), x, surfaceY + 1, z);
+            case GROUND_PATCH -> patchGround(region, random, x, surfaceY, z, rule.ground(), rule.groundRadius());
+        }
+        if (rule.feature() != FloraFeature.GROUND_PATCH && rule.groundChance() > 0.0d
+                && random.nextDouble() < rule.groundChance()) {
+            patchGround(region, random, x, surfaceY, z, rule.ground(), rule.groundRadius());
+        }
+    }
+
+    private static int height(ChunkRandom random, DecorationRule rule) {
+        return rule.minHeight() + random.nextInt(rule.maxHeight() - rule.minHeight() + 1);
+    }
+
+    private void placePine(RegionAccess region, ChunkRandom random, DecorationRule rule, int baseX, int baseY, int baseZ) {
+        int height = height(random, rule);
         int topY = baseY + height;
 
         for (int y = baseY; y <= topY; y++) {
-            setIfReplaceable(region, baseX, y, baseZ, Material.SPRUCE_LOG);
+            setIfReplaceable(region, baseX, y, baseZ, rule.log());
         }
 
         int crownStart = topY - Math.max(4, height / 3);
         for (int y = crownStart; y <= topY; y++) {
             int distanceFromTop = topY - y;
             int radius = Math.max(1, 3 - (distanceFromTop / 2));
-            fillLeavesRing(region, baseX, y, baseZ, radius, Material.SPRUCE_LEAVES, random);
-        }
-
-        if (random.nextDouble() < 0.7d) {
-            patchGround(region, random, baseX, baseY - 1, baseZ, Material.PODZOL, 2);
+            fillLeavesRing(region, baseX, y, baseZ, radius, rule.leaves(), random);
         }
     }
 
-    private void placeRoundTree(LimitedRegion region, Random random, int baseX, int baseY, int baseZ, Biome biome) {
-        int trunk = 4 + random.nextInt(3);
-        Material log = isPineBiome(biome) ? Material.SPRUCE_LOG : Material.OAK_LOG;
-        Material leaves = selectLeavesMaterial(biome);
+    private void placeRoundTree(RegionAccess region, ChunkRandom random, DecorationRule rule, int baseX, int baseY, int baseZ) {
+        int trunk = height(random, rule);
+        Material leaves = rule.leaves();
 
         for (int y = 0; y < trunk; y++) {
-            setIfReplaceable(region, baseX, baseY + y, baseZ, log);
+            setIfReplaceable(region, baseX, baseY + y, baseZ, rule.log());
         }
 
         int topY = baseY + trunk;
@@ -143,22 +181,22 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         setIfReplaceable(region, baseX, topY + 3, baseZ, leaves);
     }
 
-    private void placeDeadTree(LimitedRegion region, Random random, int baseX, int baseY, int baseZ) {
-        int height = 4 + random.nextInt(4);
+    private void placeDeadTree(RegionAccess region, ChunkRandom random, DecorationRule rule, int baseX, int baseY, int baseZ) {
+        int height = height(random, rule);
         for (int y = 0; y < height; y++) {
-            setIfReplaceable(region, baseX, baseY + y, baseZ, Material.DARK_OAK_LOG);
+            setIfReplaceable(region, baseX, baseY + y, baseZ, rule.log());
         }
 
         if (height > 4) {
             if (random.nextBoolean()) {
-                setIfReplaceable(region, baseX + 1, baseY + height - 2, baseZ, Material.DARK_OAK_LOG);
+                setIfReplaceable(region, baseX + 1, baseY + height - 2, baseZ, rule.log());
             } else {
-                setIfReplaceable(region, baseX, baseY + height - 2, baseZ + 1, Material.DARK_OAK_LOG);
+                setIfReplaceable(region, baseX, baseY + height - 2, baseZ + 1, rule.log());
             }
         }
     }
 
-    private void placeFallenLog(LimitedRegion region, Random random, int x, int y, int z) {
+    private void placeFallenLog(RegionAccess region, ChunkRandom random, int x, int y, int z) {
         Material log = random.nextBoolean() ? Material.SPRUCE_LOG : Material.OAK_LOG;
         Axis axis = random.nextBoolean() ? Axis.X : Axis.Z;
         int length = 2 + random.nextInt(4);
@@ -172,8 +210,10 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         }
     }
 
-    private void placeBush(LimitedRegion region, Random random, int x, int y, int z) {
-        Material leaves = random.nextBoolean() ? Material.SPRUCE_LEAVES : Material.OAK_LEAVES;
+    // Null leaves pick spruce or oak per bush.
+    private void placeBush(RegionAccess region, ChunkRandom random, @Nullable Material configuredLeaves, int x, int y, int z) {
+        Material leaves = configuredLeaves != null ? configuredLeaves
+                : random.nextBoolean() ? Material.SPRUCE_LEAVES : Material.OAK_LEAVES;
         setIfReplaceable(region, x, y, z, leaves);
         if (random.nextBoolean()) {
             setIfReplaceable(region, x + 1, y, z, leaves);
@@ -189,7 +229,7 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         }
     }
 
-    private void fillLeavesRing(LimitedRegion region, int centerX, int y, int centerZ, int radius, Material leaves, Random random) {
+    private void fillLeavesRing(RegionAccess region, int centerX, int y, int centerZ, int radius, Material leaves, ChunkRandom random) {
         for (int x = centerX - radius; x <= centerX + radius; x++) {
             for (int z = centerZ - radius; z <= centerZ + radius; z++) {
                 int dx = x - centerX;
@@ -204,7 +244,7 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         }
     }
 
-    private void patchGround(LimitedRegion region, Random random, int centerX, int y, int centerZ, Material material, int radius) {
+    private void patchGround(RegionAccess region, ChunkRandom random, int centerX, int y, int centerZ, Material material, int radius) {
         for (int x = centerX - radius; x <= centerX + radius; x++) {
             for (int z = centerZ - radius; z <= centerZ + radius; z++) {
                 int dx = x - centerX;
@@ -219,49 +259,36 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         }
     }
 
-    private void setIfReplaceable(LimitedRegion region, int x, int y, int z, Material material) {
+    private void setIfReplaceable(RegionAccess region, int x, int y, int z, Material material) {
         Material current = safeGetType(region, x, y, z);
         if (current.isAir() || current == Material.SHORT_GRASS || current == Material.TALL_GRASS || current == Material.FERN) {
             safeSetType(region, x, y, z, material);
         }
     }
 
-    private void setAxisLog(LimitedRegion region, int x, int y, int z, Material logType, Axis axis) {
-        BlockData blockData = Bukkit.createBlockData(logType);
-        if (blockData instanceof Orientable orientable) {
-            orientable.setAxis(axis);
+    private void setAxisLog(RegionAccess region, int x, int y, int z, Material logType, Axis axis) {
+        if (!isWithinRegion(region, x, y, z)) {
+            return;
         }
-        safeSetBlockData(region, x, y, z, blockData);
+        region.setLog(x, y, z, logType, axis);
     }
 
-    private Material safeGetType(LimitedRegion region, int x, int y, int z) {
+    private Material safeGetType(RegionAccess region, int x, int y, int z) {
         if (!isWithinRegion(region, x, y, z)) {
             return Material.AIR;
         }
         return region.getType(x, y, z);
     }
 
-    private void safeSetType(LimitedRegion region, int x, int y, int z, Material material) {
+    private void safeSetType(RegionAccess region, int x, int y, int z, Material material) {
         if (!isWithinRegion(region, x, y, z)) {
             return;
         }
         region.setType(x, y, z, material);
     }
 
-    private void safeSetBlockData(LimitedRegion region, int x, int y, int z, BlockData data) {
-        if (!isWithinRegion(region, x, y, z)) {
-            return;
-        }
-        region.setBlockData(x, y, z, data);
-    }
-
-    private boolean isWithinRegion(LimitedRegion region, int x, int y, int z) {
-        try {
-            region.getType(x, y, z);
-            return true;
-        } catch (IllegalArgumentException ignored) {
-            return false;
-        }
+    private boolean isWithinRegion(RegionAccess region, int x, int y, int z) {
+        return region.isInRegion(x, y, z);
     }
 
     private static boolean isGround(Material material) {
@@ -272,59 +299,17 @@ public final class DrakesFloraPopulator extends BlockPopulator {
         };
     }
 
-    private static boolean canGrowAtBiome(Biome biome) {
-        if (biome == Biome.JAGGED_PEAKS || biome == Biome.STONY_PEAKS) {
-            return false;
-        }
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("FOREST")
-                || name.contains("TAIGA")
-                || name.contains("SWAMP")
-                || name.contains("GROVE")
-                || name.contains("PLAINS")
-                || name.contains("MEADOW")
-                || biome == Biome.CHERRY_GROVE
-                || biome == Biome.WOODED_BADLANDS;
-    }
-
-    private static boolean isPineBiome(Biome biome) {
-        String name = biome.name().toUpperCase(Locale.ROOT);
-        return name.contains("TAIGA") || biome == Biome.GROVE;
-    }
-
-    private static boolean isClearingBiome(Biome biome) {
-        return biome == Biome.MEADOW || biome == Biome.PLAINS;
-    }
-
-    private static Material selectLeavesMaterial(Biome biome) {
-        return switch (biome) {
-            case CHERRY_GROVE -> Material.CHERRY_LEAVES;
-            case MANGROVE_SWAMP -> Material.MANGROVE_LEAVES;
-            default -> isPineBiome(biome) ? Material.SPRUCE_LEAVES : Material.OAK_LEAVES;
-        };
-    }
-
-    private static boolean shouldSpawnDeadTree(Random random, Biome biome, DecorationSettings settings) {
-        double chance = settings.deadTreeChance();
-        if (biome == Biome.SWAMP || biome == Biome.MANGROVE_SWAMP || biome == Biome.WOODED_BADLANDS) {
-            chance += 0.04d;
+    // Recompiled when a reload swaps in different settings; racing threads build equal tables.
+    private DecorationTable decorationTable(DecorationSettings settings) {
+        DecorationTable current = decorationTable;
+        if (current == null || current.settings() != settings) {
+            current = DecorationTable.compile(settings);
+            this.decorationTable = current;
         }
-        return random.nextDouble() < chance;
+        return current;
     }
 
-    private static double biomeTreeMultiplier(Biome biome, DecorationSettings settings) {
-        if (isPineBiome(biome)) {
-            return settings.taigaTreeMultiplier();
-        }
-        if (biome == Biome.FOREST || biome == Biome.DARK_FOREST || biome == Biome.CHERRY_GROVE) {
-            return settings.forestTreeMultiplier();
-        }
-        if (biome == Biome.SWAMP || biome == Biome.MANGROVE_SWAMP) {
-            return settings.swampTreeMultiplier();
-        }
-        if (isClearingBiome(biome)) {
-            return 0.35d;
-        }
-        return 1.0d;
+    private static double treeAcceptance(double biomeMultiplier, double attemptScale) {
+        return Math.min(0.97d, 0.48d * biomeMultiplier / attemptScale);
     }
 }
@@ -0,0 +1,76 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.Axis;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
+import org.bukkit.generator.LimitedRegion;
+
+// Reusable adapter; each worldgen thread keeps one in its ChunkGenContext.
+final class LimitedRegionAccess implements RegionAccess {
+
+    private LimitedRegion region;
+
+    LimitedRegionAccess wrap(LimitedRegion region) {
+        this.region = region;
+        return this;
+    }
+
+    @Override
+    public int centerChunkX() {
+        return region.getCenterChunkX();
+    }
+
+    @Override
+    public int centerChunkZ() {
+        return region.getCenterChunkZ();
+    }
+
+    @Override
+    public boolean isInRegion(int x, int y, int z) {
+        return region.isInRegion(x, y, z);
+    }
+
+    @Override
+    public Material getType(int x, int y, int z) {
+        return region.getType(x, y, z);
+    }
+
+    @Override
+    public void setType(int x, int y, int z, Material material) {
+        region.setType(x, y, z, material);
+    }
+
+    @Override
+    public void setLog(int x, int y, int z, Material log, Axis axis) {
+        region.setBlockData(x, y, z, LogData.of(log, axis));
+    }
+
+    // Fallen logs only use two log types on two axes; build their block data once.
+    private static final class LogData {
+
+        private static final BlockData SPRUCE_X = create(Material.SPRUCE_LOG, Axis.X);
+        private static final BlockData SPRUCE_Z = create(Material.SPRUCE_LOG, Axis.Z);
+        private static final BlockData OAK_X = create(Material.OAK_LOG, Axis.X);
+        private static final BlockData OAK_Z = create(Material.OAK_LOG, Axis.Z);
+
+        private static BlockData of(Material logType, Axis axis) {
+            if (logType == Material.SPRUCE_LOG && axis != Axis.Y) {
+                return axis == Axis.X ? SPRUCE_X : SPRUCE_Z;
+            }
+            if (logType == Material.OAK_LOG && axis != Axis.Y) {
+                return axis == Axis.X ? OAK_X : OAK_Z;
+            }
+            return create(logType, axis);
+        }
+
+        private static BlockData create(Material logType, Axis axis) {
+            BlockData blockData = Bukkit.createBlockData(logType);
+            if (blockData instanceof Orientable orientable) {
+                orientable.setAxis(axis);
+            }
+            return blockData;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package me.jackstar.drakesworlds.generation;
+
+// Everything generateNoise needs besides block placement, computed ahead of the request.
+record PrecomputedChunk(long fingerprint, TerrainField field, CaveMask caveMask) {
+}
@@ -0,0 +1,65 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ProfileBinding {
+
+    private final String profileId;
+    private final boolean hotSwap;
+    private final Map<Long, Set<Long>> regionsByVersion = new ConcurrentHashMap<>();
+
+    private volatile ProfileSnapshot current;
+
+    public ProfileBinding(ProfileSnapshot initial, boolean hotSwap) {
+        this.profileId = initial.profile().id();
+        this.hotSwap = hotSwap;
+        this.current = initial;
+    }
+
+    public ProfileSnapshot current() {
+        return current;
+    }
+
+    public String profileId() {
+        return profileId;
+    }
+
+    public boolean isHotSwap() {
+        return hotSwap;
+    }
+
+    public boolean publish(ProfileSnapshot next) {
+        if (!hotSwap || !profileId.equals(next.profile().id()) || next.version() <= current.version()) {
+            return false;
+        }
+        this.current = next;
+        return true;
+    }
+
+    void recordChunk(ProfileSnapshot snapshot, int chunkX, int chunkZ) {
+        long regionKey = regionKey(chunkX >> 5, chunkZ >> 5);
+        regionsByVersion.computeIfAbsent(snapshot.version(), ignored -> ConcurrentHashMap.newKeySet()).add(regionKey);
+    }
+
+    public Map<Long, Set<Long>> regionHistory() {
+        Map<Long, Set<Long>> copy = new ConcurrentHashMap<>();
+        regionsByVersion.forEach((version, regions) -> copy.put(version, Set.copyOf(regions)));
+        return copy;
+    }
+
+    public static long regionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+
+    public static int regionX(long regionKey) {
+        return (int) (regionKey >> 32);
+    }
+
+    public static int regionZ(long regionKey) {
+        return (int) regionKey;
+    }
+}
@@ -0,0 +1,98 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.noise.SharedNoise;
+
+// Raw terrain height before smoothing, from a profile's planned noise layers and weights.
+record RawHeights(
+        SharedNoise continental,
+        SharedNoise mountain,
+        SharedNoise ridges,
+        SharedNoise valleys,
+        SharedNoise detail,
+        double baseHeight,
+        double hillWeight,
+        double mountainWeight,
+        double ridgeWeight,
+        double valleyWeight,
+        double detailWeight,
+        int step
+) {
+
+    private static final int ROW = ChunkGenContext.RAW_SIZE;
+
+    static RawHeights of(WorldProfile profile, SharedNoise continental, SharedNoise mountain, SharedNoise ridges,
+                         SharedNoise valleys, SharedNoise detail) {
+        return new RawHeights(continental, mountain, ridges, valleys, detail,
+                profile.baseHeight(),
+                profile.hillAmplitude(),
+                profile.mountainAmplitude() * 0.58d,
+                profile.mountainAmplitude() * 0.16d,
+                profile.valleyDepth() * 0.48d,
+                profile.detailAmplitude(),
+                profile.quality().heightStep());
+    }
+
+    // Every column's 3x3 kernel reuses this grid instead of resampling its neighbours (9x fewer noise calls).
+    // With a step above one, only a lattice aligned to world coordinates is sampled and the grid is
+    // interpolated from it, so neighbouring chunks agree along their shared edge.
+    void sample(int startX, int startZ, double[] rawHeights) {
+        if (step <= 1) {
+            for (int dx = 0; dx < ROW; dx++) {
+                for (int dz = 0; dz < ROW; dz++) {
+                    rawHeights[dx * ROW + dz] = at(startX + dx - 1, startZ + dz - 1);
+                }
+            }
+            return;
+        }
+
+        int originX = Math.floorDiv(startX - 1, step) * step;
+        int originZ = Math.floorDiv(startZ - 1, step) * step;
+        int points = (startX + ROW - 2 - originX) / step + 2;
+        double[] lattice = ChunkGenContext.get().lattice;
+        for (int i = 0; i < points; i++) {
+            for (int j = 0; j < points; j++) {
+                lattice[i * points + j] = at(originX + i * step, originZ + j * step);
+            }
+        }
+        double inverse = 1.0d / step;
+        for (int dx = 0; dx < ROW; dx++) {
+            int offsetX = startX + dx - 1 - originX;
+            int i = offsetX / step;
+            double fx = (offsetX - i * step) * inverse;
+            for (int dz = 0; dz < ROW; dz++) {
+                int offsetZ = startZ + dz - 1 - originZ;
+                int j = offsetZ / step;
+                double fz = (offsetZ - j * step) * inverse;
+                int corner = i * points + j;
+                double near = lerp(lattice[corner], lattice[corner + 1], fz);
+                double far = lerp(lattice[corner + points], lattice[corner + points + 1], fz);
+                rawHeights[dx * ROW + dz] = lerp(near, far, fx);
+            }
+        }
+    }
+
+    double at(int worldX, int worldZ) {
+        double continental = continental().noise(worldX, worldZ, 0.35d, 0.5d, true);
+        double mountain = Math.max(0.0d, mountain().noise(worldX, worldZ, 0.45d, 0.5d, true));
+        mountain = Math.pow(mountain, 1.6d);
+
+        double ridges = ridges().noise(worldX, worldZ, 0.55d, 0.5d, true);
+        ridges = 1.0d - Math.abs(ridges);
+        ridges = Math.pow(Math.max(0.0d, ridges), 1.75d);
+
+        double valleys = Math.max(0.0d, valleys().noise(worldX, worldZ, 0.30d, 0.5d, true));
+        double detail = detail().noise(worldX, worldZ, 0.35d, 0.5d, true) * 0.35d;
+
+        return baseHeight
+                + (continental * hillWeight)
+                + (mountain * mountainWeight)
+                + (ridges * ridgeWeight)
+                - (valleys * valleyWeight)
+                + (detail * detailWeight);
+    }
+
+    private static double lerp(double from, double to, double factor) {
+        return from + ((to - from) * factor);
+    }
+}
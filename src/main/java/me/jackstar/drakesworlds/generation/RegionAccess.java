@@ -0,0 +1,21 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.Axis;
+import org.bukkit.Material;
+
+// Block access used by the flora populator, backed by a LimitedRegion on the server
+// or by in-memory chunk buffers for offline and diagnostic runs.
+public interface RegionAccess {
+
+    int centerChunkX();
+
+    int centerChunkZ();
+
+    boolean isInRegion(int x, int y, int z);
+
+    Material getType(int x, int y, int z);
+
+    void setType(int x, int y, int z, Material material);
+
+    void setLog(int x, int y, int z, Material log, Axis axis);
+}
@@ -0,0 +1,48 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.block.Biome;
+
+import java.util.Arrays;
+
+// Per-column results for one chunk that depend only on seed and profile: surface height,
+// biome and the vertical span where caves were carved (bottom > top when none).
+public final class TerrainField {
+
+    final int[] surfaceHeights = new int[256];
+    final Biome[] biomes = new Biome[256];
+    final int[] caveBottoms = new int[256];
+    final int[] caveTops = new int[256];
+
+    public int surfaceY(int localX, int localZ) {
+        return surfaceHeights[ChunkGenContext.column(localX, localZ)];
+    }
+
+    public Biome biome(int localX, int localZ) {
+        return biomes[ChunkGenContext.column(localX, localZ)];
+    }
+
+    public int caveBottom(int localX, int localZ) {
+        return caveBottoms[ChunkGenContext.column(localX, localZ)];
+    }
+
+    public int caveTop(int localX, int localZ) {
+        return caveTops[ChunkGenContext.column(localX, localZ)];
+    }
+
+    public boolean hasCave(int localX, int localZ) {
+        int column = ChunkGenContext.column(localX, localZ);
+        return caveBottoms[column] <= caveTops[column];
+    }
+
+    public void copyFrom(TerrainField other) {
+        System.arraycopy(other.surfaceHeights, 0, surfaceHeights, 0, 256);
+        System.arraycopy(other.biomes, 0, biomes, 0, 256);
+        System.arraycopy(other.caveBottoms, 0, caveBottoms, 0, 256);
+        System.arraycopy(other.caveTops, 0, caveTops, 0, 256);
+    }
+
+    void clearCaves() {
+        Arrays.fill(caveBottoms, Integer.MAX_VALUE);
+        Arrays.fill(caveTops, Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,258 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.bukkit.block.Biome;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// On-disk TerrainField cache: one memory-mapped file per region under <fingerprint>/r.X.Z.dwf.
+// Files whose seed or fingerprint header does not match are misses; only one process should write.
+public final class TerrainFieldCache {
+
+    public enum Mode {
+        OFF,
+        READ_ONLY,
+        READ_WRITE
+    }
+
+    private static final int MAGIC = 0x44574643;
+    // 2: biome picks moved to the counter-based ChunkRandom.
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int READY = 1;
+    // State int, then heights, biome ordinals, cave bottoms and cave tops as 256 shorts each.
+    private static final int ENTRY_BYTES = 4 + 4 * 256 * 2;
+    private static final int CHUNKS_PER_REGION = 32 * 32;
+    private static final long FILE_BYTES = HEADER_BYTES + (long) CHUNKS_PER_REGION * ENTRY_BYTES;
+    private static final int MAX_OPEN_REGIONS = 64;
+    private static final long MISSING_RETRY_NANOS = 30_000_000_000L;
+    private static final Biome[] BIOMES = Biome.values();
+
+    private final Path directory;
+    private final Mode mode;
+    private final Logger logger;
+    private final Map<RegionKey, FieldRegion> regions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RegionKey, FieldRegion> eldest) {
+            return size() > MAX_OPEN_REGIONS;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    // Guarded by regions.
+    private boolean closed;
+
+    public TerrainFieldCache(Path directory, Mode mode, Logger logger) {
+        this.directory = directory;
+        this.mode = mode;
+        this.logger = logger;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public Stats stats() {
+        synchronized (regions) {
+            return new Stats(mode, regions.size(), hits.get(), misses.get(), writes.get());
+        }
+    }
+
+    // Drops every mapping once the world unloads; later reads miss and writes are skipped. The OS
+    // unmaps the files when the buffers are collected, since Java has no explicit unmap.
+    public void close() {
+        synchronized (regions) {
+            closed = true;
+            regions.clear();
+        }
+    }
+
+    // Everything a cached field depends on besides chunk position.
+    public static long fingerprint(WorldProfile profile, long seed, int minY, int maxY) {
+        long h = profile.terrainHash();
+        h = mix(h ^ seed);
+        h = mix(h ^ (((long) minY << 32) | (maxY & 0xFFFFFFFFL)));
+        return mix(h ^ FORMAT_VERSION);
+    }
+
+    public boolean read(long seed, long fingerprint, int chunkX, int chunkZ, TerrainField out) {
+        FieldRegion region = region(chunkX >> 5, chunkZ >> 5, seed, fingerprint);
+        if (region == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        MappedByteBuffer buffer = region.buffer();
+        int offset = entryOffset(chunkX, chunkZ);
+        if (buffer.getInt(offset) != READY) {
+            misses.incrementAndGet();
+            return false;
+        }
+        VarHandle.acquireFence();
+        int base = offset + 4;
+        for (int i = 0; i < 256; i++) {
+            out.surfaceHeights[i] = buffer.getShort(base + i * 2);
+            int ordinal = buffer.getShort(base + 512 + i * 2);
+            if (ordinal < 0 || ordinal >= BIOMES.length) {
+                misses.incrementAndGet();
+                return false;
+            }
+            out.biomes[i] = BIOMES[ordinal];
+            out.caveBottoms[i] = buffer.getShort(base + 1024 + i * 2);
+            out.caveTops[i] = buffer.getShort(base + 1536 + i * 2);
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    public void write(long seed, long fingerprint, int chunkX, int chunkZ, TerrainField field) {
+        if (mode != Mode.READ_WRITE) {
+            return;
+        }
+        FieldRegion region = region(chunkX >> 5, chunkZ >> 5, seed, fingerprint);
+        if (region == null) {
+            return;
+        }
+        MappedByteBuffer buffer = region.buffer();
+        int offset = entryOffset(chunkX, chunkZ);
+        int base = offset + 4;
+        for (int i = 0; i < 256; i++) {
+            buffer.putShort(base + i * 2, (short) field.surfaceHeights[i]);
+            buffer.putShort(base + 512 + i * 2, (short) field.biomes[i].ordinal());
+            buffer.putShort(base + 1024 + i * 2, clampToShort(field.caveBottoms[i]));
+            buffer.putShort(base + 1536 + i * 2, clampToShort(field.caveTops[i]));
+        }
+        // Readers check the state last, so they never take a half-written entry as ready.
+        VarHandle.releaseFence();
+        buffer.putInt(offset, READY);
+        writes.incrementAndGet();
+    }
+
+    private FieldRegion region(int regionX, int regionZ, long seed, long fingerprint) {
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        RegionKey key = new RegionKey(seed, fingerprint, regionX, regionZ);
+        synchronized (regions) {
+            if (closed) {
+                return null;
+            }
+            FieldRegion cached = regions.get(key);
+            if (cached != null) {
+                if (cached.buffer() != null) {
+                    return cached;
+                }
+                if (System.nanoTime() - cached.openedAt() < MISSING_RETRY_NANOS) {
+                    return null;
+                }
+            }
+            FieldRegion opened = open(regionX, regionZ, seed, fingerprint);
+            regions.put(key, opened);
+            return opened.buffer() == null ? null : opened;
+        }
+    }
+
+    private FieldRegion open(int regionX, int regionZ, long seed, long fingerprint) {
+        Path folder = directory.resolve(Long.toHexString(fingerprint));
+        Path file = folder.resolve("r." + regionX + "." + regionZ + ".dwf");
+        try {
+            if (mode == Mode.READ_ONLY) {
+                return openReadOnly(file, seed, fingerprint);
+            }
+            Files.createDirectories(folder);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean fresh = channel.size() < FILE_BYTES;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, FILE_BYTES);
+                if (fresh || !headerMatches(buffer, seed, fingerprint)) {
+                    reset(buffer, seed, fingerprint);
+                }
+                return new FieldRegion(buffer, System.nanoTime());
+            }
+        } catch (IOException ex) {
+            if (!(ex instanceof NoSuchFileException)) {
+                logger.log(Level.WARNING, "Terrain field cache unavailable for " + file + ": " + ex.getMessage());
+            }
+            return new FieldRegion(null, System.nanoTime());
+        }
+    }
+
+    // Stale or short file: drops every entry through the live mapping, never resizing the file
+    // under it. The header is invalidated first and stamped last, so a reader that maps the file
+    // midway sees a mismatch instead of old entries under the new header.
+    private static void reset(MappedByteBuffer buffer, long seed, long fingerprint) {
+        buffer.putInt(0, 0);
+        VarHandle.releaseFence();
+        for (int chunk = 0; chunk < CHUNKS_PER_REGION; chunk++) {
+            buffer.putInt(HEADER_BYTES + chunk * ENTRY_BYTES, 0);
+        }
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putLong(8, seed);
+        buffer.putLong(16, fingerprint);
+        VarHandle.releaseFence();
+        buffer.putInt(0, MAGIC);
+    }
+
+    // Missing, short or stale files come back without a buffer and are retried later,
+    // since the writing process may still be filling them.
+    private static FieldRegion openReadOnly(Path file, long seed, long fingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = null;
+            if (channel.size() >= FILE_BYTES) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, FILE_BYTES);
+                if (!headerMatches(buffer, seed, fingerprint)) {
+                    buffer = null;
+                }
+            }
+            return new FieldRegion(buffer, System.nanoTime());
+        }
+    }
+
+    private static boolean headerMatches(MappedByteBuffer buffer, long seed, long fingerprint) {
+        return buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == FORMAT_VERSION
+                && buffer.getLong(8) == seed
+                && buffer.getLong(16) == fingerprint;
+    }
+
+    private static int entryOffset(int chunkX, int chunkZ) {
+        return HEADER_BYTES + (((chunkX & 31) << 5) | (chunkZ & 31)) * ENTRY_BYTES;
+    }
+
+    private static short clampToShort(int value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    // A mapping stays valid after its channel is closed, so regions hold only the buffer
+    // (null when there was nothing usable to map).
+    private record FieldRegion(MappedByteBuffer buffer, long openedAt) {
+    }
+
+    private record RegionKey(long seed, long fingerprint, int regionX, int regionZ) {
+    }
+
+    public record Stats(Mode mode, int openRegions, long hits, long misses, long writes) {
+    }
+}
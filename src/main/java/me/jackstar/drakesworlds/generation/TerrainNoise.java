@@ -0,0 +1,70 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.domain.NoisePrecision;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.noise.OctavePlan;
+import me.jackstar.drakesworlds.generation.noise.SharedNoise;
+
+// The height and clearing layers of a world as one profile evaluates them: cut down to the
+// octaves that still matter for that profile's amplitudes, or complete in exact mode. rawHeights
+// samples the height layers.
+record TerrainNoise(
+        WorldProfile profile,
+        SharedNoise continental,
+        SharedNoise mountain,
+        SharedNoise ridges,
+        SharedNoise valleys,
+        SharedNoise detail,
+        SharedNoise clearing,
+        RawHeights rawHeights
+) {
+
+    private static final double AMPLITUDE = 0.5d;
+    private static final double KERNEL_GAIN = 1.12d;
+
+    static TerrainNoise plan(WorldProfile profile, SharedNoise continental, SharedNoise mountain, SharedNoise ridges,
+                             SharedNoise valleys, SharedNoise detail, SharedNoise clearing) {
+        NoisePrecision precision = profile.noisePrecision();
+        if (precision.exact()) {
+            return new TerrainNoise(profile, continental, mountain, ridges, valleys, detail, clearing,
+                    RawHeights.of(profile, continental, mountain, ridges, valleys, detail));
+        }
+        // Blocks of raw height per unit of each layer, with the slope of the curve applied to it
+        // (pow 1.6 and pow 1.75 on [0, 1]). The smoothing kernel's weights sum to 1.12, which
+        // scales any raw height error by the same factor on the surface.
+        SharedNoise[] layers = {continental, mountain, ridges, valleys, detail};
+        double[] weights = {
+                profile.hillAmplitude(),
+                profile.mountainAmplitude() * 0.58d * 1.6d,
+                profile.mountainAmplitude() * 0.16d * 1.75d,
+                profile.valleyDepth() * 0.48d,
+                profile.detailAmplitude() * 0.35d
+        };
+        int[] counts = OctavePlan.solve(layers, weights, AMPLITUDE, precision.maxHeightError() / KERNEL_GAIN);
+        SharedNoise plannedContinental = continental.truncated(counts[0]);
+        SharedNoise plannedMountain = mountain.truncated(counts[1]);
+        SharedNoise plannedRidges = ridges.truncated(counts[2]);
+        SharedNoise plannedValleys = valleys.truncated(counts[3]);
+        SharedNoise plannedDetail = detail.truncated(counts[4]);
+        return new TerrainNoise(
+                profile,
+                plannedContinental,
+                plannedMountain,
+                plannedRidges,
+                plannedValleys,
+                plannedDetail,
+                clearing.truncated(SharedNoise.octavesWithin(clearing.octaveCount(), AMPLITUDE, precision.maxThresholdError())),
+                RawHeights.of(profile, plannedContinental, plannedMountain, plannedRidges, plannedValleys, plannedDetail)
+        );
+    }
+
+    int evaluatedOctaves() {
+        return continental.evaluatedOctaves() + mountain.evaluatedOctaves() + ridges.evaluatedOctaves()
+                + valleys.evaluatedOctaves() + detail.evaluatedOctaves() + clearing.evaluatedOctaves();
+    }
+
+    int totalOctaves() {
+        return continental.octaveCount() + mountain.octaveCount() + ridges.octaveCount()
+                + valleys.octaveCount() + detail.octaveCount() + clearing.octaveCount();
+    }
+}
@@ -0,0 +1,171 @@
+package me.jackstar.drakesworlds.generation;
+
+import org.bukkit.generator.WorldInfo;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Computes terrain fields and cave masks for chunks that are likely to be requested soon,
+// on its own bounded pool, so generateNoise only has to place blocks when they arrive.
+// Results sit in a size-capped cache; the oldest unclaimed entries are evicted first.
+public final class TerrainPrecompute {
+
+    private final ForkJoinPool pool;
+    private final int maxEntries;
+    private final int maxPending;
+    private final Logger logger;
+    private final Map<Key, Slot> ready = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public TerrainPrecompute(int threads, int maxEntries, Logger logger) {
+        this.pool = new ForkJoinPool(Math.max(1, threads), pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("DrakesWorlds-precompute-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, true);
+        this.maxEntries = Math.max(16, maxEntries);
+        this.maxPending = Math.max(16, maxEntries / 4);
+        this.logger = logger;
+    }
+
+    // False when the chunk is already queued or cached, or the queue is full. With a region folder,
+    // the worker first drops chunks that region files already hold, so callers on the main thread
+    // never have to ask the server whether a chunk was generated.
+    public boolean submit(DrakesChunkGenerator generator, WorldInfo worldInfo, int chunkX, int chunkZ,
+                          @Nullable Path regionFolder) {
+        Key key = new Key(generator, chunkX, chunkZ);
+        if (ready.containsKey(key)) {
+            return false;
+        }
+        if (pending.size() >= maxPending || !pending.add(key)) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        submitted.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                if (regionFolder != null && savedInRegion(regionFolder, chunkX, chunkZ)) {
+                    return;
+                }
+                ready.put(key, new Slot(generator.precompute(worldInfo, chunkX, chunkZ), sequence.incrementAndGet()));
+                if (ready.size() > maxEntries) {
+                    trim();
+                }
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, "Terrain precompute failed for chunk " + chunkX + "," + chunkZ, ex);
+            } finally {
+                pending.remove(key);
+            }
+        });
+        return true;
+    }
+
+    public boolean isQueuedOrReady(DrakesChunkGenerator generator, int chunkX, int chunkZ) {
+        Key key = new Key(generator, chunkX, chunkZ);
+        return ready.containsKey(key) || pending.contains(key);
+    }
+
+    PrecomputedChunk take(DrakesChunkGenerator generator, int chunkX, int chunkZ, long fingerprint) {
+        if (ready.isEmpty()) {
+            return null;
+        }
+        Slot slot = ready.remove(new Key(generator, chunkX, chunkZ));
+        if (slot == null) {
+            return null;
+        }
+        PrecomputedChunk chunk = slot.chunk();
+        if (chunk.fingerprint() != fingerprint) {
+            // The profile was hot-swapped after this entry was computed.
+            stale.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return chunk;
+    }
+
+    public Stats stats() {
+        return new Stats(pool.getParallelism(), pending.size(), ready.size(), submitted.get(), rejected.get(),
+                hits.get(), stale.get(), evicted.get());
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(2L, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        ready.clear();
+    }
+
+    // A non-zero location entry in the .mca header means the server already saved that chunk.
+    // Unreadable files count as not saved; the worst case is one wasted precompute.
+    private boolean savedInRegion(Path regionFolder, int chunkX, int chunkZ) {
+        Path file = regionFolder.resolve("r." + (chunkX >> 5) + "." + (chunkZ >> 5) + ".mca");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer location = ByteBuffer.allocate(4);
+            long offset = 4L * ((chunkX & 31) | ((chunkZ & 31) << 5));
+            while (location.hasRemaining()) {
+                if (channel.read(location, offset + location.position()) < 0) {
+                    return false;
+                }
+            }
+            return location.getInt(0) != 0;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Could not read region header " + file, ex);
+            return false;
+        }
+    }
+
+    // Drops the oldest tenth below the cap in one pass, so the sort is rare.
+    private synchronized void trim() {
+        int excess = ready.size() - (maxEntries - maxEntries / 10);
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<Key, Slot>> entries = new ArrayList<>(ready.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().sequence()));
+        for (int i = 0; i < excess && i < entries.size(); i++) {
+            Map.Entry<Key, Slot> entry = entries.get(i);
+            if (ready.remove(entry.getKey(), entry.getValue())) {
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    private record Key(DrakesChunkGenerator generator, int chunkX, int chunkZ) {
+    }
+
+    private record Slot(PrecomputedChunk chunk, long sequence) {
+    }
+
+    public record Stats(int threads, int pending, int cached, long submitted, long rejected,
+                        long hits, long stale, long evicted) {
+    }
+}
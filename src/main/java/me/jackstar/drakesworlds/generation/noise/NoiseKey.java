@@ -0,0 +1,13 @@
+package me.jackstar.drakesworlds.generation.noise;
+
+public record NoiseKey(
+        long seed,
+        long salt,
+        int octaves,
+        double scale
+) {
+
+    public long tableSeed() {
+        return seed ^ salt;
+    }
+}
@@ -0,0 +1,98 @@
+package me.jackstar.drakesworlds.generation.noise;
+
+import org.bukkit.util.noise.NoiseGenerator;
+import org.bukkit.util.noise.SimplexOctaveGenerator;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide pool of noise instances. Worlds sharing a seed (or layers sharing a salted seed)
+// reuse the same permutation tables; entries are weakly held so unloaded worlds release them.
+public final class NoiseRegistry {
+
+    // SimplexNoiseGenerator: int[512] permutation table plus offsets and object headers.
+    private static final long BYTES_PER_OCTAVE = 2112L;
+
+    private static final NoiseRegistry GLOBAL = new NoiseRegistry();
+
+    private final Map<Long, WeakReference<NoiseGenerator[]>> tables = new ConcurrentHashMap<>();
+    private final Map<NoiseKey, WeakReference<SharedNoise>> instances = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public static NoiseRegistry global() {
+        return GLOBAL;
+    }
+
+    public SharedNoise get(long seed, long salt, int octaves, double scale) {
+        NoiseKey key = new NoiseKey(seed, salt, octaves, scale);
+        WeakReference<SharedNoise> ref = instances.get(key);
+        SharedNoise existing = ref == null ? null : ref.get();
+        if (existing != null) {
+            hits.increment();
+            return existing;
+        }
+        synchronized (this) {
+            ref = instances.get(key);
+            existing = ref == null ? null : ref.get();
+            if (existing != null) {
+                hits.increment();
+                return existing;
+            }
+            misses.increment();
+            expungeStale();
+            SharedNoise created = new SharedNoise(key, table(key.tableSeed(), octaves));
+            instances.put(key, new WeakReference<>(created));
+            return created;
+        }
+    }
+
+    public Stats stats() {
+        int liveInstances = 0;
+        for (WeakReference<SharedNoise> ref : instances.values()) {
+            if (ref.get() != null) {
+                liveInstances++;
+            }
+        }
+        int liveTables = 0;
+        long octaves = 0L;
+        for (WeakReference<NoiseGenerator[]> ref : tables.values()) {
+            NoiseGenerator[] table = ref.get();
+            if (table != null) {
+                liveTables++;
+                octaves += table.length;
+            }
+        }
+        return new Stats(liveInstances, liveTables, octaves, octaves * BYTES_PER_OCTAVE, hits.sum(), misses.sum());
+    }
+
+    // SimplexOctaveGenerator draws its octaves sequentially from one Random, so a table built with
+    // more octaves is a valid prefix for every smaller request on the same seed.
+    private NoiseGenerator[] table(long tableSeed, int octaves) {
+        WeakReference<NoiseGenerator[]> ref = tables.get(tableSeed);
+        NoiseGenerator[] table = ref == null ? null : ref.get();
+        if (table != null && table.length >= octaves) {
+            return table;
+        }
+        table = new SimplexOctaveGenerator(tableSeed, octaves).getOctaves();
+        tables.put(tableSeed, new WeakReference<>(table));
+        return table;
+    }
+
+    private void expungeStale() {
+        instances.values().removeIf(ref -> ref.get() == null);
+        tables.values().removeIf(ref -> ref.get() == null);
+    }
+
+    public record Stats(
+            int instances,
+            int tables,
+            long octaves,
+            long estimatedBytes,
+            long hits,
+            long misses
+    ) {
+    }
+}
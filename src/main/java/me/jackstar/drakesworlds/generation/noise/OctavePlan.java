@@ -0,0 +1,43 @@
+package me.jackstar.drakesworlds.generation.noise;
+
+// Splits one error budget across noise layers that are summed into the same output. Each layer
+// has a weight (output units per unit of normalised noise); the cheapest remaining tail octave
+// of any layer is dropped while the worst-case error of everything dropped fits the budget.
+public final class OctavePlan {
+
+    private OctavePlan() {
+    }
+
+    public static int[] solve(SharedNoise[] layers, double[] weights, double amplitude, double tolerance) {
+        int[] counts = new int[layers.length];
+        for (int i = 0; i < layers.length; i++) {
+            counts[i] = layers[i].octaveCount();
+        }
+        double spent = 0.0d;
+        while (true) {
+            int cheapest = -1;
+            double cheapestCost = Double.MAX_VALUE;
+            for (int i = 0; i < layers.length; i++) {
+                if (counts[i] <= 1) {
+                    continue;
+                }
+                double cost = dropCost(layers[i].octaveCount(), counts[i] - 1, amplitude, weights[i]);
+                if (cost < cheapestCost) {
+                    cheapest = i;
+                    cheapestCost = cost;
+                }
+            }
+            if (cheapest < 0 || spent + cheapestCost > tolerance) {
+                return counts;
+            }
+            spent += cheapestCost;
+            counts[cheapest]--;
+        }
+    }
+
+    // Error added by also skipping octave `index`, on top of the octaves above it.
+    private static double dropCost(int octaveCount, int index, double amplitude, double weight) {
+        return (SharedNoise.tailBound(octaveCount, index, amplitude)
+                - SharedNoise.tailBound(octaveCount, index + 1, amplitude)) * Math.abs(weight);
+    }
+}
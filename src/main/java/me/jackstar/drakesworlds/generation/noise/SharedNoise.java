@@ -0,0 +1,108 @@
+package me.jackstar.drakesworlds.generation.noise;
+
+import org.bukkit.util.noise.NoiseGenerator;
+import org.bukkit.util.noise.SimplexNoiseGenerator;
+
+// SimplexOctaveGenerator#noise over an octave table shared through NoiseRegistry. A truncated
+// view skips the last octaves and differs from the full noise by at most tailBound().
+public final class SharedNoise {
+
+    private final NoiseKey key;
+    private final NoiseGenerator[] octaves;
+    private final double scale;
+    private final int evaluated;
+
+    SharedNoise(NoiseKey key, NoiseGenerator[] octaves) {
+        this(key, octaves, key.octaves());
+    }
+
+    private SharedNoise(NoiseKey key, NoiseGenerator[] octaves, int evaluated) {
+        this.key = key;
+        this.octaves = octaves;
+        this.scale = key.scale();
+        this.evaluated = evaluated;
+    }
+
+    public NoiseKey key() {
+        return key;
+    }
+
+    public int octaveCount() {
+        return key.octaves();
+    }
+
+    public int evaluatedOctaves() {
+        return evaluated;
+    }
+
+    public SharedNoise truncated(int octaveCount) {
+        int clamped = Math.max(1, Math.min(key.octaves(), octaveCount));
+        return clamped == evaluated ? this : new SharedNoise(key, octaves, clamped);
+    }
+
+    // Largest share of the normalised output the octaves from `from` on can contribute,
+    // taking each octave's noise at its extreme.
+    public static double tailBound(int octaveCount, int from, double amplitude) {
+        double total = 0.0d;
+        double tail = 0.0d;
+        double amp = 1.0d;
+        for (int i = 0; i < octaveCount; i++) {
+            total += amp;
+            if (i >= from) {
+                tail += amp;
+            }
+            amp *= amplitude;
+        }
+        return tail / total;
+    }
+
+    // Fewest octaves whose skipped tail stays within tolerance (in normalised units).
+    public static int octavesWithin(int octaveCount, double amplitude, double tolerance) {
+        int needed = octaveCount;
+        while (needed > 1 && tailBound(octaveCount, needed - 1, amplitude) <= tolerance) {
+            needed--;
+        }
+        return needed;
+    }
+
+    public double noise(double x, double z, double frequency, double amplitude, boolean normalized) {
+        double result = 0.0d;
+        double amp = 1.0d;
+        double freq = 1.0d;
+        double max = 0.0d;
+        x *= scale;
+        z *= scale;
+        for (int i = 0; i < evaluated; i++) {
+            result += ((SimplexNoiseGenerator) octaves[i]).noise(x * freq, z * freq, 0.0d, 0.0d) * amp;
+            max += amp;
+            freq *= frequency;
+            amp *= amplitude;
+        }
+        for (int i = evaluated; i < key.octaves(); i++) {
+            max += amp;
+            amp *= amplitude;
+        }
+        return normalized ? result / max : result;
+    }
+
+    public double noise(double x, double y, double z, double frequency, double amplitude, boolean normalized) {
+        double result = 0.0d;
+        double amp = 1.0d;
+        double freq = 1.0d;
+        double max = 0.0d;
+        x *= scale;
+        y *= scale;
+        z *= scale;
+        for (int i = 0; i < evaluated; i++) {
+            result += ((SimplexNoiseGenerator) octaves[i]).noise(x * freq, y * freq, z * freq, 0.0d) * amp;
+            max += amp;
+            freq *= frequency;
+            amp *= amplitude;
+        }
+        for (int i = evaluated; i < key.octaves(); i++) {
+            max += amp;
+            amp *= amplitude;
+        }
+        return normalized ? result / max : result;
+    }
+}
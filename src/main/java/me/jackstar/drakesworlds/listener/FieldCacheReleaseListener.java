@@ -0,0 +1,23 @@
+package me.jackstar.drakesworlds.listener;
+
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+// Unmaps a world's terrain field cache when it unloads, so its folder can be moved or deleted
+// (idle unloads, rotation resets) without region files still mapped into the server.
+public final class FieldCacheReleaseListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        if (event.getWorld().getGenerator() instanceof DrakesChunkGenerator generator) {
+            TerrainFieldCache fieldCache = generator.getFieldCache();
+            if (fieldCache != null) {
+                fieldCache.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package me.jackstar.drakesworlds.listener;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+// Logins arrive on their own threads here, so holding one while a world loads does not stall the server.
+public final class OnDemandWorldListener implements Listener {
+
+    private final DrakesWorldsPlugin plugin;
+
+    public OnDemandWorldListener(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.getWorldLifecycleService().holdLogin(event.getUniqueId(), event.getName());
+        }
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        plugin.getWorldLifecycleService().playerJoined(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        plugin.getWorldLifecycleService().playerQuit(event.getPlayer());
+    }
+}
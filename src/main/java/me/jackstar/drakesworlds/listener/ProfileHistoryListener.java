@@ -0,0 +1,20 @@
+package me.jackstar.drakesworlds.listener;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldSaveEvent;
+
+public final class ProfileHistoryListener implements Listener {
+
+    private final DrakesWorldsPlugin plugin;
+
+    public ProfileHistoryListener(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler
+    public void onWorldSave(WorldSaveEvent event) {
+        plugin.getProfileHistoryService().flushAsync(event.getWorld());
+    }
+}
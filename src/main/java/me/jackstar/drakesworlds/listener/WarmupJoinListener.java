@@ -0,0 +1,40 @@
+package me.jackstar.drakesworlds.listener;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.service.WarmupService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+
+// Logins arrive on their own threads here, so holding one does not stall the server.
+public final class WarmupJoinListener implements Listener {
+
+    private final DrakesWorldsPlugin plugin;
+
+    public WarmupJoinListener(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        WarmupService warmup = plugin.getWarmupService();
+        if (warmup.isDone()) {
+            return;
+        }
+        WorldsConfig.WarmupSettings settings = warmup.getSettings();
+        switch (settings.joinMode()) {
+            case HOLD -> {
+                if (!warmup.await(settings.maxHoldSeconds())) {
+                    plugin.getLogger().warning("Warm-up still running after " + settings.maxHoldSeconds()
+                            + "s, letting " + event.getName() + " in.");
+                }
+            }
+            case KICK -> event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    "The server is warming up its world generator. Please reconnect in a few seconds.");
+            case NONE -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package me.jackstar.drakesworlds.offline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes one r.X.Z.mca from scratch: chunks are appended sector-aligned as they arrive and
+// the location/timestamp header goes in on close. Owned by a single worker thread.
+final class AnvilRegionFile implements Closeable {
+
+    private static final int SECTOR_BYTES = 4096;
+    private static final int HEADER_SECTORS = 2;
+    private static final int MAX_CHUNK_SECTORS = 255;
+    private static final byte ZLIB = 2;
+
+    private final FileChannel channel;
+    private final int[] locations = new int[1024];
+    private final int[] timestamps = new int[1024];
+    private int nextSector = HEADER_SECTORS;
+    private ByteBuffer scratch = ByteBuffer.allocate(16 * SECTOR_BYTES);
+
+    AnvilRegionFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    static String fileName(int regionX, int regionZ) {
+        return "r." + regionX + "." + regionZ + ".mca";
+    }
+
+    void write(int chunkX, int chunkZ, byte[] compressed) throws IOException {
+        int length = compressed.length + 5;
+        int sectors = (length + SECTOR_BYTES - 1) / SECTOR_BYTES;
+        if (sectors > MAX_CHUNK_SECTORS) {
+            throw new IOException("Chunk " + chunkX + "," + chunkZ + " needs " + sectors + " sectors, more than a region entry holds");
+        }
+        if (scratch.capacity() < sectors * SECTOR_BYTES) {
+            scratch = ByteBuffer.allocate(sectors * SECTOR_BYTES);
+        }
+        scratch.clear();
+        scratch.putInt(compressed.length + 1);
+        scratch.put(ZLIB);
+        scratch.put(compressed);
+        // Zero the tail so the padding is not leftover data from an earlier chunk.
+        while (scratch.position() < sectors * SECTOR_BYTES) {
+            scratch.put((byte) 0);
+        }
+        scratch.flip();
+        long offset = (long) nextSector * SECTOR_BYTES;
+        while (scratch.hasRemaining()) {
+            offset += channel.write(scratch, offset);
+        }
+
+        int slot = (chunkX & 31) | ((chunkZ & 31) << 5);
+        locations[slot] = (nextSector << 8) | sectors;
+        timestamps[slot] = (int) (System.currentTimeMillis() / 1000L);
+        nextSector += sectors;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR_BYTES);
+            header.asIntBuffer().put(locations).put(timestamps);
+            long offset = 0L;
+            while (header.hasRemaining()) {
+                offset += channel.write(header, offset);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
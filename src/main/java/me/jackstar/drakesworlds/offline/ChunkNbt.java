@@ -0,0 +1,193 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import org.bukkit.Axis;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Serialises a generated chunk to the compressed NBT the server loads as a finished, unlit chunk.
+// One instance per worker thread.
+final class ChunkNbt {
+
+    // 1.20.6
+    static final int DATA_VERSION = 3839;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Biome[] BIOMES = Biome.values();
+    // Indexed by Axis ordinal: X, Y, Z.
+    private static final String[] AXIS_NAMES = {"x", "y", "z"};
+
+    // Lower-cased enum names are the vanilla block and biome ids for everything generated here.
+    private final String[] blockIds = new String[MATERIALS.length];
+    private final String[] biomeIds = new String[BIOMES.length];
+    private final boolean[] pillars = new boolean[MATERIALS.length];
+    private final boolean[] leaves = new boolean[MATERIALS.length];
+    private final int[] paletteSlot = new int[MATERIALS.length * AXIS_NAMES.length];
+    private final int[] biomeSlot = new int[BIOMES.length];
+    private final int[] palette = new int[4096];
+    private final int[] values = new int[4096];
+    private final long[] packed = new long[4096];
+    private final short[][] postProcessing;
+    private final int[] postProcessingCounts;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+    ChunkNbt(int minY, int maxY) {
+        for (Material material : MATERIALS) {
+            String name = material.name().toLowerCase(Locale.ROOT);
+            blockIds[material.ordinal()] = "minecraft:" + name;
+            pillars[material.ordinal()] = name.endsWith("_log") || name.endsWith("_wood");
+            leaves[material.ordinal()] = name.endsWith("_leaves");
+        }
+        for (Biome biome : BIOMES) {
+            biomeIds[biome.ordinal()] = "minecraft:" + biome.name().toLowerCase(Locale.ROOT);
+        }
+        Arrays.fill(paletteSlot, -1);
+        Arrays.fill(biomeSlot, -1);
+        int sections = (maxY - minY) >> 4;
+        this.postProcessing = new short[sections][4096];
+        this.postProcessingCounts = new int[sections];
+    }
+
+    // biomes holds one biome per 4x4 column, indexed (x >> 2) | ((z >> 2) << 2); the
+    // generators' biomes do not vary with height.
+    byte[] serialize(BlockBuffer blocks, Biome[] biomes, int chunkX, int chunkZ) throws IOException {
+        bytes.reset();
+        deflater.reset();
+        DeflaterOutputStream zlib = new DeflaterOutputStream(bytes, deflater, 8192);
+        NbtOutput nbt = new NbtOutput(zlib);
+        int minSection = blocks.minY() >> 4;
+        int sections = (blocks.maxY() - blocks.minY()) >> 4;
+        Arrays.fill(postProcessingCounts, 0);
+
+        nbt.beginRoot();
+        nbt.putInt("DataVersion", DATA_VERSION);
+        nbt.putInt("xPos", chunkX);
+        nbt.putInt("yPos", minSection);
+        nbt.putInt("zPos", chunkZ);
+        nbt.putString("Status", "minecraft:full");
+        nbt.putLong("LastUpdate", 0L);
+        nbt.putLong("InhabitedTime", 0L);
+        nbt.putByte("isLightOn", 0);
+        nbt.beginList("sections", NbtOutput.COMPOUND, sections);
+        for (int section = 0; section < sections; section++) {
+            nbt.putByte("Y", minSection + section);
+            writeBlockStates(nbt, blocks, section);
+            writeBiomes(nbt, biomes);
+            nbt.endCompound();
+        }
+        nbt.beginList("block_entities", NbtOutput.COMPOUND, 0);
+        nbt.beginList("PostProcessing", NbtOutput.LIST, sections);
+        for (int section = 0; section < sections; section++) {
+            nbt.listHeader(NbtOutput.SHORT, postProcessingCounts[section]);
+            for (int i = 0; i < postProcessingCounts[section]; i++) {
+                nbt.listShort(postProcessing[section][i]);
+            }
+        }
+        nbt.beginCompound("structures");
+        nbt.beginCompound("References");
+        nbt.endCompound();
+        nbt.beginCompound("starts");
+        nbt.endCompound();
+        nbt.endCompound();
+        nbt.endCompound();
+        nbt.flush();
+        zlib.finish();
+        return bytes.toByteArray();
+    }
+
+    private void writeBlockStates(NbtOutput nbt, BlockBuffer blocks, int section) throws IOException {
+        int baseY = blocks.minY() + (section << 4);
+        int paletteSize = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    Material material = blocks.get(x, baseY + y, z);
+                    int axis = pillars[material.ordinal()] ? blocks.axis(x, baseY + y, z).ordinal() : Axis.Y.ordinal();
+                    int key = material.ordinal() * AXIS_NAMES.length + axis;
+                    int slot = paletteSlot[key];
+                    if (slot < 0) {
+                        slot = paletteSize;
+                        paletteSlot[key] = slot;
+                        palette[paletteSize++] = key;
+                    }
+                    int index = (y << 8) | (z << 4) | x;
+                    values[index] = slot;
+                    if (leaves[material.ordinal()]) {
+                        postProcessing[section][postProcessingCounts[section]++] = (short) (x | (y << 4) | (z << 8));
+                    }
+                }
+            }
+        }
+
+        nbt.beginCompound("block_states");
+        nbt.beginList("palette", NbtOutput.COMPOUND, paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            int key = palette[i];
+            int ordinal = key / AXIS_NAMES.length;
+            nbt.putString("Name", blockIds[ordinal]);
+            if (pillars[ordinal]) {
+                nbt.beginCompound("Properties");
+                nbt.putString("axis", AXIS_NAMES[key % AXIS_NAMES.length]);
+                nbt.endCompound();
+            }
+            nbt.endCompound();
+            paletteSlot[key] = -1;
+        }
+        if (paletteSize > 1) {
+            int longs = pack(values, 4096, Math.max(4, bitsFor(paletteSize)));
+            nbt.putLongArray("data", packed, longs);
+        }
+        nbt.endCompound();
+    }
+
+    private void writeBiomes(NbtOutput nbt, Biome[] biomes) throws IOException {
+        int paletteSize = 0;
+        for (int column = 0; column < 16; column++) {
+            int key = biomes[column].ordinal();
+            int slot = biomeSlot[key];
+            if (slot < 0) {
+                slot = paletteSize;
+                biomeSlot[key] = slot;
+                palette[paletteSize++] = key;
+            }
+            for (int y = 0; y < 4; y++) {
+                values[(y << 4) | column] = slot;
+            }
+        }
+
+        nbt.beginCompound("biomes");
+        nbt.beginList("palette", NbtOutput.STRING, paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            nbt.listString(biomeIds[palette[i]]);
+            biomeSlot[palette[i]] = -1;
+        }
+        if (paletteSize > 1) {
+            int longs = pack(values, 64, bitsFor(paletteSize));
+            nbt.putLongArray("data", packed, longs);
+        }
+        nbt.endCompound();
+    }
+
+    // Entries never straddle two longs; the top bits of each long stay unused.
+    private int pack(int[] entries, int count, int bits) {
+        int perLong = 64 / bits;
+        int longs = (count + perLong - 1) / perLong;
+        Arrays.fill(packed, 0, longs, 0L);
+        for (int i = 0; i < count; i++) {
+            packed[i / perLong] |= (long) entries[i] << ((i % perLong) * bits);
+        }
+        return longs;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+}
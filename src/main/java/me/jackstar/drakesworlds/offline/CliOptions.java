@@ -0,0 +1,35 @@
+package me.jackstar.drakesworlds.offline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// --key value pairs for the offline tools; flags take no value and map to "true".
+final class CliOptions {
+
+    private CliOptions() {
+    }
+
+    // Null on anything that is not a --key value pair or a known flag.
+    static Map<String, String> parse(String[] args, Set<String> flags) {
+        Map<String, String> options = new HashMap<>();
+        List<String> rest = new ArrayList<>(List.of(args));
+        while (!rest.isEmpty()) {
+            String key = rest.remove(0);
+            if (!key.startsWith("--")) {
+                return null;
+            }
+            key = key.substring(2);
+            if (flags.contains(key)) {
+                options.put(key, "true");
+            } else if (rest.isEmpty()) {
+                return null;
+            } else {
+                options.put(key, rest.remove(0));
+            }
+        }
+        return options;
+    }
+}
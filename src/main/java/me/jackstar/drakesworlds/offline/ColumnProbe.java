@@ -0,0 +1,50 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.DrakesBiomeProvider;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.ProfileBinding;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
+import org.bukkit.block.Biome;
+
+// Biome and surface height of single columns of a profile and seed, straight from the noise
+// with no chunk built. Safe to share between threads.
+final class ColumnProbe {
+
+    private final WorldProfile profile;
+    private final MemoryWorldInfo worldInfo;
+    private final DrakesBiomeProvider biomeProvider;
+    private final DrakesChunkGenerator generator;
+
+    ColumnProbe(WorldProfile profile, long seed) {
+        this.profile = profile;
+        this.worldInfo = MemoryWorldInfo.overworld("probe-" + profile.id(), seed);
+        this.biomeProvider = new DrakesBiomeProvider(new ProfileBinding(new ProfileSnapshot(0L, profile), false));
+        this.generator = new DrakesChunkGenerator(biomeProvider, null, null);
+    }
+
+    WorldProfile profile() {
+        return profile;
+    }
+
+    long seed() {
+        return worldInfo.getSeed();
+    }
+
+    // Same value the terrain field cache keys its files with.
+    long fingerprint() {
+        return TerrainFieldCache.fingerprint(profile, worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight());
+    }
+
+    Biome biome(int x, int z) {
+        return biomeProvider.getBiome(worldInfo.getSeed(), x, z);
+    }
+
+    // See DrakesChunkGenerator.previewSurfaceY for what coarse gives up.
+    int surfaceY(Biome biome, int x, int z, boolean coarse) {
+        return generator.previewSurfaceY(worldInfo.getSeed(), worldInfo.getMinHeight(), worldInfo.getMaxHeight(),
+                biome, x, z, coarse);
+    }
+}
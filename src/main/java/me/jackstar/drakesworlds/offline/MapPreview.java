@@ -0,0 +1,286 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.bukkit.block.Biome;
+
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Biome and height maps of a profile sampled from noise, one column per pixel, rendered in
+// parallel tiles that are cached on disk.
+public final class MapPreview {
+
+    public static final int TILE_PIXELS = 128;
+    public static final int MAX_PIXELS = 4096;
+    private static final int DEFAULT_PIXELS = 1024;
+    // From this many blocks per pixel, heights skip the 3x3 smoothing kernel.
+    private static final int COARSE_SCALE = 4;
+    private static final Biome[] BIOMES = Biome.values();
+    private static final int[] BIOME_COLORS = biomeColors();
+    // Elevation above sea level and the colour it takes; colours in between are interpolated.
+    private static final int[] ELEVATION_STOPS = {0, 24, 56, 96, 140};
+    private static final int[] ELEVATION_COLORS = {0x5A9A48, 0x9AA85A, 0x8C6E50, 0x9E9E9E, 0xFFFFFF};
+
+    @Nullable
+    private final PreviewTileCache cache;
+
+    public MapPreview(@Nullable Path cacheDirectory, Logger logger) {
+        this.cache = cacheDirectory == null ? null : new PreviewTileCache(cacheDirectory, logger);
+    }
+
+    // Smallest power-of-two scale that keeps the map within 1024 pixels a side.
+    public static int defaultScale(int radius) {
+        int scale = 1;
+        while (pixels(radius, scale) > DEFAULT_PIXELS) {
+            scale <<= 1;
+        }
+        return scale;
+    }
+
+    public static int pixels(int radius, int scale) {
+        return (int) Math.min(Integer.MAX_VALUE, (2L * radius + scale - 1) / scale);
+    }
+
+    // Renders the square of the given block radius around 0,0 at scale blocks per pixel and
+    // writes <profile>-<seed>-r<radius>-s<scale>-biomes.png and -height.png.
+    public Result render(WorldProfile profile, long seed, int radius, int scale, int threads, Path outputDirectory) throws IOException {
+        int size = pixels(radius, scale);
+        if (size < 1 || size > MAX_PIXELS) {
+            throw new IllegalArgumentException("A radius of " + radius + " at scale " + scale + " is " + size
+                    + " pixels a side; use a scale that keeps it between 1 and " + MAX_PIXELS);
+        }
+        long startedAt = System.nanoTime();
+        ColumnProbe probe = new ColumnProbe(profile, seed);
+        long fingerprint = probe.fingerprint();
+
+        // Pixel i of the map is pixel origin + i of the world-aligned pixel grid at this scale.
+        int origin = Math.floorDiv(-radius, scale);
+        short[] biomes = new short[size * size];
+        short[] heights = new short[size * size];
+        int firstTile = Math.floorDiv(origin, TILE_PIXELS);
+        int lastTile = Math.floorDiv(origin + size - 1, TILE_PIXELS);
+        int tileCount = (lastTile - firstTile + 1) * (lastTile - firstTile + 1);
+        int workers = Math.max(1, Math.min(threads, tileCount));
+        AtomicInteger cachedTiles = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-preview-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tiles = new ArrayList<>(tileCount);
+            for (int tileX = firstTile; tileX <= lastTile; tileX++) {
+                for (int tileZ = firstTile; tileZ <= lastTile; tileZ++) {
+                    int x = tileX;
+                    int z = tileZ;
+                    tiles.add(executor.submit(() -> {
+                        short[] tileBiomes = new short[TILE_PIXELS * TILE_PIXELS];
+                        short[] tileHeights = new short[TILE_PIXELS * TILE_PIXELS];
+                        if (cache != null && cache.read(fingerprint, seed, scale, x, z, tileBiomes, tileHeights)) {
+                            cachedTiles.incrementAndGet();
+                        } else {
+                            renderTile(probe, scale, x, z, tileBiomes, tileHeights);
+                            if (cache != null) {
+                                cache.write(fingerprint, seed, scale, x, z, tileBiomes, tileHeights);
+                            }
+                        }
+                        copyTile(tileBiomes, tileHeights, x, z, origin, size, biomes, heights);
+                    }));
+                }
+            }
+            for (Future<?> tile : tiles) {
+                tile.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Preview interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Preview tile failed: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Files.createDirectories(outputDirectory);
+        String name = profile.id() + "-" + seed + "-r" + radius + "-s" + scale;
+        Path biomeImage = outputDirectory.resolve(name + "-biomes.png");
+        Path heightImage = outputDirectory.resolve(name + "-height.png");
+        int[] biomeCounts = new int[BIOMES.length];
+        writeImage(biomeImage, paintBiomes(biomes, heights, size, profile.seaLevel(), biomeCounts));
+        writeImage(heightImage, paintHeights(heights, size, scale, profile.seaLevel()));
+
+        return new Result(profile.id(), seed, radius, scale, size, tileCount, cachedTiles.get(),
+                (System.nanoTime() - startedAt) / 1_000_000L, biomeImage, heightImage, shares(biomeCounts, size * size));
+    }
+
+    private static void renderTile(ColumnProbe probe, int scale, int tileX, int tileZ, short[] biomes, short[] heights) {
+        boolean coarse = scale >= COARSE_SCALE;
+        int half = scale >> 1;
+        for (int pz = 0; pz < TILE_PIXELS; pz++) {
+            int worldZ = (tileZ * TILE_PIXELS + pz) * scale + half;
+            for (int px = 0; px < TILE_PIXELS; px++) {
+                int worldX = (tileX * TILE_PIXELS + px) * scale + half;
+                Biome biome = probe.biome(worldX, worldZ);
+                int index = pz * TILE_PIXELS + px;
+                biomes[index] = (short) biome.ordinal();
+                heights[index] = (short) probe.surfaceY(biome, worldX, worldZ, coarse);
+            }
+        }
+    }
+
+    // Tiles only write their own pixels of the map, so they can copy in concurrently.
+    private static void copyTile(short[] tileBiomes, short[] tileHeights, int tileX, int tileZ, int origin, int size,
+                                 short[] biomes, short[] heights) {
+        int startX = Math.max(0, tileX * TILE_PIXELS - origin);
+        int endX = Math.min(size, (tileX + 1) * TILE_PIXELS - origin);
+        int startZ = Math.max(0, tileZ * TILE_PIXELS - origin);
+        int endZ = Math.min(size, (tileZ + 1) * TILE_PIXELS - origin);
+        for (int z = startZ; z < endZ; z++) {
+            int source = (z + origin - tileZ * TILE_PIXELS) * TILE_PIXELS + (startX + origin - tileX * TILE_PIXELS);
+            System.arraycopy(tileBiomes, source, biomes, z * size + startX, endX - startX);
+            System.arraycopy(tileHeights, source, heights, z * size + startX, endX - startX);
+        }
+    }
+
+    // Biome colours, blended towards blue where the surface lies under the sea.
+    private static BufferedImage paintBiomes(short[] biomes, short[] heights, int size, int seaLevel, int[] counts) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                int index = z * size + x;
+                counts[biomes[index]]++;
+                int color = BIOME_COLORS[biomes[index]];
+                image.setRGB(x, z, heights[index] < seaLevel ? blend(color, 0x3F76E4, 0.55d) : color);
+            }
+        }
+        return image;
+    }
+
+    // Elevation colours shaded by the slope towards the north-west light.
+    private static BufferedImage paintHeights(short[] heights, int size, int scale, int seaLevel) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                int height = heights[z * size + x];
+                if (height < seaLevel) {
+                    double depth = Math.min(1.0d, (seaLevel - height) / 24.0d);
+                    image.setRGB(x, z, blend(0x4682C8, 0x14328C, depth));
+                    continue;
+                }
+                int west = heights[z * size + Math.max(0, x - 1)];
+                int north = heights[Math.max(0, z - 1) * size + x];
+                double slope = ((height - west) + (height - north)) / (double) scale;
+                double shade = 1.0d + Math.max(-0.35d, Math.min(0.35d, slope * 0.25d));
+                image.setRGB(x, z, scaleColor(elevationColor(height - seaLevel), shade));
+            }
+        }
+        return image;
+    }
+
+    private static int elevationColor(int elevation) {
+        if (elevation >= ELEVATION_STOPS[ELEVATION_STOPS.length - 1]) {
+            return ELEVATION_COLORS[ELEVATION_COLORS.length - 1];
+        }
+        int stop = 1;
+        while (elevation >= ELEVATION_STOPS[stop]) {
+            stop++;
+        }
+        double t = (elevation - ELEVATION_STOPS[stop - 1]) / (double) (ELEVATION_STOPS[stop] - ELEVATION_STOPS[stop - 1]);
+        return blend(ELEVATION_COLORS[stop - 1], ELEVATION_COLORS[stop], t);
+    }
+
+    private static void writeImage(Path file, BufferedImage image) throws IOException {
+        if (!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available for " + file);
+        }
+    }
+
+    // Share of the map's pixels per biome, largest first.
+    private static Map<Biome, Double> shares(int[] counts, int total) {
+        Map<Biome, Double> shares = new EnumMap<>(Biome.class);
+        for (Biome biome : BIOMES) {
+            if (counts[biome.ordinal()] > 0) {
+                shares.put(biome, counts[biome.ordinal()] / (double) total);
+            }
+        }
+        Map<Biome, Double> sorted = new LinkedHashMap<>();
+        shares.entrySet().stream()
+                .sorted(Map.Entry.<Biome, Double>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private static int blend(int from, int to, double t) {
+        int r = (int) Math.round(((from >> 16) & 0xFF) + ((((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)) * t));
+        int g = (int) Math.round(((from >> 8) & 0xFF) + ((((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)) * t));
+        int b = (int) Math.round((from & 0xFF) + (((to & 0xFF) - (from & 0xFF)) * t));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int scaleColor(int color, double factor) {
+        int r = (int) Math.min(255.0d, ((color >> 16) & 0xFF) * factor);
+        int g = (int) Math.min(255.0d, ((color >> 8) & 0xFF) * factor);
+        int b = (int) Math.min(255.0d, (color & 0xFF) * factor);
+        return (r << 16) | (g << 8) | b;
+    }
+
+    // Fixed colours for everything the biome provider picks; anything else gets a stable
+    // colour derived from its name.
+    private static int[] biomeColors() {
+        Map<Biome, Integer> colors = new EnumMap<>(Biome.class);
+        colors.put(Biome.PLAINS, 0x8DB360);
+        colors.put(Biome.MEADOW, 0xB5D67A);
+        colors.put(Biome.CHERRY_GROVE, 0xF2A7C8);
+        colors.put(Biome.FOREST, 0x056621);
+        colors.put(Biome.DARK_FOREST, 0x40511A);
+        colors.put(Biome.TAIGA, 0x0B6659);
+        colors.put(Biome.OLD_GROWTH_PINE_TAIGA, 0x596651);
+        colors.put(Biome.SNOWY_TAIGA, 0x31554A);
+        colors.put(Biome.GROVE, 0x7FA39B);
+        colors.put(Biome.SNOWY_SLOPES, 0xD8E3E8);
+        colors.put(Biome.JAGGED_PEAKS, 0xF0F4F8);
+        colors.put(Biome.STONY_PEAKS, 0x9A9A8E);
+        colors.put(Biome.WINDSWEPT_HILLS, 0x607360);
+        colors.put(Biome.SWAMP, 0x4C763C);
+        colors.put(Biome.MANGROVE_SWAMP, 0x2E6B4F);
+        colors.put(Biome.BADLANDS, 0xD94515);
+        colors.put(Biome.WOODED_BADLANDS, 0xB09765);
+        int[] byOrdinal = new int[BIOMES.length];
+        for (Biome biome : BIOMES) {
+            Integer color = colors.get(biome);
+            byOrdinal[biome.ordinal()] = color != null ? color : (biome.name().hashCode() * 0x9E3779B1) & 0xFFFFFF;
+        }
+        return byOrdinal;
+    }
+
+    public record Result(
+            String profileId,
+            long seed,
+            int radius,
+            int scale,
+            int pixels,
+            int tiles,
+            int cachedTiles,
+            long millis,
+            Path biomeImage,
+            Path heightImage,
+            Map<Biome, Double> biomeShares
+    ) {
+    }
+}
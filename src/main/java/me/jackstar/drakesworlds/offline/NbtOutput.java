@@ -0,0 +1,95 @@
+package me.jackstar.drakesworlds.offline;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Streaming writer for the few NBT tag types a chunk needs. Compound and list contents are
+// written in order by the caller; nothing is buffered or validated.
+final class NbtOutput {
+
+    static final int END = 0;
+    static final int BYTE = 1;
+    static final int SHORT = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int STRING = 8;
+    static final int LIST = 9;
+    static final int COMPOUND = 10;
+    static final int LONG_ARRAY = 12;
+
+    private final DataOutputStream out;
+
+    NbtOutput(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    void beginRoot() throws IOException {
+        header(COMPOUND, "");
+    }
+
+    void beginCompound(String name) throws IOException {
+        header(COMPOUND, name);
+    }
+
+    // Also ends each compound element of a list.
+    void endCompound() throws IOException {
+        out.writeByte(END);
+    }
+
+    void beginList(String name, int elementType, int size) throws IOException {
+        header(LIST, name);
+        listHeader(elementType, size);
+    }
+
+    // A list nested directly in another list has no name.
+    void listHeader(int elementType, int size) throws IOException {
+        out.writeByte(size == 0 ? END : elementType);
+        out.writeInt(size);
+    }
+
+    void putByte(String name, int value) throws IOException {
+        header(BYTE, name);
+        out.writeByte(value);
+    }
+
+    void putInt(String name, int value) throws IOException {
+        header(INT, name);
+        out.writeInt(value);
+    }
+
+    void putLong(String name, long value) throws IOException {
+        header(LONG, name);
+        out.writeLong(value);
+    }
+
+    void putString(String name, String value) throws IOException {
+        header(STRING, name);
+        out.writeUTF(value);
+    }
+
+    void putLongArray(String name, long[] values, int length) throws IOException {
+        header(LONG_ARRAY, name);
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeLong(values[i]);
+        }
+    }
+
+    void listString(String value) throws IOException {
+        out.writeUTF(value);
+    }
+
+    void listShort(int value) throws IOException {
+        out.writeShort(value);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private void header(int type, String name) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(name);
+    }
+}
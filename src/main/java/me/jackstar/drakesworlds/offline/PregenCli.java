@@ -0,0 +1,64 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.bukkit.World;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Pregenerates a world's overworld region files without a server; usage in the README.
+public final class PregenCli {
+
+    private static final Logger LOGGER = Logger.getLogger("DrakesWorlds");
+    private static final long PROGRESS_SECONDS = 10L;
+
+    private PregenCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CliOptions.parse(args, Set.of("overwrite"));
+        if (options == null || !options.keySet().containsAll(List.of("config", "world", "seed", "radius"))) {
+            System.err.println("Usage: PregenCli --config <worlds.yml> --world <world folder> --seed <seed> --radius <blocks>"
+                    + " [--profile <id>] [--threads <n>] [--min-y -64] [--max-y 320] [--overwrite]");
+            System.exit(2);
+            return;
+        }
+
+        WorldsConfig config = new WorldsConfig(new File(options.get("config")), LOGGER);
+        config.reload();
+        WorldProfile profile = options.containsKey("profile")
+                ? config.getProfile(options.get("profile")).orElseThrow(() ->
+                        new IllegalArgumentException("Unknown profile '" + options.get("profile") + "'"))
+                : config.getRequiredDefaultProfile();
+        long seed = Long.parseLong(options.get("seed"));
+        int chunkRadius = Math.max(0, Integer.parseInt(options.get("radius")) >> 4);
+        int threads = Math.max(1, Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        boolean overwrite = options.containsKey("overwrite");
+        MemoryWorldInfo worldInfo = new MemoryWorldInfo(options.get("world"), World.Environment.NORMAL, seed,
+                Integer.parseInt(options.getOrDefault("min-y", "-64")), Integer.parseInt(options.getOrDefault("max-y", "320")));
+
+        Path regionDirectory = Path.of(options.get("world"), "region");
+        RegionPregenJob job = new RegionPregenJob(profile, worldInfo, chunkRadius, regionDirectory, overwrite);
+        LOGGER.info(String.format(Locale.ROOT, "Pregenerating %d region(s) of profile %s, seed %d, radius %d chunks, on %d thread(s)%s.",
+                job.totalRegions(), profile.id(), seed, chunkRadius, threads,
+                job.skippedRegions() > 0 ? "; " + job.skippedRegions() + " existing region(s) kept, --overwrite replaces them" : ""));
+
+        RegionPregenJob.Progress done = job.run(threads, PROGRESS_SECONDS, progress ->
+                LOGGER.info(String.format(Locale.ROOT, "%d/%d regions, %d chunks, %.0f chunks/s",
+                        progress.regionsDone(), progress.totalRegions(), progress.chunks(), chunksPerSecond(progress))));
+        LOGGER.info(String.format(Locale.ROOT, "Done: %d chunks in %d region(s) in %.1f s (%.0f chunks/s) under %s",
+                done.chunks(), done.regionsDone(), done.millis() / 1000.0d, chunksPerSecond(done), regionDirectory));
+    }
+
+    private static double chunksPerSecond(RegionPregenJob.Progress progress) {
+        return progress.chunks() * 1000.0d / Math.max(1L, progress.millis());
+    }
+}
@@ -0,0 +1,51 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Renders biome and height PNGs of a profile without a server; usage in the README.
+public final class PreviewCli {
+
+    private static final Logger LOGGER = Logger.getLogger("DrakesWorlds");
+
+    private PreviewCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CliOptions.parse(args, Set.of());
+        if (options == null || !options.keySet().containsAll(List.of("config", "seed", "radius"))) {
+            System.err.println("Usage: PreviewCli --config <worlds.yml> --seed <seed> --radius <blocks> [--profile <id>]"
+                    + " [--scale <blocks per pixel>] [--threads <n>] [--out previews] [--cache preview-cache]");
+            System.exit(2);
+            return;
+        }
+
+        WorldsConfig config = new WorldsConfig(new File(options.get("config")), LOGGER);
+        config.reload();
+        WorldProfile profile = options.containsKey("profile")
+                ? config.getProfile(options.get("profile")).orElseThrow(() ->
+                        new IllegalArgumentException("Unknown profile '" + options.get("profile") + "'"))
+                : config.getRequiredDefaultProfile();
+        long seed = Long.parseLong(options.get("seed"));
+        int radius = Math.max(1, Integer.parseInt(options.get("radius")));
+        int scale = options.containsKey("scale") ? Math.max(1, Integer.parseInt(options.get("scale"))) : MapPreview.defaultScale(radius);
+        int threads = Math.max(1, Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+
+        MapPreview.Result result = new MapPreview(Path.of(options.getOrDefault("cache", "preview-cache")), LOGGER)
+                .render(profile, seed, radius, scale, threads, Path.of(options.getOrDefault("out", "previews")));
+        LOGGER.info(String.format(Locale.ROOT, "%dx%d px (%d blocks/px) in %d ms, %d/%d tiles from cache",
+                result.pixels(), result.pixels(), result.scale(), result.millis(), result.cachedTiles(), result.tiles()));
+        result.biomeShares().forEach((biome, share) ->
+                LOGGER.info(String.format(Locale.ROOT, "  %-24s %5.1f%%", biome.name().toLowerCase(Locale.ROOT), share * 100.0d)));
+        LOGGER.info("Wrote " + result.biomeImage() + " and " + result.heightImage());
+    }
+}
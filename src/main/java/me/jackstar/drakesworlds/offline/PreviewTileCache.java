@@ -0,0 +1,94 @@
+package me.jackstar.drakesworlds.offline;
+
+import org.bukkit.block.Biome;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Rendered preview tiles on disk, one gzip file per tile under <fingerprint>/s<scale>/t.X.Z.bin;
+// files are written to a temporary name and moved into place.
+final class PreviewTileCache {
+
+    private static final int MAGIC = 0x44575054;
+    private static final int FORMAT_VERSION = 1;
+    private static final int BIOME_COUNT = Biome.values().length;
+
+    private final Path directory;
+    private final Logger logger;
+
+    PreviewTileCache(Path directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    boolean read(long fingerprint, long seed, int scale, int tileX, int tileZ, short[] biomes, short[] heights) {
+        Path file = file(fingerprint, scale, tileX, tileZ);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != seed
+                    || in.readLong() != fingerprint || in.readInt() != scale || in.readInt() != BIOME_COUNT
+                    || in.readInt() != biomes.length) {
+                return false;
+            }
+            for (int i = 0; i < biomes.length; i++) {
+                biomes[i] = in.readShort();
+            }
+            for (int i = 0; i < heights.length; i++) {
+                heights[i] = in.readShort();
+            }
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            logger.log(Level.FINE, "Unreadable preview tile " + file + ": " + ex.getMessage());
+            return false;
+        }
+    }
+
+    void write(long fingerprint, long seed, int scale, int tileX, int tileZ, short[] biomes, short[] heights) {
+        Path file = file(fingerprint, scale, tileX, tileZ);
+        Path temporary = file.resolveSibling(file.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream raw = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(raw)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(seed);
+                out.writeLong(fingerprint);
+                out.writeInt(scale);
+                out.writeInt(BIOME_COUNT);
+                out.writeInt(biomes.length);
+                for (short biome : biomes) {
+                    out.writeShort(biome);
+                }
+                for (short height : heights) {
+                    out.writeShort(height);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Could not cache preview tile " + file + ": " + ex.getMessage());
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // Left for the next write of the same tile to replace.
+            }
+        }
+    }
+
+    private Path file(long fingerprint, int scale, int tileX, int tileZ) {
+        return directory.resolve(Long.toHexString(fingerprint)).resolve("s" + scale).resolve("t." + tileX + "." + tileZ + ".bin");
+    }
+}
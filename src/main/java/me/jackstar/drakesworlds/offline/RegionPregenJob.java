@@ -0,0 +1,143 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Writes the region files covering every chunk within chunkRadius of 0,0, one
+// RegionPregenerator per thread taking whole regions until none are left. Used by PregenCli,
+// world templates and the successors of rotating worlds.
+public final class RegionPregenJob {
+
+    public record Progress(int regionsDone, int totalRegions, int chunks, long millis) {
+    }
+
+    private final WorldProfile profile;
+    private final MemoryWorldInfo worldInfo;
+    private final int chunkRadius;
+    private final Path regionDirectory;
+    private final ConcurrentLinkedQueue<int[]> regions = new ConcurrentLinkedQueue<>();
+    private final int totalRegions;
+    private final int skippedRegions;
+    private volatile boolean cancelled;
+    private double maxChunksPerSecond;
+
+    // Region files already in regionDirectory are kept unless overwrite is set.
+    public RegionPregenJob(WorldProfile profile, MemoryWorldInfo worldInfo, int chunkRadius, Path regionDirectory,
+                           boolean overwrite) {
+        this.profile = profile;
+        this.worldInfo = worldInfo;
+        this.chunkRadius = chunkRadius;
+        this.regionDirectory = regionDirectory;
+        int skipped = 0;
+        for (int regionX = Math.floorDiv(-chunkRadius, 32); regionX <= Math.floorDiv(chunkRadius, 32); regionX++) {
+            for (int regionZ = Math.floorDiv(-chunkRadius, 32); regionZ <= Math.floorDiv(chunkRadius, 32); regionZ++) {
+                if (!overwrite && Files.exists(regionDirectory.resolve(AnvilRegionFile.fileName(regionX, regionZ)))) {
+                    skipped++;
+                    continue;
+                }
+                regions.add(new int[]{regionX, regionZ});
+            }
+        }
+        this.totalRegions = regions.size();
+        this.skippedRegions = skipped;
+    }
+
+    public int totalRegions() {
+        return totalRegions;
+    }
+
+    public int skippedRegions() {
+        return skippedRegions;
+    }
+
+    // Average rate cap across all threads, applied between regions; 0 means as fast as possible.
+    public RegionPregenJob limitRate(double chunksPerSecond) {
+        this.maxChunksPerSecond = Math.max(0.0d, chunksPerSecond);
+        return this;
+    }
+
+    // Workers stop after the region they are writing; run then returns what was done. Region
+    // files never started are simply missing and get generated by the server as usual.
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Blocks until every region is written. onProgress is called on the calling thread every
+    // progressSeconds while the job runs.
+    public Progress run(int threads, long progressSeconds, @Nullable Consumer<Progress> onProgress)
+            throws IOException, InterruptedException {
+        Files.createDirectories(regionDirectory);
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicInteger regionsDone = new AtomicInteger();
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-pregen-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                RegionPregenerator worker = new RegionPregenerator(profile, worldInfo);
+                int[] region;
+                while (failure.get() == null && !cancelled && (region = regions.poll()) != null) {
+                    try {
+                        chunks.addAndGet(worker.generate(region[0], region[1], -chunkRadius, chunkRadius, regionDirectory));
+                        regionsDone.incrementAndGet();
+                        pace(chunks.get(), startedAt);
+                    } catch (IOException | RuntimeException ex) {
+                        failure.compareAndSet(null, new IOException("Region " + region[0] + "," + region[1] + " failed", ex));
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(progressSeconds, TimeUnit.SECONDS)) {
+                if (onProgress != null) {
+                    onProgress.accept(new Progress(regionsDone.get(), totalRegions, chunks.get(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return new Progress(regionsDone.get(), totalRegions, chunks.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    // Sleeps while the chunks written so far are ahead of the rate cap, waking up each second
+    // to notice a cancel.
+    private void pace(int chunksWritten, long startedAt) throws InterruptedException {
+        if (maxChunksPerSecond <= 0.0d) {
+            return;
+        }
+        long dueAt = startedAt + (long) (chunksWritten / maxChunksPerSecond * 1_000_000_000.0d);
+        long ahead;
+        while (!cancelled && (ahead = dueAt - System.nanoTime()) > 0L) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(ahead, TimeUnit.SECONDS.toNanos(1L)));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.diagnostics.GenerationHarness;
+import me.jackstar.drakesworlds.diagnostics.MemoryRegion;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import org.bukkit.block.Biome;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Generates whole regions on one thread, running flora over a ring of neighbour chunks so trees
+// reaching in from other regions are present; writes outside the region are dropped.
+final class RegionPregenerator {
+
+    private static final int REGION_CHUNKS = 32;
+    private static final int WINDOW = REGION_CHUNKS + 4;
+    // Flora on row z needs rows z-1..z+1; row z-2 was written before row z+1 is built.
+    private static final int ROWS = 3;
+
+    private final GenerationHarness harness;
+    private final MemoryWorldInfo worldInfo;
+    private final ChunkNbt nbt;
+    private final BlockBuffer[][] rows = new BlockBuffer[ROWS][WINDOW];
+    private final BlockBuffer[] neighbours = new BlockBuffer[9];
+    private final Biome[] biomes = new Biome[16];
+
+    RegionPregenerator(WorldProfile profile, MemoryWorldInfo worldInfo) {
+        this.harness = new GenerationHarness(profile, worldInfo);
+        this.worldInfo = worldInfo;
+        this.nbt = new ChunkNbt(worldInfo.getMinHeight(), worldInfo.getMaxHeight());
+        for (BlockBuffer[] row : rows) {
+            for (int i = 0; i < WINDOW; i++) {
+                row[i] = worldInfo.newChunk();
+            }
+        }
+    }
+
+    // Chunks outside the inclusive square [minChunk, maxChunk] on both axes are left out of
+    // the file. Returns the number of chunks written.
+    int generate(int regionX, int regionZ, int minChunk, int maxChunk, Path regionDirectory) throws IOException {
+        int originX = regionX * REGION_CHUNKS;
+        int originZ = regionZ * REGION_CHUNKS;
+        int windowX = originX - 2;
+        int written = 0;
+        try (AnvilRegionFile file = new AnvilRegionFile(regionDirectory.resolve(AnvilRegionFile.fileName(regionX, regionZ)))) {
+            buildRow(originZ - 2, windowX, minChunk, maxChunk);
+            buildRow(originZ - 1, windowX, minChunk, maxChunk);
+            for (int floraZ = originZ - 1; floraZ <= originZ + REGION_CHUNKS; floraZ++) {
+                buildRow(floraZ + 1, windowX, minChunk, maxChunk);
+                for (int floraX = originX - 1; floraX <= originX + REGION_CHUNKS; floraX++) {
+                    if (inSquare(floraX, floraZ, minChunk, maxChunk)) {
+                        decorate(floraX, floraZ, windowX);
+                    }
+                }
+                // Every neighbour of the row above has decorated it now.
+                int doneZ = floraZ - 1;
+                if (doneZ < originZ) {
+                    continue;
+                }
+                for (int chunkX = originX; chunkX < originX + REGION_CHUNKS; chunkX++) {
+                    if (inSquare(chunkX, doneZ, minChunk, maxChunk)) {
+                        file.write(chunkX, doneZ, serialize(chunkX, doneZ, windowX));
+                        written++;
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    // Only chunks whose neighbourhood touches the square get terrain; the rest stay empty.
+    private void buildRow(int chunkZ, int windowX, int minChunk, int maxChunk) {
+        BlockBuffer[] row = rows[Math.floorMod(chunkZ, ROWS)];
+        for (int i = 0; i < WINDOW; i++) {
+            int chunkX = windowX + i;
+            if (inSquare(chunkX, chunkZ, minChunk - 1, maxChunk + 1)) {
+                harness.noise(chunkX, chunkZ, row[i]);
+            } else {
+                row[i].reset(worldInfo.getMinHeight(), worldInfo.getMaxHeight());
+            }
+        }
+    }
+
+    private void decorate(int chunkX, int chunkZ, int windowX) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                neighbours[MemoryRegion.slot(dx, dz)] = chunk(chunkX + dx, chunkZ + dz, windowX);
+            }
+        }
+        harness.bindRegion(chunkX, chunkZ, neighbours);
+        harness.flora(chunkX, chunkZ);
+    }
+
+    private byte[] serialize(int chunkX, int chunkZ, int windowX) throws IOException {
+        int baseX = chunkX << 4;
+        int baseZ = chunkZ << 4;
+        for (int column = 0; column < 16; column++) {
+            biomes[column] = harness.biome(baseX + ((column & 3) << 2), worldInfo.getMinHeight(), baseZ + ((column >> 2) << 2));
+        }
+        return nbt.serialize(chunk(chunkX, chunkZ, windowX), biomes, chunkX, chunkZ);
+    }
+
+    private BlockBuffer chunk(int chunkX, int chunkZ, int windowX) {
+        return rows[Math.floorMod(chunkZ, ROWS)][chunkX - windowX];
+    }
+
+    private static boolean inSquare(int chunkX, int chunkZ, int min, int max) {
+        return chunkX >= min && chunkX <= max && chunkZ >= min && chunkZ <= max;
+    }
+}
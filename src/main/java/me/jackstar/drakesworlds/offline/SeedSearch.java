@@ -0,0 +1,216 @@
+package me.jackstar.drakesworlds.offline;
+
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.bukkit.block.Biome;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Tries random seeds of a profile in parallel against spawn and area criteria using noise only,
+// keeping the best few found within the time budget.
+public final class SeedSearch {
+
+    // Spawn slope is the height range over this many blocks around spawn, sampled every 2.
+    private static final int SPAWN_REACH = 8;
+    // The area grid has at most this many samples a side.
+    private static final int AREA_SAMPLES = 49;
+
+    // Seeds that fail any criterion are dropped; the rest rank by score.
+    public record Query(
+            Set<Biome> spawnBiomes,
+            double minLand,
+            Set<Biome> requiredBiomes,
+            int maxSlope,
+            int radius,
+            int budgetSeconds
+    ) {
+
+        public static final Query DEFAULT = new Query(Set.of(), 0.0d, Set.of(), Integer.MAX_VALUE, 512, 30);
+
+        // key=value tokens: spawn=<biome,...> land=<percent> biomes=<biome,...> slope=<blocks>
+        // radius=<blocks> time=<seconds>. Throws IllegalArgumentException naming the bad token.
+        public static Query parse(List<String> tokens) {
+            Set<Biome> spawnBiomes = DEFAULT.spawnBiomes;
+            double minLand = DEFAULT.minLand;
+            Set<Biome> requiredBiomes = DEFAULT.requiredBiomes;
+            int maxSlope = DEFAULT.maxSlope;
+            int radius = DEFAULT.radius;
+            int budgetSeconds = DEFAULT.budgetSeconds;
+            for (String token : tokens) {
+                int split = token.indexOf('=');
+                if (split <= 0) {
+                    throw new IllegalArgumentException("Expected key=value, got '" + token + "'");
+                }
+                String key = token.substring(0, split).toLowerCase(Locale.ROOT);
+                String value = token.substring(split + 1);
+                try {
+                    switch (key) {
+                        case "spawn" -> spawnBiomes = biomes(value);
+                        case "land" -> minLand = Math.max(0.0d, Math.min(100.0d, Double.parseDouble(value))) / 100.0d;
+                        case "biomes" -> requiredBiomes = biomes(value);
+                        case "slope" -> maxSlope = Math.max(0, Integer.parseInt(value));
+                        case "radius" -> radius = Math.max(64, Math.min(8192, Integer.parseInt(value)));
+                        case "time" -> budgetSeconds = Math.max(1, Math.min(600, Integer.parseInt(value)));
+                        default -> throw new IllegalArgumentException("Unknown criterion '" + key + "'");
+                    }
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid number in '" + token + "'");
+                }
+            }
+            return new Query(spawnBiomes, minLand, requiredBiomes, maxSlope, radius, budgetSeconds);
+        }
+
+        private static Set<Biome> biomes(String list) {
+            Set<Biome> biomes = EnumSet.noneOf(Biome.class);
+            for (String name : list.split(",")) {
+                try {
+                    biomes.add(Biome.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException("Unknown biome '" + name + "'");
+                }
+            }
+            return Collections.unmodifiableSet(biomes);
+        }
+    }
+
+    // score: land share in percent plus two points per distinct biome, minus the spawn slope.
+    public record Match(long seed, double score, Biome spawnBiome, int spawnY, int spawnSlope, double land, int biomes) {
+    }
+
+    public record Summary(String profileId, int evaluated, int matched, long millis, List<Match> best) {
+    }
+
+    // Runs on the calling thread until the budget is spent. onNewBest is called from the
+    // worker threads whenever a seed enters the top count.
+    public Summary run(WorldProfile profile, int count, Query query, int threads, Consumer<Match> onNewBest) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.SECONDS.toNanos(query.budgetSeconds());
+        List<Match> best = new ArrayList<>();
+        AtomicInteger evaluated = new AtomicInteger();
+        AtomicInteger matched = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-seedsearch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Match match = evaluate(new ColumnProbe(profile, ThreadLocalRandom.current().nextLong()), query, deadline);
+                    evaluated.incrementAndGet();
+                    if (match == null) {
+                        continue;
+                    }
+                    matched.incrementAndGet();
+                    boolean entered;
+                    synchronized (best) {
+                        entered = offer(best, match, count);
+                    }
+                    if (entered) {
+                        onNewBest.accept(match);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(query.budgetSeconds() + 60L, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        List<Match> result;
+        synchronized (best) {
+            result = List.copyOf(best);
+        }
+        return new Summary(profile.id(), evaluated.get(), matched.get(), (System.nanoTime() - startedAt) / 1_000_000L, result);
+    }
+
+    // Cheapest checks first: the spawn column, then its surroundings, then the area grid.
+    private static Match evaluate(ColumnProbe probe, Query query, long deadline) {
+        int seaLevel = probe.profile().seaLevel();
+        Biome spawnBiome = probe.biome(0, 0);
+        if (!query.spawnBiomes().isEmpty() && !query.spawnBiomes().contains(spawnBiome)) {
+            return null;
+        }
+        int spawnY = probe.surfaceY(spawnBiome, 0, 0, false);
+        if (spawnY < seaLevel) {
+            return null;
+        }
+
+        int lowest = spawnY;
+        int highest = spawnY;
+        for (int x = -SPAWN_REACH; x <= SPAWN_REACH; x += 2) {
+            for (int z = -SPAWN_REACH; z <= SPAWN_REACH; z += 2) {
+                int y = probe.surfaceY(probe.biome(x, z), x, z, false);
+                lowest = Math.min(lowest, y);
+                highest = Math.max(highest, y);
+            }
+            if (highest - lowest > query.maxSlope()) {
+                return null;
+            }
+        }
+
+        int side = Math.min(AREA_SAMPLES, query.radius() / 8 + 1);
+        int total = side * side;
+        double step = 2.0d * query.radius() / (side - 1);
+        int landNeeded = (int) Math.ceil(query.minLand() * total);
+        Set<Biome> found = EnumSet.noneOf(Biome.class);
+        int land = 0;
+        int sampled = 0;
+        for (int i = 0; i < side; i++) {
+            if (System.nanoTime() >= deadline) {
+                return null;
+            }
+            int x = (int) Math.round(-query.radius() + i * step);
+            for (int j = 0; j < side; j++) {
+                int z = (int) Math.round(-query.radius() + j * step);
+                Biome biome = probe.biome(x, z);
+                found.add(biome);
+                if (probe.surfaceY(biome, x, z, true) >= seaLevel) {
+                    land++;
+                }
+                sampled++;
+            }
+            if (land + (total - sampled) < landNeeded) {
+                return null;
+            }
+        }
+        if (!found.containsAll(query.requiredBiomes())) {
+            return null;
+        }
+
+        double landShare = land / (double) total;
+        int slope = highest - lowest;
+        double score = landShare * 100.0d + found.size() * 2.0d - slope;
+        return new Match(probe.seed(), score, spawnBiome, spawnY, slope, landShare, found.size());
+    }
+
+    // Keeps best sorted by score, at most count long. True if the match made it in.
+    private static boolean offer(List<Match> best, Match match, int count) {
+        int position = 0;
+        while (position < best.size() && best.get(position).score() >= match.score()) {
+            position++;
+        }
+        if (position >= count) {
+            return false;
+        }
+        best.add(position, match);
+        if (best.size() > count) {
+            best.remove(best.size() - 1);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,221 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Requests chunks ahead of fast-moving players (elytra, boats) before Paper's own loading
+// reaches them. Heading and speed come from the displacement between samples; the cone starts
+// just inside the view distance and reaches further the faster the player moves.
+public final class ChunkPrefetchService {
+
+    // Prefetched chunks not entered within this many ticks count as wasted.
+    private static final long EXPIRY_TICKS = 20L * 30L;
+    private static final int MAX_TRACKED_PER_PLAYER = 512;
+
+    private final DrakesWorldsPlugin plugin;
+    private final Map<UUID, Tracker> trackers = new HashMap<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong entered = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong throttledScans = new AtomicLong();
+    private BukkitTask task;
+    private int intervalTicks;
+    private long tick;
+    private int inFlight;
+
+    public ChunkPrefetchService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        WorldsConfig.PrefetchSettings settings = plugin.getWorldsConfig().getPrefetchSettings();
+        if (!settings.enabled()) {
+            return;
+        }
+        intervalTicks = settings.intervalTicks();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, intervalTicks, intervalTicks);
+        plugin.getLogger().info("Chunk prefetch enabled: min speed " + settings.minSpeed() + " b/t, cone "
+                + settings.coneDegrees() + " deg, in-flight cap " + settings.maxInFlight());
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        trackers.clear();
+    }
+
+    // Called after /drakesworlds reload; other keys are read on every sample.
+    public void refresh() {
+        WorldsConfig.PrefetchSettings settings = plugin.getWorldsConfig().getPrefetchSettings();
+        if (task != null && settings.enabled() && settings.intervalTicks() == intervalTicks) {
+            return;
+        }
+        stop();
+        start();
+    }
+
+    public boolean isEnabled() {
+        return task != null;
+    }
+
+    public Stats stats() {
+        return new Stats(inFlight, requested.get(), completed.get(), entered.get(), expired.get(), throttledScans.get());
+    }
+
+    private void sample() {
+        WorldsConfig.PrefetchSettings settings = plugin.getWorldsConfig().getPrefetchSettings();
+        tick += intervalTicks;
+        double mspt = Bukkit.getAverageTickTime();
+        boolean paused = mspt >= settings.msptHard();
+        // Between the soft and hard limits the global cap shrinks linearly to zero.
+        int globalCap = settings.maxInFlight();
+        if (mspt > settings.msptSoft()) {
+            double headroom = (settings.msptHard() - mspt) / Math.max(1.0d, settings.msptHard() - settings.msptSoft());
+            globalCap = (int) (globalCap * Math.max(0.0d, headroom));
+        }
+        if (paused || globalCap < settings.maxInFlight()) {
+            throttledScans.incrementAndGet();
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            World world = player.getWorld();
+            if (!(world.getGenerator() instanceof DrakesChunkGenerator)) {
+                trackers.remove(player.getUniqueId());
+                continue;
+            }
+            Location location = player.getLocation();
+            Tracker tracker = trackers.computeIfAbsent(player.getUniqueId(), id -> new Tracker());
+            if (!world.getUID().equals(tracker.worldId)) {
+                tracker.reset(world.getUID(), location);
+                continue;
+            }
+
+            int chunkX = location.getBlockX() >> 4;
+            int chunkZ = location.getBlockZ() >> 4;
+            if (tracker.prefetched.remove(chunkKey(chunkX, chunkZ)) != null) {
+                entered.incrementAndGet();
+            }
+            tracker.expire(tick);
+
+            double vx = (location.getX() - tracker.lastX) / intervalTicks;
+            double vz = (location.getZ() - tracker.lastZ) / intervalTicks;
+            tracker.lastX = location.getX();
+            tracker.lastZ = location.getZ();
+            double speed = Math.sqrt(vx * vx + vz * vz);
+            if (paused || speed < settings.minSpeed()) {
+                continue;
+            }
+            requestCone(settings, world, tracker, chunkX, chunkZ, vx / speed, vz / speed, speed, globalCap);
+        }
+        trackers.keySet().removeIf(id -> Bukkit.getPlayer(id) == null);
+    }
+
+    private void requestCone(WorldsConfig.PrefetchSettings settings, World world, Tracker tracker, int originX, int originZ,
+                             double headingX, double headingZ, double speed, int globalCap) {
+        double coneTan = Math.tan(Math.toRadians(settings.coneDegrees()));
+        int start = Math.max(1, world.getViewDistance() - 1);
+        int lookahead = (int) Math.ceil(speed * settings.leadSeconds() * 20.0d / 16.0d);
+        int end = start + Math.min(settings.maxDistance(), Math.max(1, lookahead));
+        for (int distance = start; distance <= end; distance++) {
+            double centerX = originX + headingX * distance;
+            double centerZ = originZ + headingZ * distance;
+            int halfWidth = Math.max(1, (int) Math.ceil((distance - start + 1) * coneTan));
+            for (int side = 0; side <= halfWidth * 2; side++) {
+                // Centre line first, then alternating left and right.
+                int offset = (side + 1) / 2 * ((side & 1) == 0 ? 1 : -1);
+                int chunkX = (int) Math.round(centerX - headingZ * offset);
+                int chunkZ = (int) Math.round(centerZ + headingX * offset);
+                if (tracker.inFlight >= settings.maxInFlightPerPlayer() || inFlight >= globalCap) {
+                    return;
+                }
+                request(world, tracker, chunkX, chunkZ);
+            }
+        }
+    }
+
+    private void request(World world, Tracker tracker, int chunkX, int chunkZ) {
+        long key = chunkKey(chunkX, chunkZ);
+        if (tracker.prefetched.containsKey(key) || world.isChunkLoaded(chunkX, chunkZ)) {
+            return;
+        }
+        tracker.track(key, tick + EXPIRY_TICKS);
+        tracker.inFlight++;
+        inFlight++;
+        requested.incrementAndGet();
+        world.getChunkAtAsync(chunkX, chunkZ, true).whenComplete((chunk, error) ->
+                // Counters are only touched on the main thread.
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    tracker.inFlight--;
+                    inFlight--;
+                    if (error == null) {
+                        completed.incrementAndGet();
+                    }
+                }));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private final class Tracker {
+
+        private final LinkedHashMap<Long, Long> prefetched = new LinkedHashMap<>();
+        private UUID worldId;
+        private double lastX;
+        private double lastZ;
+        private int inFlight;
+
+        void reset(UUID worldId, Location location) {
+            this.worldId = worldId;
+            this.lastX = location.getX();
+            this.lastZ = location.getZ();
+            prefetched.clear();
+        }
+
+        void track(long key, long expiresAt) {
+            prefetched.put(key, expiresAt);
+            if (prefetched.size() > MAX_TRACKED_PER_PLAYER) {
+                Iterator<Long> oldest = prefetched.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                expired.incrementAndGet();
+            }
+        }
+
+        void expire(long now) {
+            Iterator<Map.Entry<Long, Long>> iterator = prefetched.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getValue() > now) {
+                    return;
+                }
+                iterator.remove();
+                expired.incrementAndGet();
+            }
+        }
+    }
+
+    public record Stats(int inFlight, long requested, long completed, long entered, long expired, long throttledScans) {
+
+        // Share of resolved prefetches (entered or expired) that a player actually reached.
+        public double hitRate() {
+            long resolved = entered + expired;
+            return resolved == 0L ? 0.0d : entered / (double) resolved;
+        }
+    }
+}
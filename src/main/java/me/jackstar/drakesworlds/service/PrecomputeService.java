@@ -0,0 +1,136 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainPrecompute;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Feeds TerrainPrecompute with the ungenerated chunks around players in Drakes worlds.
+public final class PrecomputeService {
+
+    // Per player and per scan; the rest of the ring is picked up on the next chunk change.
+    private static final int MAX_SUBMITS_PER_PLAYER = 64;
+
+    private final DrakesWorldsPlugin plugin;
+    private final TerrainPrecompute precompute;
+    private final Map<UUID, Long> lastChunks = new HashMap<>();
+    private BukkitTask task;
+    private int intervalTicks;
+
+    // enabled, threads and max-cached-chunks size the shared pool and only apply here;
+    // player-radius and interval-ticks are read from the live config.
+    public PrecomputeService(DrakesWorldsPlugin plugin, WorldsConfig.PrecomputeSettings settings) {
+        this.plugin = plugin;
+        this.precompute = settings.enabled()
+                ? new TerrainPrecompute(settings.threads(), settings.maxCachedChunks(), plugin.getLogger())
+                : null;
+    }
+
+    public TerrainPrecompute getPrecompute() {
+        return precompute;
+    }
+
+    public void start() {
+        if (precompute == null) {
+            return;
+        }
+        WorldsConfig.PrecomputeSettings settings = plugin.getWorldsConfig().getPrecomputeSettings();
+        schedule(settings.intervalTicks());
+        plugin.getLogger().info("Terrain precompute enabled: " + precompute.stats().threads() + " thread(s), "
+                + settings.maxCachedChunks() + " cached chunks, radius " + settings.playerRadius());
+    }
+
+    // Called after /drakesworlds reload.
+    public void refresh() {
+        if (task == null) {
+            return;
+        }
+        int interval = plugin.getWorldsConfig().getPrecomputeSettings().intervalTicks();
+        if (interval != intervalTicks) {
+            task.cancel();
+            schedule(interval);
+        }
+    }
+
+    private void schedule(int interval) {
+        intervalTicks = interval;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::scanPlayers, interval, interval);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (precompute != null) {
+            precompute.shutdown();
+        }
+    }
+
+    public boolean submit(World world, int chunkX, int chunkZ) {
+        if (precompute == null || !(world.getGenerator() instanceof DrakesChunkGenerator generator)
+                || generator.getPrecompute() != precompute) {
+            return false;
+        }
+        return precompute.submit(generator, world, chunkX, chunkZ, regionFolder(world));
+    }
+
+    private void scanPlayers() {
+        Set<UUID> online = new HashSet<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+            World world = player.getWorld();
+            if (!(world.getGenerator() instanceof DrakesChunkGenerator generator) || generator.getPrecompute() != precompute) {
+                continue;
+            }
+            int chunkX = player.getLocation().getBlockX() >> 4;
+            int chunkZ = player.getLocation().getBlockZ() >> 4;
+            long chunkKey = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+            Long previous = lastChunks.put(player.getUniqueId(), chunkKey);
+            if (previous != null && previous == chunkKey) {
+                continue;
+            }
+            submitRing(world, generator, chunkX, chunkZ);
+        }
+        lastChunks.keySet().retainAll(online);
+    }
+
+    // Nearest rings first, so the chunks a player reaches soonest are queued before the cap.
+    private void submitRing(World world, DrakesChunkGenerator generator, int centerX, int centerZ) {
+        Path regionFolder = regionFolder(world);
+        int submitted = 0;
+        int radius = plugin.getWorldsConfig().getPrecomputeSettings().playerRadius();
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) {
+                        continue;
+                    }
+                    int chunkX = centerX + dx;
+                    int chunkZ = centerZ + dz;
+                    if (precompute.isQueuedOrReady(generator, chunkX, chunkZ) || world.isChunkLoaded(chunkX, chunkZ)) {
+                        continue;
+                    }
+                    if (!precompute.submit(generator, world, chunkX, chunkZ, regionFolder) || ++submitted >= MAX_SUBMITS_PER_PLAYER) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static Path regionFolder(World world) {
+        return world.getWorldFolder().toPath().resolve("region");
+    }
+}
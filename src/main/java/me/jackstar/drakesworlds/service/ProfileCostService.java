@@ -0,0 +1,146 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.GenerationBench;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Generates a small in-memory sample with every new or changed profile and compares its
+// single-thread ms/chunk with the profile's budget and with the last estimate of the same
+// profile id, so an expensive edit to worlds.yml shows up on reload instead of as lag.
+public final class ProfileCostService {
+
+    private final DrakesWorldsPlugin plugin;
+    private final Map<String, Estimate> lastEstimates = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "DrakesWorlds-cost-estimate");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public ProfileCostService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getWorldsConfig().getCostEstimateSettings().enabled();
+    }
+
+    // Baseline for the first reload. Queued behind the warm-up so both don't compete for CPU
+    // and skew the numbers; call after the warm-up service started.
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        WarmupService warmup = plugin.getWarmupService();
+        executor.execute(() -> warmup.await(warmup.getSettings().maxHoldSeconds()));
+        estimate(plugin.getWorldsConfig().getProfiles().values());
+    }
+
+    // Jobs run one after another on a single low-priority thread; the future completes on
+    // the main thread. Results are logged here, callers only relay them to a sender.
+    public CompletableFuture<List<Estimate>> estimate(Collection<WorldProfile> profiles) {
+        CompletableFuture<List<Estimate>> result = new CompletableFuture<>();
+        WorldsConfig.CostEstimateSettings settings = plugin.getWorldsConfig().getCostEstimateSettings();
+        if (!settings.enabled() || profiles.isEmpty()) {
+            result.complete(List.of());
+            return result;
+        }
+        List<WorldProfile> queued = List.copyOf(profiles);
+        executor.execute(() -> {
+            List<Estimate> estimates = new ArrayList<>(queued.size());
+            try {
+                for (WorldProfile profile : queued) {
+                    estimates.add(sample(profile, settings));
+                }
+            } catch (RuntimeException ex) {
+                complete(() -> result.completeExceptionally(ex));
+                return;
+            }
+            complete(() -> {
+                log(estimates);
+                result.complete(estimates);
+            });
+        });
+        return result;
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private Estimate sample(WorldProfile profile, WorldsConfig.CostEstimateSettings settings) {
+        // Same seed every time, so two versions of a profile are measured on the same terrain.
+        GenerationBench.Result bench = new GenerationBench().run(profile, profile.id().hashCode(), settings.chunks(), 1);
+        double msPerChunk = bench.msPerChunk();
+        Estimate previous = lastEstimates.get(profile.id());
+        double previousMs = previous == null ? Double.NaN : previous.msPerChunk();
+        double budgetMs = profile.budget().msPerChunk();
+
+        List<String> warnings = new ArrayList<>();
+        if (budgetMs > 0.0d && msPerChunk > budgetMs) {
+            warnings.add(String.format(Locale.ROOT, "%.2f ms/chunk is over the budget of %.2f ms", msPerChunk, budgetMs));
+        }
+        if (previous != null && msPerChunk > previousMs * (1.0d + settings.regressionPercent() / 100.0d)) {
+            warnings.add(String.format(Locale.ROOT, "%.0f%% slower than the previous version (%.2f ms/chunk)",
+                    (msPerChunk / previousMs - 1.0d) * 100.0d, previousMs));
+        }
+        Estimate estimate = new Estimate(profile.id(), msPerChunk, previousMs, budgetMs,
+                bench.noiseMsPerChunk(), bench.floraMsPerChunk(), List.copyOf(warnings));
+        lastEstimates.put(profile.id(), estimate);
+        return estimate;
+    }
+
+    private void log(List<Estimate> estimates) {
+        for (Estimate estimate : estimates) {
+            String line = "Cost estimate for profile " + estimate.profileId() + ": " + estimate.describe();
+            if (estimate.warnings().isEmpty()) {
+                plugin.getLogger().info(line);
+            } else {
+                plugin.getLogger().warning(line + " - " + String.join("; ", estimate.warnings()));
+            }
+        }
+    }
+
+    private void complete(Runnable action) {
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, action);
+        }
+    }
+
+    public record Estimate(
+            String profileId,
+            double msPerChunk,
+            double previousMsPerChunk,
+            double budgetMs,
+            double noiseMsPerChunk,
+            double floraMsPerChunk,
+            List<String> warnings
+    ) {
+
+        public boolean hasPrevious() {
+            return !Double.isNaN(previousMsPerChunk);
+        }
+
+        public String describe() {
+            String text = String.format(Locale.ROOT, "%.2f ms/chunk (noise %.2f, flora %.2f)",
+                    msPerChunk, noiseMsPerChunk, floraMsPerChunk);
+            if (hasPrevious()) {
+                text += String.format(Locale.ROOT, ", was %.2f", previousMsPerChunk);
+            }
+            return text;
+        }
+    }
+}
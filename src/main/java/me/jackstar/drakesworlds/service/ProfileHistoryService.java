@@ -0,0 +1,79 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.ProfileBinding;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class ProfileHistoryService {
+
+    private static final String FILE_NAME = "drakesworlds-profile-history.yml";
+
+    private final DrakesWorldsPlugin plugin;
+
+    public ProfileHistoryService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void flushAsync(World world) {
+        HistoryEntry entry = capture(world);
+        if (entry != null) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> write(entry));
+        }
+    }
+
+    public void flushAll() {
+        for (World world : Bukkit.getWorlds()) {
+            HistoryEntry entry = capture(world);
+            if (entry != null) {
+                write(entry);
+            }
+        }
+    }
+
+    private HistoryEntry capture(World world) {
+        if (!(world.getGenerator() instanceof DrakesChunkGenerator generator)) {
+            return null;
+        }
+        ProfileBinding binding = generator.getProfileBinding();
+        Map<Long, Set<Long>> history = binding.regionHistory();
+        if (history.isEmpty()) {
+            return null;
+        }
+        return new HistoryEntry(new File(world.getWorldFolder(), FILE_NAME), binding.profileId(), history);
+    }
+
+    // Merges into the existing file so versions from previous sessions are kept.
+    private synchronized void write(HistoryEntry entry) {
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(entry.file());
+        yaml.set("profile", entry.profileId());
+        for (Map.Entry<Long, Set<Long>> version : entry.history().entrySet()) {
+            String path = "versions." + version.getKey() + ".regions";
+            Set<String> regions = new LinkedHashSet<>(yaml.getStringList(path));
+            for (long regionKey : version.getValue()) {
+                regions.add("r." + ProfileBinding.regionX(regionKey) + "." + ProfileBinding.regionZ(regionKey));
+            }
+            List<String> sorted = new ArrayList<>(regions);
+            sorted.sort(String::compareTo);
+            yaml.set(path, sorted);
+        }
+        try {
+            yaml.save(entry.file());
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not write " + entry.file().getPath() + ": " + ex.getMessage());
+        }
+    }
+
+    private record HistoryEntry(File file, String profileId, Map<Long, Set<Long>> history) {
+    }
+}
@@ -0,0 +1,202 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainField;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Random teleports that pick candidates from the generator's terrain prediction off the main
+// thread, loading and checking only the chosen chunk.
+public final class RandomTeleportService {
+
+    // Candidate columns keep this far from their chunk's edges so their neighbours are sampled too.
+    private static final int EDGE_MARGIN = 2;
+    // Largest height step between a candidate and its 8 neighbours.
+    private static final int MAX_STEP = 2;
+    // Cave tops closer than this below the surface count as a cave mouth.
+    private static final int CAVE_CLEARANCE = 6;
+
+    private final DrakesWorldsPlugin plugin;
+    private final Map<UUID, Long> lastTeleport = new ConcurrentHashMap<>();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    public RandomTeleportService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public static boolean supports(World world) {
+        return world.getGenerator() instanceof DrakesChunkGenerator;
+    }
+
+    public long cooldownRemainingSeconds(Player player) {
+        Long last = lastTeleport.get(player.getUniqueId());
+        if (last == null) {
+            return 0L;
+        }
+        long cooldownMillis = plugin.getWorldsConfig().getRtpSettings().cooldownSeconds() * 1000L;
+        return Math.max(0L, (last + cooldownMillis - System.currentTimeMillis() + 999L) / 1000L);
+    }
+
+    public boolean isPending(Player player) {
+        return pending.contains(player.getUniqueId());
+    }
+
+    // Call on the main thread with a DrakesWorlds world. Completes on the main thread with
+    // where the player was sent, or exceptionally when no safe spot turned up.
+    public CompletableFuture<Location> teleport(Player player, World world) {
+        CompletableFuture<Location> result = new CompletableFuture<>();
+        UUID playerId = player.getUniqueId();
+        if (!pending.add(playerId)) {
+            result.completeExceptionally(new IllegalStateException("A random teleport is already in progress."));
+            return result;
+        }
+        result.whenComplete((location, error) -> pending.remove(playerId));
+
+        DrakesChunkGenerator generator = (DrakesChunkGenerator) world.getGenerator();
+        WorldsConfig.RtpSettings settings = plugin.getWorldsConfig().getRtpSettings();
+        WorldsConfig.RtpSettings.Radius radius = settings.radiusFor(world.getName());
+        Location center = world.getSpawnLocation();
+        int centerX = center.getBlockX();
+        int centerZ = center.getBlockZ();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<int[]> candidates;
+            try {
+                candidates = findCandidates(world, generator, centerX, centerZ, radius, settings);
+            } catch (RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () -> result.completeExceptionally(ex));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> tryCandidate(player, world, candidates, 0, result));
+        });
+        return result;
+    }
+
+    // Up to maxChunkLoads spots in distinct chunks, each {x, surfaceY, z}.
+    private static List<int[]> findCandidates(World world, DrakesChunkGenerator generator, int centerX, int centerZ,
+                                              WorldsConfig.RtpSettings.Radius radius, WorldsConfig.RtpSettings settings) {
+        int seaLevel = generator.getProfileBinding().current().profile().seaLevel();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TerrainField field = new TerrainField();
+        List<int[]> found = new ArrayList<>();
+        double minSquared = (double) radius.min() * radius.min();
+        double maxSquared = (double) radius.max() * radius.max();
+        for (int attempt = 0; attempt < settings.maxCandidates() && found.size() < settings.maxChunkLoads(); attempt++) {
+            // Uniform over the ring's area rather than its radius.
+            double distance = Math.sqrt(minSquared + random.nextDouble() * (maxSquared - minSquared));
+            double angle = random.nextDouble() * Math.PI * 2.0d;
+            int chunkX = (centerX + (int) Math.round(Math.cos(angle) * distance)) >> 4;
+            int chunkZ = (centerZ + (int) Math.round(Math.sin(angle) * distance)) >> 4;
+            int localX = random.nextInt(EDGE_MARGIN, 16 - EDGE_MARGIN);
+            int localZ = random.nextInt(EDGE_MARGIN, 16 - EDGE_MARGIN);
+            generator.sampleField(world, chunkX, chunkZ, field);
+            if (isSafe(field, localX, localZ, seaLevel)) {
+                found.add(new int[]{(chunkX << 4) + localX, field.surfaceY(localX, localZ), (chunkZ << 4) + localZ});
+            }
+        }
+        return found;
+    }
+
+    // Dry land, not swamp or peak, gently sloped and with no cave opening under it.
+    private static boolean isSafe(TerrainField field, int localX, int localZ, int seaLevel) {
+        int surfaceY = field.surfaceY(localX, localZ);
+        if (surfaceY <= seaLevel || isAvoided(field.biome(localX, localZ))) {
+            return false;
+        }
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if (Math.abs(field.surfaceY(localX + dx, localZ + dz) - surfaceY) > MAX_STEP
+                        || (field.hasCave(localX + dx, localZ + dz)
+                        && field.caveTop(localX + dx, localZ + dz) > surfaceY - CAVE_CLEARANCE)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAvoided(Biome biome) {
+        String name = biome.name().toUpperCase(Locale.ROOT);
+        return name.contains("SWAMP") || name.contains("PEAKS") || name.contains("SLOPES");
+    }
+
+    // Loads one candidate's chunk and moves the player there if the blocks agree with the
+    // prediction; otherwise moves on to the next candidate. Paper completes chunk futures on
+    // the main thread.
+    private void tryCandidate(Player player, World world, List<int[]> candidates, int index, CompletableFuture<Location> result) {
+        if (!player.isOnline()) {
+            result.completeExceptionally(new IllegalStateException("Player went offline."));
+            return;
+        }
+        if (index >= candidates.size()) {
+            result.completeExceptionally(new IllegalStateException("No safe land found; try again."));
+            return;
+        }
+        int[] candidate = candidates.get(index);
+        world.getChunkAtAsync(candidate[0] >> 4, candidate[2] >> 4).whenComplete((chunk, error) -> {
+            Location destination = error == null ? standingSpot(world, candidate, player) : null;
+            if (destination == null) {
+                tryCandidate(player, world, candidates, index + 1, result);
+                return;
+            }
+            player.teleportAsync(destination).whenComplete((moved, teleportError) -> {
+                if (Boolean.TRUE.equals(moved)) {
+                    lastTeleport.put(player.getUniqueId(), System.currentTimeMillis());
+                    result.complete(destination);
+                } else {
+                    result.completeExceptionally(new IllegalStateException("Teleport was cancelled."));
+                }
+            });
+        });
+    }
+
+    // Trees or decoration can stand on the predicted column, so the nearby columns of the
+    // loaded chunk are tried too, a few blocks around the predicted height.
+    private static Location standingSpot(World world, int[] candidate, Player player) {
+        for (int ring = 0; ring <= EDGE_MARGIN; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) {
+                        continue;
+                    }
+                    int x = candidate[0] + dx;
+                    int z = candidate[2] + dz;
+                    for (int y = candidate[1] + 3; y >= candidate[1] - 2; y--) {
+                        if (canStand(world, x, y, z)) {
+                            Location facing = player.getLocation();
+                            return new Location(world, x + 0.5d, y + 1, z + 0.5d, facing.getYaw(), facing.getPitch());
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean canStand(World world, int x, int y, int z) {
+        Block ground = world.getBlockAt(x, y, z);
+        Material type = ground.getType();
+        if (!type.isSolid() || ground.isLiquid() || type.name().endsWith("_LEAVES")) {
+            return false;
+        }
+        Block feet = world.getBlockAt(x, y + 1, z);
+        Block head = world.getBlockAt(x, y + 2, z);
+        return feet.isPassable() && !feet.isLiquid() && head.isPassable() && !head.isLiquid();
+    }
+}
@@ -0,0 +1,160 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.api.DrakesTerrainQuery;
+import me.jackstar.drakesworlds.domain.ProfileSnapshot;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainField;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Answers DrakesTerrainQuery through DrakesChunkGenerator.sampleField a chunk at a time, so
+// predictions match generated terrain exactly.
+public final class TerrainQueryService implements DrakesTerrainQuery {
+
+    // The last sampled chunk. A query takes it while it runs, so concurrent queries sample into
+    // a field of their own and at most one is kept afterwards.
+    private final AtomicReference<SampledChunk> lastChunk = new AtomicReference<>();
+
+    @Override
+    public boolean supports(World world) {
+        return world.getGenerator() instanceof DrakesChunkGenerator;
+    }
+
+    @Override
+    public int seaLevel(World world) {
+        return generator(world).getProfileBinding().current().profile().seaLevel();
+    }
+
+    @Override
+    public int predictSurfaceY(World world, int x, int z) {
+        DrakesChunkGenerator generator = generator(world);
+        SampledChunk chunk = acquire();
+        try {
+            return chunk.sample(world, generator, x >> 4, z >> 4).surfaceY(x & 15, z & 15);
+        } finally {
+            lastChunk.set(chunk);
+        }
+    }
+
+    @Override
+    public Biome predictBiome(World world, int x, int z) {
+        DrakesChunkGenerator generator = generator(world);
+        SampledChunk chunk = acquire();
+        try {
+            return chunk.sample(world, generator, x >> 4, z >> 4).biome(x & 15, z & 15);
+        } finally {
+            lastChunk.set(chunk);
+        }
+    }
+
+    @Override
+    public int[] predictSurfaceY(World world, int minX, int minZ, int sizeX, int sizeZ) {
+        int[] heights = new int[checkedSize(sizeX, sizeZ)];
+        DrakesChunkGenerator generator = generator(world);
+        SampledChunk chunk = acquire();
+        try {
+            forEachChunk(minX, minZ, sizeX, sizeZ, (chunkX, chunkZ) -> {
+                TerrainField field = chunk.sample(world, generator, chunkX, chunkZ);
+                forEachColumn(chunkX, chunkZ, minX, minZ, sizeX, sizeZ, (index, localX, localZ) ->
+                        heights[index] = field.surfaceY(localX, localZ));
+            });
+        } finally {
+            lastChunk.set(chunk);
+        }
+        return heights;
+    }
+
+    @Override
+    public Biome[] predictBiomes(World world, int minX, int minZ, int sizeX, int sizeZ) {
+        Biome[] biomes = new Biome[checkedSize(sizeX, sizeZ)];
+        DrakesChunkGenerator generator = generator(world);
+        SampledChunk chunk = acquire();
+        try {
+            forEachChunk(minX, minZ, sizeX, sizeZ, (chunkX, chunkZ) -> {
+                TerrainField field = chunk.sample(world, generator, chunkX, chunkZ);
+                forEachColumn(chunkX, chunkZ, minX, minZ, sizeX, sizeZ, (index, localX, localZ) ->
+                        biomes[index] = field.biome(localX, localZ));
+            });
+        } finally {
+            lastChunk.set(chunk);
+        }
+        return biomes;
+    }
+
+    private SampledChunk acquire() {
+        SampledChunk chunk = lastChunk.getAndSet(null);
+        return chunk != null ? chunk : new SampledChunk();
+    }
+
+    private static DrakesChunkGenerator generator(World world) {
+        if (world.getGenerator() instanceof DrakesChunkGenerator generator) {
+            return generator;
+        }
+        throw new IllegalArgumentException("World '" + world.getName() + "' is not generated by DrakesWorlds");
+    }
+
+    private static int checkedSize(int sizeX, int sizeZ) {
+        if (sizeX <= 0 || sizeZ <= 0 || (long) sizeX * sizeZ > MAX_BATCH_COLUMNS) {
+            throw new IllegalArgumentException("Rectangle " + sizeX + "x" + sizeZ + " must be non-empty and at most "
+                    + MAX_BATCH_COLUMNS + " columns");
+        }
+        return sizeX * sizeZ;
+    }
+
+    private static void forEachChunk(int minX, int minZ, int sizeX, int sizeZ, ChunkVisitor visitor) {
+        for (int chunkX = minX >> 4; chunkX <= (minX + sizeX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (minZ + sizeZ - 1) >> 4; chunkZ++) {
+                visitor.visit(chunkX, chunkZ);
+            }
+        }
+    }
+
+    // The columns of the chunk that fall inside the rectangle.
+    private static void forEachColumn(int chunkX, int chunkZ, int minX, int minZ, int sizeX, int sizeZ, ColumnVisitor visitor) {
+        int fromX = Math.max(minX, chunkX << 4);
+        int toX = Math.min(minX + sizeX, (chunkX << 4) + 16);
+        int fromZ = Math.max(minZ, chunkZ << 4);
+        int toZ = Math.min(minZ + sizeZ, (chunkZ << 4) + 16);
+        for (int z = fromZ; z < toZ; z++) {
+            for (int x = fromX; x < toX; x++) {
+                visitor.visit((z - minZ) * sizeX + (x - minX), x & 15, z & 15);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkVisitor {
+        void visit(int chunkX, int chunkZ);
+    }
+
+    @FunctionalInterface
+    private interface ColumnVisitor {
+        void visit(int index, int localX, int localZ);
+    }
+
+    private static final class SampledChunk {
+
+        private final TerrainField field = new TerrainField();
+        private UUID worldId;
+        private ProfileSnapshot snapshot;
+        private int chunkX;
+        private int chunkZ;
+
+        TerrainField sample(World world, DrakesChunkGenerator generator, int chunkX, int chunkZ) {
+            UUID worldId = world.getUID();
+            ProfileSnapshot snapshot = generator.getProfileBinding().current();
+            if (snapshot != this.snapshot || chunkX != this.chunkX || chunkZ != this.chunkZ || !worldId.equals(this.worldId)) {
+                this.snapshot = null;
+                generator.sampleField(world, chunkX, chunkZ, field);
+                this.worldId = worldId;
+                this.snapshot = snapshot;
+                this.chunkX = chunkX;
+                this.chunkZ = chunkZ;
+            }
+            return field;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.GenerationHarness;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainField;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+// Generates throwaway chunks for every profile in use before players arrive, so the first
+// real chunks run on compiled noise code with their noise tables and spawn fields ready.
+public final class WarmupService {
+
+    // Chunks averaged for the cold and warm latency figures.
+    private static final int LATENCY_WINDOW = 8;
+    private static final int SPAWN_FIELD_RADIUS = 2;
+
+    private final DrakesWorldsPlugin plugin;
+    // Runs once per startup, so the join gate keeps the settings it started with across reloads.
+    private final WorldsConfig.WarmupSettings settings;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    public WarmupService(DrakesWorldsPlugin plugin, WorldsConfig.WarmupSettings settings) {
+        this.plugin = plugin;
+        this.settings = settings;
+    }
+
+    public WorldsConfig.WarmupSettings getSettings() {
+        return settings;
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0L;
+    }
+
+    // Blocks the calling (async login) thread until the warm-up ends or the timeout passes.
+    public boolean await(long seconds) {
+        try {
+            return done.await(seconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return isDone();
+        }
+    }
+
+    // Call once the startup worlds exist, on the main thread.
+    public void start() {
+        if (!settings.enabled()) {
+            done.countDown();
+            return;
+        }
+        Map<String, Target> targets = collectTargets();
+        List<World> drakesWorlds = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getGenerator() instanceof DrakesChunkGenerator) {
+                drakesWorlds.add(world);
+            }
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startedAt = System.nanoTime();
+        plugin.getLogger().info("Warm-up started: " + targets.size() + " profile(s), " + settings.chunksPerProfile()
+                + " chunks each on " + settings.threads() + " thread(s).");
+
+        List<CompletableFuture<ProfileWarmup>> profileRuns = new ArrayList<>();
+        for (Target target : targets.values()) {
+            profileRuns.add(warmProfile(target, executor));
+        }
+        List<CompletableFuture<?>> all = new ArrayList<>(profileRuns);
+        for (World world : drakesWorlds) {
+            Location spawn = world.getSpawnLocation();
+            int spawnChunkX = spawn.getBlockX() >> 4;
+            int spawnChunkZ = spawn.getBlockZ() >> 4;
+            all.add(CompletableFuture.runAsync(() -> primeSpawnFields(world, spawnChunkX, spawnChunkZ), executor));
+        }
+
+        CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            executor.shutdown();
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Warm-up failed, continuing without it", error);
+            } else {
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                plugin.getLogger().info("Warm-up finished in " + elapsedMs + " ms.");
+                for (CompletableFuture<ProfileWarmup> run : profileRuns) {
+                    ProfileWarmup result = run.join();
+                    plugin.getLogger().info(String.format(Locale.ROOT,
+                            "Warm-up %s: %d chunks, chunk latency cold %.2f ms -> warm %.2f ms",
+                            result.profileId(), result.chunks(), result.coldMs(), result.warmMs()));
+                }
+            }
+            done.countDown();
+        });
+    }
+
+    // One entry per profile, using the seed and height of a world that runs it where possible.
+    private Map<String, Target> collectTargets() {
+        Map<String, Target> targets = new LinkedHashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (world.getGenerator() instanceof DrakesChunkGenerator generator) {
+                WorldProfile profile = generator.getProfileBinding().current().profile();
+                targets.putIfAbsent(profile.id(), new Target(profile,
+                        new MemoryWorldInfo("warmup-" + profile.id(), world.getEnvironment(), world.getSeed(),
+                                world.getMinHeight(), world.getMaxHeight())));
+            }
+        }
+        if (targets.isEmpty()) {
+            WorldProfile profile = plugin.getWorldsConfig().getRequiredDefaultProfile();
+            targets.put(profile.id(), new Target(profile, MemoryWorldInfo.overworld("warmup-" + profile.id(), 0L)));
+        }
+        return targets;
+    }
+
+    private CompletableFuture<ProfileWarmup> warmProfile(Target target, ExecutorService executor) {
+        int perThread = Math.max(LATENCY_WINDOW * 2, settings.chunksPerProfile() / settings.threads());
+        List<CompletableFuture<long[]>> lanes = new ArrayList<>();
+        for (int lane = 0; lane < settings.threads(); lane++) {
+            int laneIndex = lane;
+            lanes.add(CompletableFuture.supplyAsync(() -> runLane(target, laneIndex, perThread), executor));
+        }
+        return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            double cold = 0.0d;
+            double warm = 0.0d;
+            for (CompletableFuture<long[]> lane : lanes) {
+                long[] latencies = lane.join();
+                cold += meanMillis(latencies, 0, LATENCY_WINDOW);
+                warm += meanMillis(latencies, latencies.length - LATENCY_WINDOW, latencies.length);
+            }
+            return new ProfileWarmup(target.profile().id(), perThread * lanes.size(), cold / lanes.size(), warm / lanes.size());
+        });
+    }
+
+    // Latency per chunk covers biomes and noise; flora also runs but needs its neighbours first.
+    private static long[] runLane(Target target, int lane, int chunks) {
+        GenerationHarness harness = new GenerationHarness(target.profile(), target.worldInfo());
+        BlockBuffer scratch = target.worldInfo().newChunk();
+        long[] latencies = new long[chunks];
+        for (int i = 0; i < chunks; i++) {
+            // Far from spawn and spread out, so every lane sees varied terrain.
+            int chunkX = 20_000 + lane * 4_096 + i * 7;
+            int chunkZ = -20_000 + i * 5;
+            long start = System.nanoTime();
+            harness.biomes(chunkX, chunkZ);
+            harness.noise(chunkX, chunkZ, scratch);
+            latencies[i] = System.nanoTime() - start;
+            harness.neighbourhood(chunkX, chunkZ);
+            harness.flora(chunkX, chunkZ);
+        }
+        return latencies;
+    }
+
+    // Runs the world's own generator once around spawn: initialises its noise and,
+    // with a field cache, leaves the spawn area's fields on disk.
+    private static void primeSpawnFields(World world, int spawnChunkX, int spawnChunkZ) {
+        DrakesChunkGenerator generator = (DrakesChunkGenerator) world.getGenerator();
+        TerrainField field = new TerrainField();
+        for (int dx = -SPAWN_FIELD_RADIUS; dx <= SPAWN_FIELD_RADIUS; dx++) {
+            for (int dz = -SPAWN_FIELD_RADIUS; dz <= SPAWN_FIELD_RADIUS; dz++) {
+                generator.sampleField(world, spawnChunkX + dx, spawnChunkZ + dz, field);
+            }
+        }
+    }
+
+    private static double meanMillis(long[] values, int from, int to) {
+        long sum = 0L;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (double) Math.max(1, to - from) / 1_000_000.0d;
+    }
+
+    private record Target(WorldProfile profile, MemoryWorldInfo worldInfo) {
+    }
+
+    private record ProfileWarmup(String profileId, int chunks, double coldMs, double warmMs) {
+    }
+}
@@ -5,23 +5,35 @@ import me.jackstar.drakesworlds.config.WorldsConfig;
 import me.jackstar.drakesworlds.domain.WorldProfile;
 import me.jackstar.drakesworlds.generation.DrakesBiomeProvider;
 import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
 import org.bukkit.Bukkit;
+import org.bukkit.GameRule;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 
 public final class WorldBootstrapService {
 
     private final DrakesWorldsPlugin plugin;
     private final WorldsConfig worldsConfig;
+    private final Map<String, BukkitTask> autoSaveTasks = new HashMap<>();
+    // Worlds whose server auto-save this service switched off.
+    private final Set<String> autoSaveOverridden = new HashSet<>();
 
     public WorldBootstrapService(DrakesWorldsPlugin plugin, WorldsConfig worldsConfig) {
         this.plugin = plugin;
@@ -39,6 +51,11 @@ public final class WorldBootstrapService {
                 plugin.getLogger().info("Startup world '" + spec.name() + "' already loaded.");
                 continue;
             }
+            if (spec.onDemand() && !spec.name().equalsIgnoreCase(worldsConfig.getDefaultWorldName())) {
+                plugin.getLogger().info("Startup world '" + spec.name() + "' loads on demand (idle-unload-after="
+                        + spec.idleUnloadAfterSeconds() + "s).");
+                continue;
+            }
             if (!spec.createIfMissing()) {
                 plugin.getLogger().info("Startup world '" + spec.name() + "' is configured but create-if-missing=false.");
                 continue;
@@ -133,10 +150,16 @@ public final class WorldBootstrapService {
             return loadedWorld;
         }
 
-        Optional<WorldProfile> profileOpt = worldsConfig.getProfile(profileId);
-        WorldProfile profile = profileOpt.orElseGet(worldsConfig::getRequiredDefaultProfile);
-        if (profileOpt.isEmpty()) {
-            plugin.getLogger().warning("Requested profile '" + profileId + "' not found. Using '" + profile.id() + "'");
+        WorldProfile profile = resolveProfile(profileId);
+        return createWorld(worldName, profile, environment, seed, createGenerator(worldName, profile), forceCreateIfMissing);
+    }
+
+    // Same as above with a generator built beforehand, e.g. off the main thread.
+    public World createWorld(String worldName, WorldProfile profile, World.Environment environment, Long seed,
+                             DrakesChunkGenerator chunkGenerator, boolean forceCreateIfMissing) {
+        World loadedWorld = Bukkit.getWorld(worldName);
+        if (loadedWorld != null) {
+            return loadedWorld;
         }
 
         WorldCreator creator = new WorldCreator(worldName);
@@ -145,23 +168,119 @@ public final class WorldBootstrapService {
             creator.seed(seed);
         }
 
-        DrakesBiomeProvider biomeProvider = new DrakesBiomeProvider(profile);
-        DrakesChunkGenerator chunkGenerator = new DrakesChunkGenerator(profile, biomeProvider);
+        boolean hotReload = worldsConfig.getStartupWorld(worldName)
+                .map(WorldsConfig.StartupWorldSpec::hotReload)
+                .orElse(false);
 
-        creator.biomeProvider(biomeProvider);
+        creator.biomeProvider(chunkGenerator.getBiomeProvider());
         creator.generator(chunkGenerator);
 
         World world = creator.createWorld();
         if (world == null) {
             throw new IllegalStateException("World '" + worldName + "' could not be created.");
         }
+        worldsConfig.getStartupWorld(worldName).ifPresent(spec -> applyResources(world, spec.resources()));
 
         plugin.getLogger().info(
                 "Created world '" + worldName + "' with profile '" + profile.id() + "'" +
                         ", env=" + environment +
                         ", seed=" + (seed == null ? "<random>" : seed) +
+                        ", hotReload=" + hotReload +
                         ", forceCreateIfMissing=" + forceCreateIfMissing
         );
         return world;
     }
+
+    // Re-applied to loaded startup worlds after a reload; values left out keep what the world has.
+    public void applyResourcesToLoadedWorlds() {
+        for (WorldsConfig.StartupWorldSpec spec : worldsConfig.getStartupWorlds()) {
+            World world = Bukkit.getWorld(spec.name());
+            if (world != null) {
+                applyResources(world, spec.resources());
+            }
+        }
+    }
+
+    // The spawn chunk radius is a game rule saved with the world, so the spawn chunks loaded
+    // while the world was created are released right away and not loaded on later starts.
+    private void applyResources(World world, WorldsConfig.WorldResources resources) {
+        int spawnChunkRadius = Boolean.FALSE.equals(resources.keepSpawnLoaded()) ? 0 : resources.spawnChunkRadius();
+        if (spawnChunkRadius != WorldsConfig.WorldResources.SERVER_DEFAULT) {
+            world.setGameRule(GameRule.SPAWN_CHUNK_RADIUS, spawnChunkRadius);
+        }
+        if (resources.viewDistance() != WorldsConfig.WorldResources.SERVER_DEFAULT) {
+            world.setViewDistance(resources.viewDistance());
+        }
+        if (resources.simulationDistance() != WorldsConfig.WorldResources.SERVER_DEFAULT) {
+            world.setSimulationDistance(resources.simulationDistance());
+        }
+        resources.spawnLimits().forEach(world::setSpawnLimit);
+        scheduleAutoSave(world, resources.autoSaveSeconds());
+    }
+
+    // Bukkit only toggles auto-save per world, so a custom interval turns the server's off for
+    // the world and saves it from a timer instead. Going back to the server default turns it on again.
+    private void scheduleAutoSave(World world, int autoSaveSeconds) {
+        String key = world.getName().toLowerCase(Locale.ROOT);
+        BukkitTask previous = autoSaveTasks.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (autoSaveSeconds == WorldsConfig.WorldResources.SERVER_DEFAULT) {
+            if (autoSaveOverridden.remove(key)) {
+                world.setAutoSave(true);
+            }
+            return;
+        }
+        autoSaveOverridden.add(key);
+        world.setAutoSave(false);
+        if (autoSaveSeconds == 0) {
+            return;
+        }
+        String worldName = world.getName();
+        long period = autoSaveSeconds * 20L;
+        autoSaveTasks.put(key, Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            World loaded = Bukkit.getWorld(worldName);
+            if (loaded == null) {
+                BukkitTask task = autoSaveTasks.remove(key);
+                if (task != null) {
+                    task.cancel();
+                }
+                return;
+            }
+            loaded.save();
+        }, period, period));
+    }
+
+    public WorldProfile resolveProfile(String profileId) {
+        Optional<WorldProfile> profileOpt = worldsConfig.getProfile(profileId);
+        WorldProfile profile = profileOpt.orElseGet(worldsConfig::getRequiredDefaultProfile);
+        if (profileOpt.isEmpty()) {
+            plugin.getLogger().warning("Requested profile '" + profileId + "' not found. Using '" + profile.id() + "'");
+        }
+        return profile;
+    }
+
+    public DrakesChunkGenerator createGenerator(String worldName, WorldProfile profile) {
+        boolean hotReload = worldsConfig.getStartupWorld(worldName)
+                .map(WorldsConfig.StartupWorldSpec::hotReload)
+                .orElse(false);
+        DrakesBiomeProvider biomeProvider = new DrakesBiomeProvider(worldsConfig.bind(profile, hotReload));
+        PrecomputeService precomputeService = plugin.getPrecomputeService();
+        return new DrakesChunkGenerator(biomeProvider, createFieldCache(worldName),
+                precomputeService == null ? null : precomputeService.getPrecompute());
+    }
+
+    // <world>/drakesworlds/fields by default; a shared terrain-cache.directory keeps one folder per world name.
+    private TerrainFieldCache createFieldCache(String worldName) {
+        TerrainFieldCache.Mode mode = worldsConfig.getTerrainCacheMode();
+        if (mode == TerrainFieldCache.Mode.OFF) {
+            return null;
+        }
+        String sharedDirectory = worldsConfig.getTerrainCacheDirectory();
+        Path directory = sharedDirectory.isBlank()
+                ? Bukkit.getWorldContainer().toPath().resolve(worldName).resolve("drakesworlds").resolve("fields")
+                : Path.of(sharedDirectory).resolve(worldName);
+        return new TerrainFieldCache(directory, mode, plugin.getLogger());
+    }
 }
@@ -0,0 +1,229 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.api.DrakesWorldLoader;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Loads startup worlds with idle-unload-after on first use and unloads them once empty that long;
+// logins into such a world wait for it to load.
+public final class WorldLifecycleService implements DrakesWorldLoader {
+
+    private static final long CHECK_INTERVAL_TICKS = 20L * 15L;
+    private static final int MAX_LOGIN_HOLD_SECONDS = 30;
+    private static final String RETURNS_FILE = "on-demand-returns.yml";
+
+    private final DrakesWorldsPlugin plugin;
+    // Main thread only.
+    private final Map<String, CompletableFuture<World>> loading = new HashMap<>();
+    private final Map<String, Long> emptySince = new HashMap<>();
+    // Player id to the on-demand world they logged out in.
+    private final Map<UUID, String> returns = new ConcurrentHashMap<>();
+    private final File returnsFile;
+    private BukkitTask task;
+
+    public WorldLifecycleService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+        this.returnsFile = new File(plugin.getDataFolder(), RETURNS_FILE);
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(returnsFile);
+        for (String key : yaml.getKeys(false)) {
+            try {
+                returns.put(UUID.fromString(key), yaml.getString(key, ""));
+            } catch (IllegalArgumentException ex) {
+                plugin.getLogger().warning("Ignoring invalid player id '" + key + "' in " + RETURNS_FILE);
+            }
+        }
+    }
+
+    public void start() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::unloadIdleWorlds, CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        saveReturns();
+    }
+
+    @Override
+    public Set<String> onDemandWorlds() {
+        Set<String> names = new LinkedHashSet<>();
+        for (WorldsConfig.StartupWorldSpec spec : plugin.getWorldsConfig().getStartupWorlds()) {
+            if (isOnDemand(spec)) {
+                names.add(spec.name());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public CompletableFuture<World> loadWorld(String name) {
+        if (!Bukkit.isPrimaryThread()) {
+            CompletableFuture<World> hopped = new CompletableFuture<>();
+            Bukkit.getScheduler().runTask(plugin, () -> loadWorld(name).whenComplete((world, error) -> {
+                if (error != null) {
+                    hopped.completeExceptionally(error);
+                } else {
+                    hopped.complete(world);
+                }
+            }));
+            return hopped;
+        }
+        World loaded = Bukkit.getWorld(name);
+        if (loaded != null) {
+            return CompletableFuture.completedFuture(loaded);
+        }
+        WorldsConfig.StartupWorldSpec spec = plugin.getWorldsConfig().getStartupWorld(name)
+                .filter(this::isOnDemand)
+                .orElse(null);
+        if (spec == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("World not loaded: " + name));
+        }
+        String key = spec.name().toLowerCase(Locale.ROOT);
+        CompletableFuture<World> pending = loading.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        if (!spec.createIfMissing() && !new File(new File(Bukkit.getWorldContainer(), spec.name()), "level.dat").exists()) {
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "World '" + spec.name() + "' does not exist and create-if-missing=false."));
+        }
+
+        WorldBootstrapService bootstrap = plugin.getWorldBootstrapService();
+        WorldProfile profile = bootstrap.resolveProfile(spec.profileId());
+        CompletableFuture<World> future = new CompletableFuture<>();
+        loading.put(key, future);
+        future.whenComplete((world, error) -> loading.remove(key));
+        long startedAt = System.nanoTime();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            DrakesChunkGenerator generator;
+            try {
+                generator = bootstrap.createGenerator(spec.name(), profile);
+            } catch (RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () -> future.completeExceptionally(ex));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                try {
+                    World world = bootstrap.createWorld(spec.name(), profile, spec.environment(), spec.seed(), generator,
+                            spec.createIfMissing());
+                    emptySince.put(key, System.currentTimeMillis());
+                    plugin.getLogger().info("Loaded on-demand world '" + world.getName() + "' in "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) + " ms.");
+                    future.complete(world);
+                } catch (RuntimeException ex) {
+                    plugin.getLogger().warning("Could not load on-demand world '" + spec.name() + "': " + ex.getMessage());
+                    future.completeExceptionally(ex);
+                }
+            });
+        });
+        return future;
+    }
+
+    // Called from the async pre-login thread: holds the login while the world the player
+    // logged out in loads, so the server places them back there. Skipped when join routing
+    // would send them to the default world anyway.
+    public void holdLogin(UUID playerId, String playerName) {
+        WorldsConfig config = plugin.getWorldsConfig();
+        if (config.isEnforceDefaultWorldOnJoin() && !config.isEnforceDefaultWorldOnlyFirstJoin()) {
+            return;
+        }
+        String worldName = returns.get(playerId);
+        if (worldName == null || Bukkit.getWorld(worldName) != null) {
+            return;
+        }
+        CompletableFuture<World> ready = loadWorld(worldName);
+        try {
+            ready.get(MAX_LOGIN_HOLD_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            plugin.getLogger().warning("Could not load '" + worldName + "' for " + playerName + ": " + ex.getCause().getMessage());
+        } catch (TimeoutException ex) {
+            plugin.getLogger().warning("World '" + worldName + "' still loading after " + MAX_LOGIN_HOLD_SECONDS
+                    + "s, letting " + playerName + " in.");
+        }
+    }
+
+    public void playerJoined(Player player) {
+        if (returns.remove(player.getUniqueId()) != null) {
+            saveReturnsAsync();
+        }
+    }
+
+    public void playerQuit(Player player) {
+        World world = player.getWorld();
+        boolean onDemand = plugin.getWorldsConfig().getStartupWorld(world.getName()).filter(this::isOnDemand).isPresent();
+        if (onDemand) {
+            returns.put(player.getUniqueId(), world.getName());
+            saveReturnsAsync();
+        }
+    }
+
+    private void unloadIdleWorlds() {
+        long now = System.currentTimeMillis();
+        World mainWorld = Bukkit.getWorlds().isEmpty() ? null : Bukkit.getWorlds().get(0);
+        Set<String> tracked = new HashSet<>();
+        for (WorldsConfig.StartupWorldSpec spec : plugin.getWorldsConfig().getStartupWorlds()) {
+            String key = spec.name().toLowerCase(Locale.ROOT);
+            World world = Bukkit.getWorld(spec.name());
+            if (!isOnDemand(spec) || world == null || world.equals(mainWorld) || loading.containsKey(key)
+                    || !world.getPlayers().isEmpty()) {
+                continue;
+            }
+            tracked.add(key);
+            long since = emptySince.computeIfAbsent(key, ignored -> now);
+            if (now - since < spec.idleUnloadAfterSeconds() * 1000L) {
+                continue;
+            }
+            plugin.getProfileHistoryService().flushAsync(world);
+            if (Bukkit.unloadWorld(world, true)) {
+                plugin.getLogger().info("Unloaded world '" + spec.name() + "' after " + (now - since) / 1000L + "s without players.");
+                tracked.remove(key);
+            }
+        }
+        emptySince.keySet().retainAll(tracked);
+    }
+
+    // The default world stays loaded whatever its idle setting.
+    private boolean isOnDemand(WorldsConfig.StartupWorldSpec spec) {
+        return spec.onDemand() && !spec.name().equalsIgnoreCase(plugin.getWorldsConfig().getDefaultWorldName());
+    }
+
+    private void saveReturnsAsync() {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::saveReturns);
+    }
+
+    private synchronized void saveReturns() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        returns.forEach((playerId, worldName) -> yaml.set(playerId.toString(), worldName));
+        try {
+            yaml.save(returnsFile);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not write " + returnsFile.getPath() + ": " + ex.getMessage());
+        }
+    }
+}
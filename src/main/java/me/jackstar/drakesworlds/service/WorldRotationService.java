@@ -0,0 +1,420 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.offline.RegionPregenJob;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Resets startup worlds with a rotation block to a new seed on schedule, swapping in a successor
+// pregenerated into <world>.next; schedule and seeds persist in rotation.yml.
+public final class WorldRotationService {
+
+    private static final long CHECK_INTERVAL_TICKS = 20L * 20L;
+    private static final long WARNING_MILLIS = TimeUnit.SECONDS.toMillis(60L);
+    private static final long PROGRESS_SECONDS = 60L;
+    private static final String STATE_FILE = "rotation.yml";
+    private static final String NEXT_SUFFIX = ".next";
+    private static final String OLD_MARKER = ".old-";
+    private static final String NEXT_STAMP_FILE = "drakesworlds-next.yml";
+    private static final long RETRY_MILLIS = TimeUnit.MINUTES.toMillis(5L);
+
+    public record Status(long nextResetAt, long nextSeed, boolean pregenerating, boolean pregenerated) {
+    }
+
+    private final DrakesWorldsPlugin plugin;
+    private final File stateFile;
+    // Main thread only, keyed by lower-case world name.
+    private final Map<String, State> states = new HashMap<>();
+    private final Map<String, RegionPregenJob> pregenJobs = new HashMap<>();
+    private final ExecutorService pregenExecutor;
+    private final ExecutorService fileWorker;
+    private BukkitTask task;
+
+    public WorldRotationService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+        this.stateFile = new File(plugin.getDataFolder(), STATE_FILE);
+        this.pregenExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-rotation-pregen");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // Deletes are blocking file-system walks on distinct folders; a virtual thread each.
+        this.fileWorker = Executors.newVirtualThreadPerTaskExecutor();
+        loadState();
+    }
+
+    public void start() {
+        for (WorldsConfig.StartupWorldSpec spec : rotatingWorlds()) {
+            deleteRetiredFolders(spec.name());
+        }
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+
+    // Cancels any running pregeneration; the regions already written are reused on the next start.
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pregenJobs.values().forEach(RegionPregenJob::cancel);
+        pregenExecutor.shutdown();
+        fileWorker.shutdown();
+        try {
+            pregenExecutor.awaitTermination(30L, TimeUnit.SECONDS);
+            fileWorker.awaitTermination(30L, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        saveState();
+    }
+
+    public Optional<Status> status(String worldName) {
+        State state = states.get(worldName.toLowerCase(Locale.ROOT));
+        if (state == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Status(state.nextResetAt, state.nextSeed,
+                pregenJobs.containsKey(worldName.toLowerCase(Locale.ROOT)), state.pregenerated));
+    }
+
+    // Resets the world now, or as soon as its successor's pregeneration stops; false if it does not rotate.
+    public boolean rotateNow(String worldName) {
+        Optional<WorldsConfig.StartupWorldSpec> spec = plugin.getWorldsConfig().getStartupWorld(worldName)
+                .filter(candidate -> candidate.rotation().enabled());
+        if (spec.isEmpty()) {
+            return false;
+        }
+        State state = stateFor(spec.get(), System.currentTimeMillis());
+        state.nextResetAt = System.currentTimeMillis();
+        state.warned = true;
+        tick();
+        return true;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (WorldsConfig.StartupWorldSpec spec : rotatingWorlds()) {
+            String key = spec.name().toLowerCase(Locale.ROOT);
+            WorldsConfig.RotationSettings rotation = spec.rotation();
+            State state = stateFor(spec, now);
+            if (!state.pregenerated && !pregenJobs.containsKey(key) && rotation.pregenRadius() > 0
+                    && spec.environment() == World.Environment.NORMAL
+                    && now < state.nextResetAt && now >= state.nextResetAt - rotation.pregenLeadSeconds() * 1000L) {
+                startPregen(spec, state);
+            }
+            if (!state.warned && now >= state.nextResetAt - WARNING_MILLIS) {
+                state.warned = true;
+                World world = Bukkit.getWorld(spec.name());
+                if (world != null) {
+                    for (Player player : world.getPlayers()) {
+                        player.sendMessage(ChatColor.YELLOW + "This world resets in "
+                                + Math.max(1L, (state.nextResetAt - now) / 1000L) + " seconds.");
+                    }
+                }
+            }
+            if (now < state.nextResetAt) {
+                continue;
+            }
+            RegionPregenJob job = pregenJobs.get(key);
+            if (job != null) {
+                // The worker finishes its current region first; the swap waits for it.
+                job.cancel();
+                continue;
+            }
+            rotate(spec, state);
+        }
+    }
+
+    private State stateFor(WorldsConfig.StartupWorldSpec spec, long now) {
+        String key = spec.name().toLowerCase(Locale.ROOT);
+        State state = states.get(key);
+        if (state == null) {
+            int every = spec.rotation().everySeconds();
+            state = new State(now + every * 1000L, ThreadLocalRandom.current().nextLong());
+            states.put(key, state);
+            saveState();
+            plugin.getLogger().info("World '" + spec.name() + "' rotates every " + every + "s; first reset in "
+                    + every / 3600 + "h.");
+        }
+        return state;
+    }
+
+    private void startPregen(WorldsConfig.StartupWorldSpec spec, State state) {
+        String key = spec.name().toLowerCase(Locale.ROOT);
+        WorldProfile profile = plugin.getWorldBootstrapService().resolveProfile(spec.profileId());
+        World current = Bukkit.getWorld(spec.name());
+        MemoryWorldInfo worldInfo = new MemoryWorldInfo(spec.name(), World.Environment.NORMAL, state.nextSeed,
+                current == null ? -64 : current.getMinHeight(), current == null ? 320 : current.getMaxHeight());
+        Path regionDirectory = nextFolder(spec.name()).resolve("region");
+        WorldsConfig.RotationSettings rotation = spec.rotation();
+        RegionPregenJob job = new RegionPregenJob(profile, worldInfo, rotation.pregenRadius() >> 4, regionDirectory, false)
+                .limitRate(rotation.chunksPerSecond());
+        pregenJobs.put(key, job);
+        long seed = state.nextSeed;
+        plugin.getLogger().info("Pregenerating successor of '" + spec.name() + "' (seed " + seed + "): "
+                + job.totalRegions() + " region(s) at up to " + rotation.chunksPerSecond() + " chunks/s.");
+        pregenExecutor.execute(() -> {
+            boolean complete = false;
+            try {
+                prepareNextFolder(nextFolder(spec.name()), seed);
+                RegionPregenJob.Progress done = job.run(1, PROGRESS_SECONDS, progress -> plugin.getLogger().fine(
+                        "Successor of '" + spec.name() + "': " + progress.regionsDone() + "/" + progress.totalRegions() + " regions"));
+                complete = !job.isCancelled();
+                plugin.getLogger().info("Successor of '" + spec.name() + "': " + done.chunks() + " chunks in "
+                        + done.millis() / 1000L + " s" + (complete ? "." : ", stopped early."));
+            } catch (IOException ex) {
+                plugin.getLogger().warning("Pregeneration of the successor of '" + spec.name() + "' failed: " + ex.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            // A job cancelled at reset time still leaves usable regions; the rest generate live.
+            boolean pregenerated = complete || job.isCancelled();
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pregenJobs.remove(key);
+                State latest = states.get(key);
+                if (latest != null && latest.nextSeed == seed) {
+                    latest.pregenerated = pregenerated;
+                    saveState();
+                }
+            });
+        });
+    }
+
+    // Regions left in <world>.next by a job for another seed would not line up with the new
+    // world, so they are wiped before the job reuses the folder.
+    private void prepareNextFolder(Path next, long seed) throws IOException {
+        if (Files.exists(next) && !Objects.equals(readNextSeed(next), seed)) {
+            deleteTree(next);
+        }
+        Files.createDirectories(next);
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("seed", seed);
+        yaml.save(next.resolve(NEXT_STAMP_FILE).toFile());
+    }
+
+    // Null without a readable stamp.
+    private static Long readNextSeed(Path next) {
+        Path stamp = next.resolve(NEXT_STAMP_FILE);
+        if (!Files.isRegularFile(stamp)) {
+            return null;
+        }
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(stamp.toFile());
+        return yaml.contains("seed") ? Long.valueOf(yaml.getLong("seed")) : null;
+    }
+
+    private void rotate(WorldsConfig.StartupWorldSpec spec, State state) {
+        WorldBootstrapService bootstrap = plugin.getWorldBootstrapService();
+        World current = Bukkit.getWorld(spec.name());
+        Long currentSeed = current == null ? null : current.getSeed();
+        List<Player> moved = new ArrayList<>();
+        if (current != null) {
+            World fallback = bootstrap.ensureConfiguredDefaultWorldLoaded();
+            if (fallback.equals(current)) {
+                plugin.getLogger().warning("World '" + spec.name() + "' is the default world and cannot rotate; rotation skipped.");
+                scheduleNext(spec, state);
+                return;
+            }
+            for (Player player : current.getPlayers()) {
+                player.teleport(fallback.getSpawnLocation());
+                moved.add(player);
+            }
+            if (!Bukkit.unloadWorld(current, false)) {
+                plugin.getLogger().warning("Could not unload '" + spec.name() + "' for its reset; retrying on the next check.");
+                return;
+            }
+        }
+
+        long seed = state.nextSeed;
+        Path folder = Bukkit.getWorldContainer().toPath().resolve(spec.name());
+        long retiredAt = System.currentTimeMillis();
+        Path retired = folder.resolveSibling(spec.name() + OLD_MARKER + retiredAt);
+        Path next = nextFolder(spec.name());
+        boolean retiredMoved = false;
+        try {
+            if (Files.exists(next) && !Objects.equals(readNextSeed(next), seed)) {
+                plugin.getLogger().warning("Discarding " + next.getFileName() + ": it was not generated for seed " + seed + ".");
+                Path stale = folder.resolveSibling(spec.name() + OLD_MARKER + retiredAt + NEXT_SUFFIX);
+                move(next, stale);
+                fileWorker.execute(() -> deleteTree(stale));
+            }
+            if (Files.exists(folder)) {
+                move(folder, retired);
+                retiredMoved = true;
+            }
+            if (Files.exists(next)) {
+                move(next, folder);
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().severe("Could not swap world folders of '" + spec.name() + "': " + ex.getMessage()
+                    + "; reset aborted, retrying in " + RETRY_MILLIS / 60_000L + " minutes.");
+            abortRotation(spec, state, folder, retiredMoved ? retired : null, currentSeed, moved);
+            return;
+        }
+
+        scheduleNext(spec, state);
+        // Created even when it was an unloaded on-demand world: level.dat must record the new
+        // seed, which a later on-demand load would otherwise take from the config. It unloads
+        // again once idle.
+        World world = bootstrap.createWorld(spec.name(), spec.profileId(), spec.environment(), seed, true);
+        for (Player player : moved) {
+            if (player.isOnline()) {
+                player.teleportAsync(world.getSpawnLocation());
+                player.sendMessage(ChatColor.GREEN + "World " + ChatColor.YELLOW + world.getName() + ChatColor.GREEN + " has been reset.");
+            }
+        }
+        plugin.getLogger().info("Rotated world '" + spec.name() + "' to seed " + seed + ".");
+        fileWorker.execute(() -> deleteTree(retired));
+    }
+
+    // Puts the old folder back and, if the world was loaded, loads it again and returns its
+    // players. The seed, successor and schedule stay as they were; only the retry is delayed.
+    private void abortRotation(WorldsConfig.StartupWorldSpec spec, State state, Path folder, Path retired,
+                               Long previousSeed, List<Player> moved) {
+        state.nextResetAt = System.currentTimeMillis() + RETRY_MILLIS;
+        saveState();
+        if (retired != null) {
+            try {
+                move(retired, folder);
+            } catch (IOException ex) {
+                plugin.getLogger().severe("Could not restore '" + spec.name() + "' from " + retired.getFileName()
+                        + ": " + ex.getMessage() + ". Move it back by hand; players stay in the default world.");
+                return;
+            }
+        }
+        if (previousSeed == null) {
+            return;
+        }
+        World world = plugin.getWorldBootstrapService().createWorld(spec.name(), spec.profileId(), spec.environment(), previousSeed, true);
+        for (Player player : moved) {
+            if (player.isOnline()) {
+                player.teleportAsync(world.getSpawnLocation());
+                player.sendMessage(ChatColor.RED + "The reset of " + ChatColor.YELLOW + world.getName()
+                        + ChatColor.RED + " failed; the world was left as it was.");
+            }
+        }
+    }
+
+    private void scheduleNext(WorldsConfig.StartupWorldSpec spec, State state) {
+        long every = spec.rotation().everySeconds() * 1000L;
+        long now = System.currentTimeMillis();
+        while (state.nextResetAt <= now) {
+            state.nextResetAt += every;
+        }
+        state.nextSeed = ThreadLocalRandom.current().nextLong();
+        state.pregenerated = false;
+        state.warned = false;
+        saveState();
+    }
+
+    private List<WorldsConfig.StartupWorldSpec> rotatingWorlds() {
+        return plugin.getWorldsConfig().getStartupWorlds().stream()
+                .filter(spec -> spec.rotation().enabled())
+                .toList();
+    }
+
+    private static Path nextFolder(String worldName) {
+        return Bukkit.getWorldContainer().toPath().resolve(worldName + NEXT_SUFFIX);
+    }
+
+    // Leftovers of a reset interrupted by a shutdown before the file worker got to them.
+    private void deleteRetiredFolders(String worldName) {
+        Path container = Bukkit.getWorldContainer().toPath();
+        String prefix = worldName + OLD_MARKER;
+        try (Stream<Path> children = Files.list(container)) {
+            children.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .forEach(path -> fileWorker.execute(() -> deleteTree(path)));
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not scan " + container + " for retired worlds: " + ex.getMessage());
+        }
+    }
+
+    private void deleteTree(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not delete " + root + ": " + ex.getMessage());
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(from, to);
+        }
+    }
+
+    private void loadState() {
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(stateFile);
+        for (String key : yaml.getKeys(false)) {
+            ConfigurationSection section = yaml.getConfigurationSection(key);
+            if (section == null) {
+                continue;
+            }
+            State state = new State(section.getLong("next-reset"), section.getLong("next-seed"));
+            state.pregenerated = section.getBoolean("pregenerated", false);
+            states.put(key.toLowerCase(Locale.ROOT), state);
+        }
+    }
+
+    private void saveState() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        states.forEach((key, state) -> {
+            yaml.set(key + ".next-reset", state.nextResetAt);
+            yaml.set(key + ".next-seed", state.nextSeed);
+            yaml.set(key + ".pregenerated", state.pregenerated);
+        });
+        try {
+            yaml.save(stateFile);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not write " + stateFile.getPath() + ": " + ex.getMessage());
+        }
+    }
+
+    private static final class State {
+
+        private long nextResetAt;
+        private long nextSeed;
+        private boolean pregenerated;
+        private boolean warned;
+
+        State(long nextResetAt, long nextSeed) {
+            this.nextResetAt = nextResetAt;
+            this.nextSeed = nextSeed;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package me.jackstar.drakesworlds.service;
+
+import me.jackstar.drakesworlds.DrakesWorldsPlugin;
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.TerrainFieldCache;
+import me.jackstar.drakesworlds.offline.RegionPregenJob;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Pregenerated templates per (profile, seed) and a pool of region-file copies next to the worlds,
+// so a new world is a directory rename. Files are copied, never linked: the server rewrites them.
+public final class WorldTemplateService {
+
+    private static final String STAMP_FILE = "template.yml";
+    private static final String POOL_FOLDER = ".drakesworlds-pool";
+    private static final String PARTIAL_SUFFIX = ".tmp";
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 320;
+    private static final long PROGRESS_SECONDS = 30L;
+
+    public record Status(String profileId, long seed, boolean ready, int pooled) {
+    }
+
+    private final DrakesWorldsPlugin plugin;
+    private final Path templatesDirectory;
+    private final Path poolDirectory;
+    // Keys of built templates, with the stamp they were built for; only served while that
+    // stamp still matches the current profile.
+    private final Map<String, Long> ready = new ConcurrentHashMap<>();
+    private final Object poolLock = new Object();
+    private ExecutorService executor;
+
+    public WorldTemplateService(DrakesWorldsPlugin plugin) {
+        this.plugin = plugin;
+        this.templatesDirectory = plugin.getDataFolder().toPath().resolve("templates");
+        this.poolDirectory = Bukkit.getWorldContainer().toPath().resolve(POOL_FOLDER);
+    }
+
+    public boolean isEnabled() {
+        return settings().enabled();
+    }
+
+    // Builds missing or stale templates and fills their pools, one at a time on a background thread.
+    public void start() {
+        WorldsConfig.TemplateSettings settings = settings();
+        if (!settings.enabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DrakesWorlds-templates");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (WorldsConfig.TemplateSettings.Template template : settings.templates()) {
+            executor.execute(() -> prepare(template));
+        }
+        plugin.getLogger().info("World templates enabled: " + settings.templates().size() + " template(s), pool of "
+                + settings.poolSize() + " each.");
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // After /drakesworlds reload: applies the current templates section and rebuilds stale templates.
+    public void refresh() {
+        WorldsConfig.TemplateSettings settings = settings();
+        if (!settings.enabled()) {
+            if (executor != null) {
+                stop();
+                ready.clear();
+                plugin.getLogger().info("World templates disabled.");
+            }
+            return;
+        }
+        if (executor == null) {
+            start();
+            return;
+        }
+        Set<String> configured = new HashSet<>();
+        for (WorldsConfig.TemplateSettings.Template template : settings.templates()) {
+            String key = key(template.profileId(), template.seed());
+            configured.add(key);
+            if (!isServable(template.profileId(), template.seed())) {
+                ready.remove(key);
+            }
+            executor.execute(() -> prepare(template));
+        }
+        for (String removed : new ArrayList<>(ready.keySet())) {
+            if (!configured.contains(removed)) {
+                ready.remove(removed);
+                executor.execute(() -> dropPool(removed));
+            }
+        }
+    }
+
+    public boolean hasTemplate(String profileId, long seed) {
+        return isServable(profileId, seed);
+    }
+
+    public List<Status> status() {
+        List<Status> status = new ArrayList<>();
+        for (WorldsConfig.TemplateSettings.Template template : settings().templates()) {
+            String key = key(template.profileId(), template.seed());
+            status.add(new Status(template.profileId(), template.seed(), isServable(template.profileId(), template.seed()),
+                    pooledCopies(key).size()));
+        }
+        return status;
+    }
+
+    // Call on the main thread once hasTemplate is true. Takes a pooled copy, or copies the
+    // template when the pool is empty, off the main thread, then creates the world on it.
+    public CompletableFuture<World> createWorld(String worldName, String profileId, long seed) {
+        String key = key(profileId, seed);
+        Path target = Bukkit.getWorldContainer().toPath().resolve(worldName);
+        if (Bukkit.getWorld(worldName) != null || Files.exists(target)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("World '" + worldName + "' already exists."));
+        }
+        if (!isServable(profileId, seed)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("No template ready for " + key + "."));
+        }
+        CompletableFuture<World> future = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                if (!takePooledCopy(key, target)) {
+                    copyRegions(templatesDirectory.resolve(key).resolve("region"), target.resolve("region"));
+                }
+            } catch (IOException | RuntimeException ex) {
+                Bukkit.getScheduler().runTask(plugin, () -> future.completeExceptionally(
+                        new IllegalStateException("Could not clone template " + key + ": " + ex.getMessage(), ex)));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                try {
+                    future.complete(plugin.getWorldBootstrapService()
+                            .createWorld(worldName, profileId, World.Environment.NORMAL, seed, true));
+                } catch (RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+                ExecutorService refill = executor;
+                if (refill != null) {
+                    refill.execute(() -> fillPool(key));
+                }
+            });
+        });
+        return future;
+    }
+
+    private void prepare(WorldsConfig.TemplateSettings.Template template) {
+        String key = key(template.profileId(), template.seed());
+        Optional<WorldProfile> profile = plugin.getWorldsConfig().getProfile(template.profileId());
+        if (profile.isEmpty()) {
+            plugin.getLogger().warning("Template " + key + ": unknown profile '" + template.profileId() + "'.");
+            return;
+        }
+        long stamp = stamp(profile.get(), template.seed());
+        Path directory = templatesDirectory.resolve(key);
+        try {
+            if (!isCurrent(directory, stamp)) {
+                ready.remove(key);
+                synchronized (poolLock) {
+                    deleteTree(poolDirectory.resolve(key));
+                }
+                build(key, profile.get(), template.seed(), stamp, directory);
+            }
+            ready.put(key, stamp);
+            fillPool(key);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Template " + key + " failed: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void build(String key, WorldProfile profile, long seed, long stamp, Path directory)
+            throws IOException, InterruptedException {
+        WorldsConfig.TemplateSettings settings = settings();
+        Path partial = directory.resolveSibling(key + PARTIAL_SUFFIX);
+        deleteTree(partial);
+        deleteTree(directory);
+        MemoryWorldInfo worldInfo = new MemoryWorldInfo(key, World.Environment.NORMAL, seed, MIN_Y, MAX_Y);
+        RegionPregenJob job = new RegionPregenJob(profile, worldInfo, settings.radius() >> 4, partial.resolve("region"), true);
+        plugin.getLogger().info("Building template " + key + ": " + job.totalRegions() + " region(s) within "
+                + settings.radius() + " blocks.");
+        RegionPregenJob.Progress done = job.run(settings.threads(), PROGRESS_SECONDS, progress ->
+                plugin.getLogger().info("Template " + key + ": " + progress.regionsDone() + "/" + progress.totalRegions() + " regions"));
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("profile", profile.id());
+        yaml.set("seed", seed);
+        yaml.set("radius", settings.radius());
+        yaml.set("stamp", stamp);
+        yaml.save(partial.resolve(STAMP_FILE).toFile());
+        move(partial, directory);
+        plugin.getLogger().info(String.format(Locale.ROOT, "Template %s ready: %d chunks in %.1f s.",
+                key, done.chunks(), done.millis() / 1000.0d));
+    }
+
+    // The template was built for the profile as it is now, not as it was when it was prepared.
+    private boolean isServable(String profileId, long seed) {
+        Long built = ready.get(key(profileId, seed));
+        if (built == null) {
+            return false;
+        }
+        Optional<WorldProfile> profile = plugin.getWorldsConfig().getProfile(profileId);
+        return profile.isPresent() && stamp(profile.get(), seed) == built;
+    }
+
+    private boolean isCurrent(Path directory, long stamp) {
+        Path stampFile = directory.resolve(STAMP_FILE);
+        if (!Files.isRegularFile(stampFile)) {
+            return false;
+        }
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(stampFile.toFile());
+        return yaml.getLong("stamp") == stamp && yaml.getInt("radius") == settings().radius();
+    }
+
+    private void fillPool(String key) {
+        Path templateRegions = templatesDirectory.resolve(key).resolve("region");
+        Path pool = poolDirectory.resolve(key);
+        try {
+            while (pooledCopies(key).size() < settings().poolSize()) {
+                String name = UUID.randomUUID().toString();
+                Path partial = pool.resolve(name + PARTIAL_SUFFIX);
+                copyRegions(templateRegions, partial.resolve("region"));
+                move(partial, pool.resolve(name));
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not refill template pool " + key + ": " + ex.getMessage());
+        }
+    }
+
+    private void dropPool(String key) {
+        try {
+            synchronized (poolLock) {
+                deleteTree(poolDirectory.resolve(key));
+            }
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Could not empty template pool " + key + ": " + ex.getMessage());
+        }
+    }
+
+    private boolean takePooledCopy(String key, Path target) throws IOException {
+        synchronized (poolLock) {
+            for (Path copy : pooledCopies(key)) {
+                move(copy, target);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Path> pooledCopies(String key) {
+        Path pool = poolDirectory.resolve(key);
+        if (!Files.isDirectory(pool)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(pool)) {
+            return children.filter(path -> !path.getFileName().toString().endsWith(PARTIAL_SUFFIX)).toList();
+        } catch (IOException ex) {
+            return List.of();
+        }
+    }
+
+    private static void copyRegions(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, to.resolve(file.getFileName().toString()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        Files.createDirectories(to.getParent());
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(from, to);
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // Terrain fingerprint plus the decoration settings, so any change that alters the chunks
+    // invalidates the template.
+    private static long stamp(WorldProfile profile, long seed) {
+        return TerrainFieldCache.fingerprint(profile, seed, MIN_Y, MAX_Y) * 31L + profile.decorationSettings().toString().hashCode();
+    }
+
+    private WorldsConfig.TemplateSettings settings() {
+        return plugin.getWorldsConfig().getTemplateSettings();
+    }
+
+    private static String key(String profileId, long seed) {
+        return profileId.toLowerCase(Locale.ROOT) + "-" + seed;
+    }
+}
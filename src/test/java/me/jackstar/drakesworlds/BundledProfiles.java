@@ -0,0 +1,44 @@
+package me.jackstar.drakesworlds;
+
+import me.jackstar.drakesworlds.config.WorldsConfig;
+import me.jackstar.drakesworlds.domain.QualityTier;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+// The profiles of the worlds.yml shipped in the jar, parsed the way the plugin does.
+public final class BundledProfiles {
+
+    private BundledProfiles() {
+    }
+
+    public static Collection<WorldProfile> load() {
+        try {
+            Path file = Files.createTempFile("worlds", ".yml");
+            file.toFile().deleteOnExit();
+            try (InputStream in = BundledProfiles.class.getResourceAsStream("/worlds.yml")) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            WorldsConfig config = new WorldsConfig(file.toFile(), Logger.getLogger("DrakesWorlds"));
+            config.reload();
+            return config.getProfiles().values();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // The same profile on another tier, with that tier's own noise precision.
+    public static WorldProfile withQuality(WorldProfile profile, QualityTier tier) {
+        return new WorldProfile(profile.id(), profile.seaLevel(), profile.baseHeight(), profile.hillAmplitude(),
+                profile.mountainAmplitude(), profile.valleyDepth(), profile.detailAmplitude(), profile.clearingScale(),
+                profile.clearingThreshold(), profile.clearingFlattening(), profile.biomeWeights(),
+                profile.decorationSettings(), profile.budget(), tier.noisePrecision(), tier);
+    }
+}
@@ -0,0 +1,130 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.BundledProfiles;
+import me.jackstar.drakesworlds.domain.GenerationBudget;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import me.jackstar.drakesworlds.generation.DrakesChunkGenerator;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.generator.WorldInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Fails the build when a generation stage of a bundled profile allocates more per chunk
+// than its budget, as /drakesworlds allocaudit reports it, or when the server entry points
+// allocate more than the offline stages they wrap.
+class AllocationBudgetTest {
+
+    private static final long SEED = 20240611L;
+    private static final int CHUNKS = 64;
+    private static final int WARMUP_CHUNKS = 24;
+    private static final int CHUNK_STRIDE = 37;
+    // BlockBuffer.flush and LimitedRegionAccess should not allocate; this absorbs one-off class initialisation.
+    private static final long ADAPTER_BUDGET_BYTES = 64L;
+
+    @BeforeAll
+    static void requirePerThreadAllocation() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported(), "JVM does not report per-thread allocation");
+        BukkitStandIns.installServer();
+        Bukkit.createBlockData(Material.OAK_LOG);
+    }
+
+    static Stream<Arguments> bundledProfiles() {
+        return BundledProfiles.load().stream().map(profile -> Arguments.of(profile.id(), profile));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("bundledProfiles")
+    void stagesStayWithinBudget(String profileId, WorldProfile profile) {
+        assertWithinBudget(profileId, new AllocationAudit().run(profile, SEED, CHUNKS).stages());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("bundledProfiles")
+    void serverEntryPointsStayWithinBudget(String profileId, WorldProfile profile) {
+        assertWithinBudget(profileId, auditServerEntryPoints(profile));
+    }
+
+    private static void assertWithinBudget(String profileId, List<AllocationAudit.StageResult> stages) {
+        assertAll(stages.stream().map(stage -> () -> assertTrue(stage.passed(),
+                profileId + " " + stage.stage() + ": " + stage.bytesPerChunk() + " B/chunk, budget "
+                        + stage.budgetBytes() + " B")));
+    }
+
+    // generateNoise and populate as the server calls them, minus what the stand-ins' proxies
+    // allocate. The LimitedRegionAccess stage is populate minus decorate on the same chunk.
+    private static List<AllocationAudit.StageResult> auditServerEntryPoints(WorldProfile profile) {
+        AllocationProbe probe = new AllocationProbe();
+        GenerationHarness harness = new GenerationHarness(profile, MemoryWorldInfo.overworld("allocation-audit", SEED));
+        DrakesChunkGenerator generator = harness.generator();
+        WorldInfo worldInfo = BukkitStandIns.worldInfo(harness.worldInfo());
+        Random random = new Random(SEED);
+        BlockBuffer blocks = harness.worldInfo().newChunk();
+        MemoryChunkData chunkData = new MemoryChunkData(harness.worldInfo().newChunk());
+        MemoryRegion backing = new MemoryRegion();
+        MemoryLimitedRegion region = new MemoryLimitedRegion(backing);
+        BlockBuffer[] neighbours = new BlockBuffer[9];
+
+        long noiseBytes = 0L;
+        long flushBytes = 0L;
+        long populateBytes = 0L;
+        long adapterBytes = 0L;
+        for (int i = -WARMUP_CHUNKS; i < CHUNKS; i++) {
+            int chunkX = i * CHUNK_STRIDE;
+            int chunkZ = i * 13 - CHUNKS * 6;
+
+            long mark = probe.mark();
+            generator.generateNoise(worldInfo, random, chunkX, chunkZ, chunkData.proxy());
+            long noise = Math.max(0L, probe.since(mark) - chunkData.replay(probe));
+
+            harness.noise(chunkX, chunkZ, blocks);
+            mark = probe.mark();
+            blocks.flush(chunkData.proxy());
+            long flush = Math.max(0L, probe.since(mark) - chunkData.replay(probe));
+
+            harness.neighbourhood(chunkX, chunkZ);
+            mark = probe.mark();
+            harness.flora(chunkX, chunkZ);
+            long decorate = probe.since(mark);
+
+            harness.neighbourhood(chunkX, chunkZ);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    neighbours[MemoryRegion.slot(dx, dz)] = harness.chunk(dx, dz);
+                }
+            }
+            backing.bind(chunkX, chunkZ, neighbours);
+            mark = probe.mark();
+            generator.getFloraPopulator().populate(worldInfo, random, chunkX, chunkZ, region.proxy());
+            long populate = Math.max(0L, probe.since(mark) - region.replay(probe));
+
+            if (i >= 0) {
+                noiseBytes += noise;
+                flushBytes += flush;
+                populateBytes += populate;
+                adapterBytes += Math.max(0L, populate - decorate);
+            }
+        }
+
+        GenerationBudget budget = profile.budget();
+        return List.of(
+                new AllocationAudit.StageResult("generateNoise(ChunkData)", noiseBytes / CHUNKS, budget.noiseAllocBytes()),
+                new AllocationAudit.StageResult("BlockBuffer.flush", flushBytes / CHUNKS, ADAPTER_BUDGET_BYTES),
+                new AllocationAudit.StageResult("populate(LimitedRegion)", populateBytes / CHUNKS, budget.floraAllocBytes()),
+                new AllocationAudit.StageResult("LimitedRegionAccess", adapterBytes / CHUNKS, ADAPTER_BUDGET_BYTES)
+        );
+    }
+}
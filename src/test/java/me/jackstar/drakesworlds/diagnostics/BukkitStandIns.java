@@ -0,0 +1,70 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import org.bukkit.Axis;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
+import org.bukkit.generator.WorldInfo;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+
+// The few server objects the generator's server entry points touch outside ChunkData and LimitedRegion.
+final class BukkitStandIns {
+
+    private BukkitStandIns() {
+    }
+
+    // Answers from boxed constants, so reading the seed or heights allocates nothing.
+    static WorldInfo worldInfo(MemoryWorldInfo info) {
+        Long seed = info.getSeed();
+        Integer minHeight = info.getMinHeight();
+        Integer maxHeight = info.getMaxHeight();
+        return (WorldInfo) Proxy.newProxyInstance(WorldInfo.class.getClassLoader(), new Class<?>[]{WorldInfo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getSeed" -> seed;
+                    case "getMinHeight" -> minHeight;
+                    case "getMaxHeight" -> maxHeight;
+                    case "getName" -> info.getName();
+                    case "getEnvironment" -> info.getEnvironment();
+                    default -> throw new UnsupportedOperationException("WorldInfo." + method.getName());
+                });
+    }
+
+    // LimitedRegionAccess builds log block data through Bukkit.createBlockData.
+    static synchronized void installServer() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("createBlockData") && args.length == 1 && args[0] instanceof Material material) {
+                        return blockData(material);
+                    }
+                    throw new UnsupportedOperationException("Server." + method.getName());
+                });
+        try {
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Cannot install the stand-in server", exception);
+        }
+    }
+
+    private static BlockData blockData(Material material) {
+        Axis[] axis = {Axis.Y};
+        return (BlockData) Proxy.newProxyInstance(Orientable.class.getClassLoader(), new Class<?>[]{Orientable.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMaterial" -> material;
+                    case "getAxis" -> axis[0];
+                    case "setAxis" -> {
+                        axis[0] = (Axis) args[0];
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException("BlockData." + method.getName());
+                });
+    }
+}
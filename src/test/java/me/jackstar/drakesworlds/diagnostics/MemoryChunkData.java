@@ -0,0 +1,45 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.generation.BlockBuffer;
+import org.bukkit.Material;
+import org.bukkit.generator.ChunkGenerator;
+
+// ChunkData over a BlockBuffer; supports the block writes BlockBuffer.flush makes.
+final class MemoryChunkData extends RecordingStandIn<ChunkGenerator.ChunkData> {
+
+    private final BlockBuffer blocks;
+
+    MemoryChunkData(BlockBuffer blocks) {
+        super(ChunkGenerator.ChunkData.class);
+        this.blocks = blocks;
+    }
+
+    @Override
+    Object handle(String name, Object[] args) {
+        if (name.equals("setBlock") && args[3] instanceof Material material) {
+            blocks.set((Integer) args[0], (Integer) args[1], (Integer) args[2], material);
+            return null;
+        }
+        if (name.equals("setRegion") && args[6] instanceof Material material) {
+            for (int x = (Integer) args[0]; x < (Integer) args[3]; x++) {
+                for (int y = (Integer) args[1]; y < (Integer) args[4]; y++) {
+                    for (int z = (Integer) args[2]; z < (Integer) args[5]; z++) {
+                        blocks.set(x, y, z, material);
+                    }
+                }
+            }
+            return null;
+        }
+        throw new UnsupportedOperationException("ChunkData." + name);
+    }
+
+    @Override
+    void replay(ChunkGenerator.ChunkData target, String name, Object[] args) {
+        if (name.equals("setBlock")) {
+            target.setBlock((Integer) args[0], (Integer) args[1], (Integer) args[2], (Material) args[3]);
+        } else {
+            target.setRegion((Integer) args[0], (Integer) args[1], (Integer) args[2],
+                    (Integer) args[3], (Integer) args[4], (Integer) args[5], (Material) args[6]);
+        }
+    }
+}
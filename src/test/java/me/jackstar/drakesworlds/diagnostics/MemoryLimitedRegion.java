@@ -0,0 +1,66 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import me.jackstar.drakesworlds.generation.RegionAccess;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
+import org.bukkit.generator.LimitedRegion;
+
+// LimitedRegion over a RegionAccess; supports the calls LimitedRegionAccess makes.
+final class MemoryLimitedRegion extends RecordingStandIn<LimitedRegion> {
+
+    private final RegionAccess region;
+
+    MemoryLimitedRegion(RegionAccess region) {
+        super(LimitedRegion.class);
+        this.region = region;
+    }
+
+    @Override
+    Object handle(String name, Object[] args) {
+        int arity = args == null ? 0 : args.length;
+        switch (name) {
+            case "getCenterChunkX":
+                return region.centerChunkX();
+            case "getCenterChunkZ":
+                return region.centerChunkZ();
+            case "isInRegion":
+                if (arity == 3) {
+                    return region.isInRegion((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                }
+                break;
+            case "getType":
+                if (arity == 3) {
+                    return region.getType((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                }
+                break;
+            case "setType":
+                if (arity == 4) {
+                    region.setType((Integer) args[0], (Integer) args[1], (Integer) args[2], (Material) args[3]);
+                    return null;
+                }
+                break;
+            case "setBlockData":
+                if (arity == 4 && args[3] instanceof Orientable log) {
+                    region.setLog((Integer) args[0], (Integer) args[1], (Integer) args[2], log.getMaterial(), log.getAxis());
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException("LimitedRegion." + name + " with " + arity + " argument(s)");
+    }
+
+    @Override
+    void replay(LimitedRegion target, String name, Object[] args) {
+        switch (name) {
+            case "getCenterChunkX" -> target.getCenterChunkX();
+            case "getCenterChunkZ" -> target.getCenterChunkZ();
+            case "isInRegion" -> target.isInRegion((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+            case "getType" -> target.getType((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+            case "setType" -> target.setType((Integer) args[0], (Integer) args[1], (Integer) args[2], (Material) args[3]);
+            default -> target.setBlockData((Integer) args[0], (Integer) args[1], (Integer) args[2], (BlockData) args[3]);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package me.jackstar.drakesworlds.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+// Proxy-backed stand-in for a server interface. Calls are recorded so that what the proxy itself
+// allocates (argument arrays, boxed coordinates) can be measured by replaying them.
+abstract class RecordingStandIn<T> implements InvocationHandler {
+
+    private static final int MAX_CALLS = 1 << 20;
+
+    private final T proxy;
+    private final Method[] methods = new Method[MAX_CALLS];
+    private final Object[][] calls = new Object[MAX_CALLS][];
+    private int size;
+    private boolean replaying;
+    private Object[] sink;
+
+    RecordingStandIn(Class<T> type) {
+        this.proxy = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+    }
+
+    final T proxy() {
+        return proxy;
+    }
+
+    @Override
+    public final Object invoke(Object self, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> self == args[0];
+                case "hashCode" -> System.identityHashCode(self);
+                default -> getClass().getSimpleName();
+            };
+        }
+        if (replaying) {
+            // Kept reachable like the recorded calls, so both passes allocate the same arguments.
+            sink = args;
+        } else {
+            if (size == MAX_CALLS) {
+                throw new IllegalStateException("More than " + MAX_CALLS + " calls recorded");
+            }
+            methods[size] = method;
+            calls[size++] = args;
+        }
+        return handle(method.getName(), args);
+    }
+
+    // Bytes the proxy allocates for the calls recorded since the last replay; clears the record.
+    final long replay(AllocationProbe probe) {
+        replaying = true;
+        long mark = probe.mark();
+        for (int i = 0; i < size; i++) {
+            replay(proxy, methods[i].getName(), calls[i]);
+        }
+        long bytes = probe.since(mark);
+        replaying = false;
+        Arrays.fill(calls, 0, size, null);
+        size = 0;
+        sink = null;
+        return bytes;
+    }
+
+    abstract Object handle(String name, Object[] args);
+
+    // Repeats a recorded call through the typed interface, as the generator made it.
+    abstract void replay(T target, String name, Object[] args);
+}
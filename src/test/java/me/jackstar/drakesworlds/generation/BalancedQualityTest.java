@@ -0,0 +1,55 @@
+package me.jackstar.drakesworlds.generation;
+
+import me.jackstar.drakesworlds.BundledProfiles;
+import me.jackstar.drakesworlds.diagnostics.GenerationHarness;
+import me.jackstar.drakesworlds.diagnostics.MemoryWorldInfo;
+import me.jackstar.drakesworlds.domain.QualityTier;
+import me.jackstar.drakesworlds.domain.WorldProfile;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Balanced is the default tier, so as shipped it must generate what exact does: any drift
+// would show as seams next to chunks generated before the profile picked it up.
+class BalancedQualityTest {
+
+    private static final long SEED = 123456789L;
+
+    static Stream<Arguments> balancedProfiles() {
+        return BundledProfiles.load().stream()
+                .filter(profile -> profile.quality() == QualityTier.BALANCED)
+                .map(profile -> Arguments.of(profile.id(), profile));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("balancedProfiles")
+    void balancedMatchesExact(String profileId, WorldProfile profile) {
+        MemoryWorldInfo worldInfo = MemoryWorldInfo.overworld("balanced", SEED);
+        GenerationHarness exact = new GenerationHarness(BundledProfiles.withQuality(profile, QualityTier.EXACT), worldInfo);
+        GenerationHarness balanced = new GenerationHarness(profile, worldInfo);
+        BlockBuffer expected = worldInfo.newChunk();
+        BlockBuffer actual = worldInfo.newChunk();
+        for (int i = 0; i < 24; i++) {
+            int chunkX = i * 41 - 480;
+            int chunkZ = 300 - i * 29;
+            exact.noise(chunkX, chunkZ, expected);
+            balanced.noise(chunkX, chunkZ, actual);
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    int worldX = (chunkX << 4) + x;
+                    int worldZ = (chunkZ << 4) + z;
+                    assertEquals(exact.biome(worldX, 64, worldZ), balanced.biome(worldX, 64, worldZ),
+                            profileId + " biome at " + worldX + "," + worldZ);
+                    for (int y = worldInfo.getMinHeight(); y < worldInfo.getMaxHeight(); y++) {
+                        assertEquals(expected.get(x, y, z), actual.get(x, y, z),
+                                profileId + " chunk " + chunkX + "," + chunkZ + " at " + x + "," + y + "," + z);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package me.jackstar.drakesworlds.generation.noise;
+
+import org.bukkit.util.noise.SimplexOctaveGenerator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// SharedNoise must reproduce SimplexOctaveGenerator bit for bit, or existing worlds get seams
+// against chunks generated before the shared registry.
+class SharedNoiseTest {
+
+    private static final long SALT = 0x9E3779B97F4A7C15L;
+    private static final int OCTAVES = 8;
+    private static final double SCALE = 0.0035d;
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 12345L, -7L, 20240611L, Long.MAX_VALUE})
+    void matchesOctaveGenerator(long seed) {
+        SharedNoise shared = new NoiseRegistry().get(seed, SALT, OCTAVES, SCALE);
+        SimplexOctaveGenerator reference = new SimplexOctaveGenerator(seed ^ SALT, OCTAVES);
+        reference.setScale(SCALE);
+        for (int i = 0; i < 256; i++) {
+            double x = (i * 37 % 101 - 50) * 13.25d;
+            double y = (i * 11 % 64) - 16.5d;
+            double z = (i * 53 % 97 - 48) * 17.75d;
+            for (boolean normalized : new boolean[]{true, false}) {
+                assertEquals(reference.noise(x, z, 0.45d, 0.5d, normalized),
+                        shared.noise(x, z, 0.45d, 0.5d, normalized), "2D at " + x + "," + z);
+                assertEquals(reference.noise(x, y, z, 0.70d, 0.5d, normalized),
+                        shared.noise(x, y, z, 0.70d, 0.5d, normalized), "3D at " + x + "," + y + "," + z);
+            }
+        }
+    }
+}